@@ -0,0 +1,57 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+
+/**
+ * Runs all benchmarks at 1, 8 and 64 threads. Every benchmark reports throughput and the sampled latency
+ * distribution (p50, p90, p99, p99.9); the results of each thread count are written as JSON into the
+ * "target/jmh" directory, to be archived and compared between builds.
+ * The optional argument is the regexp of benchmarks to run, all of them by default.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class BenchmarkRunner {
+    /**
+     * The thread counts to run every benchmark with.
+     */
+    private static final int[] THREADS = {1, 8, 64};
+
+    /**
+     * The directory of the result files.
+     */
+    private static final String RESULTS = "target/jmh";
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args - the optional regexp of benchmarks to run.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "ru\\.job4j\\.cinema\\..*";
+        new File(BenchmarkRunner.RESULTS).mkdirs();
+        for (int threads : BenchmarkRunner.THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(2))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("%s/result-%dt.json", BenchmarkRunner.RESULTS, threads))
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
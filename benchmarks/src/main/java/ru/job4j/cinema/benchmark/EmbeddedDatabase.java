@@ -0,0 +1,99 @@
+package ru.job4j.cinema.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The database stand-in for the benchmarks: an embedded PostgreSQL, started once per fork, migrated with the
+ * service's own changelog and seeded with a big hall. The service is pointed to it with the "cinema.*" system
+ * properties, so nothing of the service must be touched before this state is set up.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+@State(Scope.Benchmark)
+public class EmbeddedDatabase {
+    /**
+     * The number of rows in the benchmark hall.
+     */
+    public static final int ROWS = 40;
+
+    /**
+     * The number of seats in a row of the benchmark hall.
+     */
+    public static final int SEATS = 50;
+
+    /**
+     * The database user.
+     */
+    private static final String USER = "postgres";
+
+    /**
+     * The running database.
+     */
+    private EmbeddedPostgres postgres;
+
+    /**
+     * Starts the database, applies the changelog and seeds the hall.
+     *
+     * @throws Exception if the database could not be started or migrated.
+     */
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        this.postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = this.postgres.getPostgresDatabase().getConnection()) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase("db/master.xml", new ClassLoaderResourceAccessor(), database).update("");
+        }
+        try (Connection connection = this.postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("delete from tickets;");
+            statement.execute("delete from hall;");
+            statement.execute(String.format(
+                    "insert into hall (row, number, isempty, price) "
+                            + "select r, n, true, case when r <= 10 then 700 else 500 end "
+                            + "from generate_series(1, %d) r, generate_series(1, %d) n;",
+                    EmbeddedDatabase.ROWS, EmbeddedDatabase.SEATS
+            ));
+            statement.execute("analyze;");
+        }
+        System.setProperty("cinema.url", this.postgres.getJdbcUrl(EmbeddedDatabase.USER, EmbeddedDatabase.USER));
+        System.setProperty("cinema.username", EmbeddedDatabase.USER);
+        System.setProperty("cinema.password", "");
+    }
+
+    /**
+     * Opens a connection to the database.
+     *
+     * @return the connection.
+     * @throws SQLException if the connection can not be opened.
+     */
+    public Connection connect() throws SQLException {
+        return this.postgres.getPostgresDatabase().getConnection();
+    }
+
+    /**
+     * Stops the database.
+     *
+     * @throws IOException if the database could not be stopped.
+     */
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        this.postgres.close();
+    }
+}
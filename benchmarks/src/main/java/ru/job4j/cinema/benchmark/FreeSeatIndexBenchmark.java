@@ -0,0 +1,93 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.job4j.cinema.model.FreeSeatIndex;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.SeatPreferences;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the best seats search in a stadium-sized hall, three quarters sold at random. Needs no database.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FreeSeatIndexBenchmark {
+    /**
+     * The number of rows of the hall.
+     */
+    private static final int ROWS = 200;
+
+    /**
+     * The number of seats in every row.
+     */
+    private static final int SEATS = 250;
+
+    /**
+     * The number of seats to find together.
+     */
+    @Param({"2", "4", "10"})
+    public int count;
+
+    /**
+     * The index of the hall.
+     */
+    private FreeSeatIndex index;
+
+    /**
+     * The cheap seats only.
+     */
+    private final SeatPreferences cheap = new SeatPreferences(1, FreeSeatIndexBenchmark.ROWS, 300);
+
+    /**
+     * Builds the hall.
+     */
+    @Setup
+    public void init() {
+        Random random = new Random(1);
+        List<Place> places = new ArrayList<Place>(FreeSeatIndexBenchmark.ROWS * FreeSeatIndexBenchmark.SEATS);
+        for (int row = 1; row <= FreeSeatIndexBenchmark.ROWS; row++) {
+            for (int number = 1; number <= FreeSeatIndexBenchmark.SEATS; number++) {
+                places.add(new Place(
+                        Place.DEFAULT_SCREENING, row, number, random.nextInt(4) == 0, number % 50 < 10 ? 300 : 500
+                ));
+            }
+        }
+        this.index = new FreeSeatIndex(Place.DEFAULT_SCREENING, places, 0);
+    }
+
+    /**
+     * Finds the best seats anywhere.
+     *
+     * @return the found seats.
+     */
+    @Benchmark
+    public List<Place> findBest() {
+        return this.index.findBest(this.count, SeatPreferences.ANY);
+    }
+
+    /**
+     * Finds the best cheap seats.
+     *
+     * @return the found seats.
+     */
+    @Benchmark
+    public List<Place> findBestCheap() {
+        return this.index.findBest(this.count, this.cheap);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.dao.impl.PlaceDaoDb;
+import ru.job4j.cinema.model.Place;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the database DAO.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlaceDaoDbBenchmark {
+    /**
+     * The benchmarked DAO.
+     */
+    private PlaceDao dao;
+
+    /**
+     * Gets the DAO, connected to the started database.
+     *
+     * @param database - the started database.
+     */
+    @Setup(Level.Trial)
+    public void init(EmbeddedDatabase database) {
+        this.dao = PlaceDaoDb.getInstanceOf();
+    }
+
+    /**
+     * Reads the whole hall.
+     *
+     * @return all places.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Benchmark
+    public List<Place> findAllPlaces() throws DaoSystemException {
+        return this.dao.findAllPlaces(Place.DEFAULT_SCREENING);
+    }
+
+    /**
+     * Checks one place.
+     *
+     * @param cursor - the thread's seats.
+     * @return true if the place is free.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Benchmark
+    public boolean isFree(SeatCursor cursor) throws DaoSystemException {
+        return this.dao.isFree(cursor.next());
+    }
+
+    /**
+     * Sells a ticket and frees the place again, so the hall never runs out of free places.
+     *
+     * @param cursor - the thread's seats.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the place has not been freed by the previous round.
+     */
+    @Benchmark
+    public void createTicket(SeatCursor cursor) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        Place place = cursor.next();
+        this.dao.createTicket(place, cursor.person());
+        this.dao.freePlace(place);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread walk over the benchmark hall. Every thread gets its own slice of seats, so the booking benchmarks
+ * measure the booking path itself, not the conflicts between benchmark threads.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+public class SeatCursor {
+    /**
+     * The counter of benchmark threads.
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /**
+     * The buyer of this thread.
+     */
+    private Person person;
+
+    /**
+     * The first seat index of this thread's slice.
+     */
+    private int first;
+
+    /**
+     * The number of seats in this thread's slice.
+     */
+    private int size;
+
+    /**
+     * The current position in the slice.
+     */
+    private int position;
+
+    /**
+     * Takes the next slice of the hall.
+     */
+    @Setup
+    public void init() {
+        int seats = EmbeddedDatabase.ROWS * EmbeddedDatabase.SEATS;
+        int slices = Integer.highestOneBit(seats / 16);
+        int id = SeatCursor.THREADS.getAndIncrement() % slices;
+        this.size = seats / slices;
+        this.first = id * this.size;
+        this.person = new Person("bench-" + id, "+7000000" + id);
+    }
+
+    /**
+     * Gets the next seat of this thread's slice.
+     *
+     * @return the next seat.
+     */
+    public Place next() {
+        int index = this.first + this.position;
+        this.position = (this.position + 1) % this.size;
+        return new Place(index / EmbeddedDatabase.SEATS + 1, index % EmbeddedDatabase.SEATS + 1);
+    }
+
+    /**
+     * Gets the buyer of this thread.
+     *
+     * @return the buyer.
+     */
+    public Person person() {
+        return this.person;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.job4j.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.business.NullArgumentException;
+import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Ticket;
+import ru.job4j.cinema.validate.Validator;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the validate layer, for every storage it can be configured with. Every storage value runs in
+ * its own fork, so the storage setting is read by a fresh validator.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidatorDBBenchmark {
+    /**
+     * The storage the validator works with.
+     */
+    @Param({"db", "atomic"})
+    public String storage;
+
+    /**
+     * The benchmarked validator.
+     */
+    private Validator validator;
+
+    /**
+     * Configures the storage and gets the validator.
+     *
+     * @param database - the started database.
+     */
+    @Setup(Level.Trial)
+    public void init(EmbeddedDatabase database) {
+        System.setProperty("cinema.storage", this.storage);
+        this.validator = ValidatorDB.getInstanceOf();
+    }
+
+    /**
+     * Reads the whole hall.
+     *
+     * @return all places.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws NoSuchModelException if the hall is empty.
+     */
+    @Benchmark
+    public List<Place> selectAllPlaces() throws DaoSystemException, NoSuchModelException {
+        return this.validator.selectAllPlaces(Place.DEFAULT_SCREENING);
+    }
+
+    /**
+     * Checks one place.
+     *
+     * @param cursor - the thread's seats.
+     * @return true if the place is free.
+     * @throws Exception if the check fails.
+     */
+    @Benchmark
+    public boolean isFree(SeatCursor cursor) throws Exception {
+        return this.validator.isFree(cursor.next());
+    }
+
+    /**
+     * Gets the price of one place.
+     *
+     * @param cursor - the thread's seats.
+     * @return the place's price.
+     * @throws Exception if the check fails.
+     */
+    @Benchmark
+    public int getActualPrice(SeatCursor cursor) throws Exception {
+        return this.validator.getActualPrice(cursor.next());
+    }
+
+    /**
+     * Sells a ticket and frees the place again, so the hall never runs out of free places.
+     *
+     * @param cursor - the thread's seats.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws NullArgumentException if an argument is null.
+     * @throws AlreadyOccupiedPlaceException if the place has not been freed by the previous round.
+     */
+    @Benchmark
+    public void createTicket(SeatCursor cursor)
+            throws DaoSystemException, WrongArgumentException, NullArgumentException, AlreadyOccupiedPlaceException {
+        Place place = cursor.next();
+        this.validator.createTicket(new Ticket(place, cursor.person()));
+        this.validator.freePlace(place);
+    }
+}
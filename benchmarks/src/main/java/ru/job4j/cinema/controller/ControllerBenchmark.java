@@ -0,0 +1,126 @@
+package ru.job4j.cinema.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.benchmark.EmbeddedDatabase;
+import ru.job4j.cinema.model.Place;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the controllers' request parsing and response serialization. Needs no database: the places are
+ * built in memory and the response body is consumed by the blackhole.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerBenchmark {
+    /**
+     * The places of the benchmark hall.
+     */
+    private final List<Place> places = new ArrayList<Place>();
+
+    /**
+     * The serialized places of the benchmark hall, as the hall snapshot keeps them.
+     */
+    private byte[] json;
+
+    /**
+     * The serializing controller.
+     */
+    private final PlacesController controller = new PlacesController();
+
+    /**
+     * The response, writing its body into the blackhole.
+     */
+    private HttpServletResponse response;
+
+    /**
+     * Builds the hall and the response stub.
+     *
+     * @param blackhole - the sink for the response body.
+     * @throws IOException if the serialization fails.
+     */
+    @Setup
+    public void init(Blackhole blackhole) throws IOException {
+        for (int row = 1; row <= EmbeddedDatabase.ROWS; row++) {
+            for (int number = 1; number <= EmbeddedDatabase.SEATS; number++) {
+                this.places.add(new Place(row, number, number % 3 != 0, 500));
+            }
+        }
+        this.json = Utils.JSON.writeValueAsBytes(this.places);
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+            }
+
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+        this.response = (HttpServletResponse) Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class},
+                (proxy, method, args) -> "getOutputStream".equals(method.getName()) ? out : null
+        );
+    }
+
+    /**
+     * Parses the place parameter of the booking request.
+     *
+     * @return the parsed place.
+     */
+    @Benchmark
+    public Place parsePlace() {
+        return Utils.parsePlace("23");
+    }
+
+    /**
+     * Serializes the whole hall into the response, as it is done on a hall change.
+     *
+     * @throws IOException if the serialization fails.
+     */
+    @Benchmark
+    public void serialize() throws IOException {
+        Utils.writeJson(this.places, this.response);
+    }
+
+    /**
+     * Sends the serialized hall, as it is done while the hall is not changed.
+     *
+     * @throws IOException if the response stream fails.
+     */
+    @Benchmark
+    public void prepareResponse() throws IOException {
+        this.controller.prepareResponse(this.json, "text/json;charset=UTF-8", this.response);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.job4j.cinema.load;
+
+import ru.job4j.cinema.metrics.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The results of one kind of the load test's calls: their latencies and outcomes, the status codes of the HTTP
+ * requests or the names of the purchases' results.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+class Endpoint {
+    /**
+     * The name.
+     */
+    private final String name;
+
+    /**
+     * The latencies, ns.
+     */
+    private final Histogram latencies = new Histogram();
+
+    /**
+     * The number of every outcome.
+     */
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<String, LongAdder>();
+
+    /**
+     * Creates the results.
+     *
+     * @param name - the name.
+     */
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the call.
+     *
+     * @param start - the call's start, ns.
+     * @param outcome - the call's outcome.
+     */
+    void record(long start, String outcome) {
+        this.latencies.record(System.nanoTime() - start);
+        this.count(outcome);
+    }
+
+    /**
+     * Counts the outcome without the latency.
+     *
+     * @param outcome - the outcome.
+     */
+    void count(String outcome) {
+        this.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the number of the specified outcome.
+     *
+     * @param outcome - the outcome.
+     * @return the number of the outcome.
+     */
+    long get(String outcome) {
+        LongAdder result = this.outcomes.get(outcome);
+        return result != null ? result.sum() : 0;
+    }
+
+    /**
+     * Gets the number of the recorded calls.
+     *
+     * @return the number of the calls.
+     */
+    long getCount() {
+        return this.latencies.getCount();
+    }
+
+    /**
+     * Describes the results as a line of the report.
+     *
+     * @param seconds - the test's duration, s.
+     * @return the line of the report.
+     */
+    String report(double seconds) {
+        Map<String, Long> outcomes = new TreeMap<String, Long>();
+        for (Map.Entry<String, LongAdder> outcome : this.outcomes.entrySet()) {
+            outcomes.put(outcome.getKey(), outcome.getValue().sum());
+        }
+        return String.format(
+                "%-10s %8d %9.1f %9.2f %9.2f %9.2f %9.2f  %s",
+                this.name, this.latencies.getCount(), this.latencies.getCount() / seconds,
+                Endpoint.millis(this.latencies.getValueAtPercentile(50)),
+                Endpoint.millis(this.latencies.getValueAtPercentile(99)),
+                Endpoint.millis(this.latencies.getValueAtPercentile(99.9)),
+                Endpoint.millis(this.latencies.getMax()),
+                outcomes
+        );
+    }
+
+    /**
+     * Converts the nanoseconds to the milliseconds.
+     *
+     * @param nanos - the time, ns.
+     * @return the time, ms.
+     */
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
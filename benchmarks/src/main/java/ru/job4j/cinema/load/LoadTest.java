@@ -0,0 +1,461 @@
+package ru.job4j.cinema.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.catalina.startup.Tomcat;
+import ru.job4j.cinema.benchmark.EmbeddedDatabase;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The end-to-end load test of one node: runs the service's war in an embedded Tomcat against an embedded PostgreSQL
+ * and drives it by the simulated users over HTTP. The users arrive by the open-loop model, a Poisson stream of the
+ * fixed rate, which does not slow down when the service does, and every user is a new visitor: some users only poll
+ * "/places" of a screening, the others look at "/places", book one of the best free seats by "/booking" and buy it
+ * by "/ticket". The purchases' latency is counted from the user's planned arrival, so the queueing is not hidden.
+ * The report has the throughput and the latency percentiles of every endpoint and of the purchases after the
+ * warm-up, the rate of the conflicts, the "409 Conflict" answers of the already occupied places, and the check of the
+ * final "tickets" table: no seat may be sold twice and every sold ticket must be there. The exit code is 1 if the
+ * check fails.
+ * Settings, the system properties: "load.war" - the war, "target/cinema_service-1.0-SNAPSHOT.war"; "load.port" -
+ * 8080; "load.rate" - the users per second, 200; "load.warmup" - s, 15; "load.duration" - s, 30; "load.pollers" -
+ * the percent of the users only polling, 70; "load.polls" - the polls of a poller, 3; "load.poll-interval" - ms,
+ * 1000; "load.screenings" - the screenings of 9 x 9 seats, 100; "load.hot" - the best free seats a buyer chooses
+ * from, 8; "load.in-flight" - the most users at once, the arrivals over it are dropped, 10000.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.3
+ * @since 18/10/2026
+ */
+public class LoadTest {
+    /**
+     * The rows and the seats of a row of every screening.
+     */
+    private static final int SIDE = 9;
+
+    /**
+     * The longest wait for the users in flight after the last arrival, s.
+     */
+    private static final int DRAIN = 60;
+
+    /**
+     * The json reader.
+     */
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * The HTTP client of all users.
+     */
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * The service's address.
+     */
+    private final String base;
+
+    /**
+     * The screenings' ids.
+     */
+    private final List<Integer> screenings;
+
+    /**
+     * The "/places" requests.
+     */
+    private final Endpoint places = new Endpoint("places");
+
+    /**
+     * The "/booking" requests.
+     */
+    private final Endpoint booking = new Endpoint("booking");
+
+    /**
+     * The "/ticket" requests.
+     */
+    private final Endpoint ticket = new Endpoint("ticket");
+
+    /**
+     * The purchases from the arrival of their users.
+     */
+    private final Endpoint purchases = new Endpoint("purchase");
+
+    /**
+     * The users in flight.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The number of the dropped arrivals.
+     */
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    /**
+     * Creates the test.
+     *
+     * @param port - the service's port.
+     * @param screenings - the screenings' ids.
+     */
+    LoadTest(int port, List<Integer> screenings) {
+        this.base = String.format("http://localhost:%d", port);
+        this.screenings = screenings;
+    }
+
+    /**
+     * Starts the database and the service, runs the test and prints the report.
+     *
+     * @param args - not used.
+     * @throws Exception if the database or the service can not be started.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("load.port", 8080);
+        EmbeddedDatabase database = new EmbeddedDatabase();
+        database.start();
+        boolean passed;
+        Tomcat tomcat = null;
+        try {
+            List<Integer> screenings = LoadTest.seed(database, Integer.getInteger("load.screenings", 100));
+            tomcat = LoadTest.deploy(System.getProperty("load.war", "target/cinema_service-1.0-SNAPSHOT.war"), port);
+            int rate = Integer.getInteger("load.rate", 200);
+            int pollers = Integer.getInteger("load.pollers", 70);
+            LoadTest warmup = new LoadTest(port, screenings);
+            warmup.run(rate, Integer.getInteger("load.warmup", 15), pollers);
+            LoadTest test = new LoadTest(port, screenings);
+            double seconds = test.run(rate, Integer.getInteger("load.duration", 30), pollers);
+            passed = test.report(database, seconds, warmup.purchases.get("sold"));
+        } finally {
+            if (tomcat != null) {
+                tomcat.stop();
+                tomcat.destroy();
+            }
+            database.stop();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Replaces the halls by the specified number of the free screenings of 9 x 9 seats.
+     *
+     * @param database - the database.
+     * @param count - the number of the screenings.
+     * @return the screenings' ids.
+     * @throws SQLException if occurs.
+     */
+    private static List<Integer> seed(EmbeddedDatabase database, int count) throws SQLException {
+        List<Integer> result = new ArrayList<Integer>();
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement()) {
+            statement.execute("delete from tickets;");
+            statement.execute("delete from hall;");
+            statement.execute("delete from screenings where id > 1;");
+            statement.execute(String.format(
+                    "insert into screenings (name) select 'Load ' || g from generate_series(2, %d) g;", count
+            ));
+            statement.execute(String.format(
+                    "insert into hall (screening_id, row, number, isempty, price) "
+                            + "select s.id, r, n, true, 500 from screenings s, generate_series(1, %1$d) r, "
+                            + "generate_series(1, %1$d) n;",
+                    LoadTest.SIDE
+            ));
+            statement.execute("analyze;");
+            try (ResultSet rslSet = statement.executeQuery("select id from screenings order by id;")) {
+                while (rslSet.next()) {
+                    result.add(rslSet.getInt("id"));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deploys the war into an embedded Tomcat.
+     *
+     * @param war - the war's path.
+     * @param port - the port.
+     * @return the started Tomcat.
+     * @throws Exception if Tomcat can not be started.
+     */
+    private static Tomcat deploy(String war, int port) throws Exception {
+        Tomcat result = new Tomcat();
+        result.setBaseDir(new File("target/load-tomcat").getAbsolutePath());
+        result.setPort(port);
+        result.getConnector();
+        result.getHost().getAppBaseFile().mkdirs();
+        result.setAddDefaultWebXmlToWebapp(false);
+        result.addWebapp("", new File(war).getAbsolutePath());
+        result.start();
+        return result;
+    }
+
+    /**
+     * Sends the arriving users and waits for them to finish.
+     *
+     * @param rate - the users per second.
+     * @param duration - the arrivals' duration, s.
+     * @param pollers - the percent of the users only polling.
+     * @return the arrivals' duration, s.
+     * @throws InterruptedException if interrupted.
+     */
+    double run(int rate, int duration, int pollers) throws InterruptedException {
+        int limit = Integer.getInteger("load.in-flight", 10000);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(duration);
+        long arrival = start;
+        int user = 0;
+        while (arrival < end) {
+            arrival += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * TimeUnit.SECONDS.toNanos(1) / rate);
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (this.inFlight.get() >= limit) {
+                this.dropped.incrementAndGet();
+                continue;
+            }
+            this.inFlight.incrementAndGet();
+            CompletableFuture<Void> flow = ThreadLocalRandom.current().nextInt(100) < pollers
+                    ? this.poll(Integer.getInteger("load.polls", 3))
+                    : this.purchase(arrival, user++);
+            flow.whenComplete((ok, e) -> this.inFlight.decrementAndGet());
+        }
+        double result = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        long drain = System.nanoTime() + TimeUnit.SECONDS.toNanos(LoadTest.DRAIN);
+        while (this.inFlight.get() > 0 && System.nanoTime() < drain) {
+            Thread.sleep(100);
+        }
+        return result;
+    }
+
+    /**
+     * Polls the places of a random screening.
+     *
+     * @param polls - the number of the polls.
+     * @return the end of the polls.
+     */
+    private CompletableFuture<Void> poll(int polls) {
+        String uri = String.format("/places?screening=%d", this.screening());
+        CompletableFuture<Void> result = this.send(this.places, this.get(uri)).thenApply(response -> null);
+        for (int i = 1; i < polls; i++) {
+            result = result.thenCompose(ok -> CompletableFuture.runAsync(
+                    () -> { }, CompletableFuture.delayedExecutor(Long.getLong("load.poll-interval", 1000), TimeUnit.MILLISECONDS)
+            )).thenCompose(ok -> this.send(this.places, this.get(uri))).thenApply(response -> null);
+        }
+        return result.exceptionally(e -> null);
+    }
+
+    /**
+     * Buys one of the best free seats of a random screening: looks at the places, books the seat and buys it.
+     *
+     * @param arrival - the user's planned arrival, ns.
+     * @param user - the user's number.
+     * @return the end of the purchase.
+     */
+    private CompletableFuture<Void> purchase(long arrival, int user) {
+        int screening = this.screening();
+        return this.send(this.places, this.get(String.format("/places?screening=%d", screening))).thenCompose(shown -> {
+            CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+            List<String> free = LoadTest.free(shown);
+            if (shown.statusCode() != 200) {
+                this.purchases.record(arrival, "failed");
+            } else if (free.isEmpty()) {
+                this.purchases.record(arrival, "sold out");
+            } else {
+                String seat = free.get(ThreadLocalRandom.current().nextInt(Math.min(Integer.getInteger("load.hot", 8), free.size())));
+                result = this.send(this.booking, this.post(
+                        String.format("/booking?place=%s&screening=%d", seat, screening), "", null
+                )).thenCompose(booked -> this.buy(arrival, user, booked));
+            }
+            return result;
+        }).exceptionally(e -> {
+            this.purchases.record(arrival, "failed");
+            return null;
+        });
+    }
+
+    /**
+     * Buys the booked seat. The purchase without the ticket's answer, or with an error, is "ticket unknown": the
+     * ticket may be sold or not.
+     *
+     * @param arrival - the user's planned arrival, ns.
+     * @param user - the user's number.
+     * @param booked - the answer of the booking.
+     * @return the end of the purchase.
+     */
+    private CompletableFuture<Void> buy(long arrival, int user, HttpResponse<String> booked) {
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        String booking = booked.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("booking=")).map(cookie -> cookie.split(";")[0])
+                .findFirst().orElse(null);
+        if (booked.statusCode() == 409) {
+            this.purchases.record(arrival, "booking conflict");
+        } else if (booked.statusCode() != 200 || booking == null) {
+            this.purchases.record(arrival, "failed");
+        } else {
+            result = this.send(this.ticket, this.post(
+                    "/ticket", String.format("name=load-%d&phone=555-%d", user, user), booking
+            )).handle((sold, e) -> {
+                int status = e == null ? sold.statusCode() : 0;
+                this.purchases.record(
+                        arrival, status == 200 ? "sold" : status == 409 ? "ticket conflict" : "ticket unknown"
+                );
+                return null;
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Sends the request and records its latency and status code.
+     *
+     * @param endpoint - the endpoint's results.
+     * @param request - the request.
+     * @return the answer.
+     */
+    private CompletableFuture<HttpResponse<String>> send(Endpoint endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete(
+                (response, e) -> endpoint.record(
+                        start, e == null ? String.valueOf(response.statusCode()) : e.getClass().getSimpleName()
+                )
+        );
+    }
+
+    /**
+     * Creates the GET request.
+     *
+     * @param uri - the path and the query.
+     * @return the request.
+     */
+    private HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(this.base + uri)).GET().build();
+    }
+
+    /**
+     * Creates the POST request of the form.
+     *
+     * @param uri - the path and the query.
+     * @param form - the url-encoded form.
+     * @param cookie - the booking's cookie or null.
+     * @return the request.
+     */
+    private HttpRequest post(String uri, String form, String cookie) {
+        HttpRequest.Builder result = HttpRequest.newBuilder(URI.create(this.base + uri))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (cookie != null) {
+            result.header("Cookie", cookie);
+        }
+        return result.build();
+    }
+
+    /**
+     * Chooses a random screening.
+     *
+     * @return the screening's id.
+     */
+    private int screening() {
+        return this.screenings.get(ThreadLocalRandom.current().nextInt(this.screenings.size()));
+    }
+
+    /**
+     * Finds the free seats in the answer of "/places".
+     *
+     * @param response - the answer.
+     * @return the free seats as the row's and the number's digits, in the row and number order.
+     */
+    private static List<String> free(HttpResponse<String> response) {
+        List<String> result = new ArrayList<String>();
+        if (response.statusCode() == 200) {
+            try {
+                for (JsonNode place : LoadTest.JSON.readTree(response.body())) {
+                    if (place.path("empty").asBoolean()) {
+                        result.add(String.format("%d-%d", place.path("row").asInt(), place.path("number").asInt()));
+                    }
+                }
+            } catch (IOException e) {
+                result.clear();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prints the report and checks the sold tickets.
+     *
+     * @param database - the database.
+     * @param seconds - the arrivals' duration, s.
+     * @param warmup - the tickets sold by the warm-up.
+     * @return true if no seat is sold twice, every busy seat has a ticket, and the tickets in the database are the
+     * sold ones and may be the unknown ones.
+     * @throws SQLException if occurs.
+     */
+    boolean report(EmbeddedDatabase database, double seconds, long warmup) throws SQLException {
+        long tickets;
+        long twice;
+        long orphans;
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement()) {
+            tickets = LoadTest.count(statement, "select count(*) from tickets;");
+            twice = LoadTest.count(
+                    statement, "select count(*) from (select place_id from tickets group by place_id having count(*) > 1) t;"
+            );
+            orphans = LoadTest.count(
+                    statement,
+                    "select count(*) from hall where not isempty and not exists (select 1 from tickets where place_id = hall.id);"
+            );
+        }
+        long sold = this.purchases.get("sold");
+        long unknown = this.purchases.get("ticket unknown");
+        long conflicts = this.booking.get("409") + this.ticket.get("409");
+        long attempts = this.booking.getCount();
+        System.out.printf("%nusers in %.1f s, %d dropped, %d still in flight%n", seconds, this.dropped.get(), this.inFlight.get());
+        System.out.printf(
+                "%-10s %8s %9s %9s %9s %9s %9s  %s%n", "endpoint", "count", "per s", "p50 ms", "p99 ms", "p999 ms", "max ms", "outcomes"
+        );
+        for (Endpoint endpoint : new Endpoint[] {this.places, this.booking, this.ticket, this.purchases}) {
+            System.out.println(endpoint.report(seconds));
+        }
+        System.out.printf("tickets sold: %d, %.1f per s, %d unknown%n", sold, sold / seconds, unknown);
+        System.out.printf(
+                "already occupied: %d of %d purchases, %.2f%%%n", conflicts, attempts, attempts > 0 ? 100.0 * conflicts / attempts : 0
+        );
+        System.out.printf(
+                "tickets table: %d tickets (%d sold by the warm-up), %d seats sold twice, %d busy seats without a ticket%n",
+                tickets, warmup, twice, orphans
+        );
+        boolean result = twice == 0 && orphans == 0 && tickets >= sold + warmup && tickets <= sold + unknown + warmup;
+        System.out.println(
+                result ? "PASSED" : "FAILED: a seat is sold twice, a busy seat has no ticket or the tickets do not add up"
+        );
+        return result;
+    }
+
+    /**
+     * Executes the counting query.
+     *
+     * @param statement - the statement.
+     * @param sql - the query.
+     * @return the count.
+     * @throws SQLException if occurs.
+     */
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rslSet = statement.executeQuery(sql)) {
+            rslSet.next();
+            return rslSet.getLong(1);
+        }
+    }
+}
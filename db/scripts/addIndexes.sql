@@ -0,0 +1,11 @@
+-- indexes: a place is unique in its screening, the tickets are found by their foreign keys
+
+alter table hall add constraint hall_place_key unique (screening_id, row, number);
+
+drop index if exists hall_screening_idx;
+
+create index tickets_place_idx on tickets (place_id);
+
+create index tickets_account_idx on tickets (account_id);
+
+create index tickets_screening_idx on tickets (screening_id);
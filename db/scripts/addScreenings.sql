@@ -0,0 +1,16 @@
+-- screenings: every screening has its own places, the existing hall becomes the first screening
+
+create table if not exists screenings (
+	id serial primary key,
+	name varchar(100)
+);
+
+insert into screenings (name) values ('Hall 1');
+
+alter table hall add column screening_id int not null default 1 references screenings(id);
+
+alter table tickets add column screening_id int references screenings(id);
+
+update tickets set screening_id = hall.screening_id from hall where hall.id = tickets.place_id;
+
+create index hall_screening_idx on hall (screening_id, row, number);
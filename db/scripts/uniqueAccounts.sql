@@ -0,0 +1,9 @@
+-- accounts: one account per name, the duplicates are merged into the oldest one
+
+update tickets set account_id = oldest.id
+from accounts duplicate, (select name, min(id) as id from accounts group by name) oldest
+where tickets.account_id = duplicate.id and duplicate.name is not distinct from oldest.name and duplicate.id <> oldest.id;
+
+delete from accounts where id not in (select min(id) from accounts group by name);
+
+alter table accounts add constraint accounts_name_key unique (name);
@@ -0,0 +1,90 @@
+package ru.job4j.cinema;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Application settings, loaded once from the "db.properties" resource. Any setting can be overridden by the
+ * environment variable with the "CINEMA_" prefix and the name in upper case with underscores, e.g.
+ * "CINEMA_POOL_MAX_TOTAL=...", and both by the system property with the "cinema." prefix, e.g. "-Dcinema.url=...".
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class Config {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(Config.class.getName());
+
+    /**
+     * The prefix of system properties, overriding the settings.
+     */
+    private static final String OVERRIDE_PREFIX = "cinema.";
+
+    /**
+     * The prefix of environment variables, overriding the settings.
+     */
+    private static final String ENV_PREFIX = "CINEMA_";
+
+    /**
+     * The settings resource name.
+     */
+    private static final String RESOURCE = "db.properties";
+
+    /**
+     * The config singleton.
+     */
+    private static final Config INSTANCE = new Config();
+
+    /**
+     * The loaded settings.
+     */
+    private final Properties properties = new Properties();
+
+    /**
+     * Loads the settings resource from the classpath.
+     */
+    private Config() {
+        try (InputStream in = Config.class.getClassLoader().getResourceAsStream(Config.RESOURCE)) {
+            if (in != null) {
+                this.properties.load(in);
+            }
+        } catch (IOException e) {
+            Config.LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the config singleton.
+     *
+     * @return the config singleton.
+     */
+    public static Config getInstanceOf() {
+        return Config.INSTANCE;
+    }
+
+    /**
+     * Gets the value of the specified setting, overridden by the system property or the environment variable if
+     * there is such.
+     *
+     * @param key - the setting's name.
+     * @param defaultValue - the value to return if there is no such setting.
+     * @return the setting's value or the default value.
+     */
+    public String get(String key, String defaultValue) {
+        String value = System.getProperty(Config.OVERRIDE_PREFIX + key);
+        if (value == null) {
+            value = System.getenv(Config.ENV_PREFIX + key.toUpperCase().replaceAll("[^A-Z0-9]", "_"));
+        }
+        if (value == null) {
+            value = this.properties.getProperty(key);
+        }
+        return value == null ? defaultValue : value.trim();
+    }
+}
@@ -4,7 +4,7 @@ package ru.job4j.cinema;
  * Constants for Cinema Servlets.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.4
  * @since 25/05/2019
  */
 public class Constants {
@@ -22,4 +22,39 @@ public class Constants {
      * Attribute for phone.
      */
     public static final String ATTR_PHONE = "phone";
-}
\ No newline at end of file
+
+    /**
+     * Attribute for screening.
+     */
+    public static final String ATTR_SCREENING = "screening";
+
+    /**
+     * Attribute for the number of seats.
+     */
+    public static final String ATTR_COUNT = "count";
+
+    /**
+     * Attribute for the first suitable row.
+     */
+    public static final String ATTR_FIRST_ROW = "firstRow";
+
+    /**
+     * Attribute for the last suitable row.
+     */
+    public static final String ATTR_LAST_ROW = "lastRow";
+
+    /**
+     * Attribute for the maximal price of a seat.
+     */
+    public static final String ATTR_MAX_PRICE = "maxPrice";
+
+    /**
+     * Cookie of the signed booking, the parameter of the same name is accepted as well.
+     */
+    public static final String COOKIE_BOOKING = "booking";
+
+    /**
+     * Cookie of the waiting room's signed pass or queue position.
+     */
+    public static final String COOKIE_ADMISSION = "admission";
+}
@@ -1,22 +1,134 @@
 package ru.job4j.cinema;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import ru.job4j.cinema.model.Place;
 
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 /**
  * Utils for Cinema Servlets.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.5
  * @since 25/05/2019
  */
 public class Utils {
     /**
-     * Parses the number param for place definition. The firs number is a row, the second is a place number in a row.
+     * The JSON writer, shared by all servlets: it is immutable and thread-safe. It leaves the target stream open,
+     * so the container or the caller decides when to close it.
+     */
+    public static final ObjectWriter JSON = new ObjectMapper()
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .writer();
+
+    /**
+     * The separator of the row and the number in the place param.
+     */
+    private static final char PLACE_SEPARATOR = '-';
+
+    /**
+     * Parses the number param for place definition: the row and the place number in a row, separated by "-", e.g.
+     * "12-7". The old form of two digits, e.g. "23", is still accepted for the halls up to 9 rows and seats. The
+     * malformed numbers are -1, out of any hall.
      *
      * @param number - the string, containing place number as a param.
      * @return the place with defined row and number.
      */
     public static Place parsePlace(String number) {
-        return new Place(Character.getNumericValue(number.charAt(0)), Character.getNumericValue(number.charAt(1)));
+        Place result;
+        int separator = number.indexOf(Utils.PLACE_SEPARATOR);
+        if (separator < 0) {
+            result = new Place(Character.getNumericValue(number.charAt(0)), Character.getNumericValue(number.charAt(1)));
+        } else {
+            result = new Place(
+                    Utils.parseNumber(number.substring(0, separator), -1),
+                    Utils.parseNumber(number.substring(separator + 1), -1)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Parses the screening param. The absent or malformed param means the first screening, so the pages, which
+     * know nothing about screenings, keep working.
+     *
+     * @param screening - the string, containing screening id as a param, or null.
+     * @return the screening id.
+     */
+    public static int parseScreening(String screening) {
+        return Utils.parseNumber(screening, Place.DEFAULT_SCREENING);
+    }
+
+    /**
+     * Parses the optional number param.
+     *
+     * @param number - the string, containing the number, or null.
+     * @param defaultValue - the value of the absent or malformed param.
+     * @return the number.
+     */
+    public static int parseNumber(String number, int defaultValue) {
+        int result = defaultValue;
+        if (number != null) {
+            try {
+                result = Integer.parseInt(number.trim());
+            } catch (NumberFormatException e) {
+                result = defaultValue;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Serializes the specified value straight into the response body, without an intermediate string.
+     *
+     * @param value - the value to send.
+     * @param resp - HTTP response.
+     * @throws IOException when the response stream error occurs.
+     */
+    public static void writeJson(Object value, HttpServletResponse resp) throws IOException {
+        resp.setContentType("text/json");
+        resp.setCharacterEncoding("UTF-8");
+        Utils.JSON.writeValue(resp.getOutputStream(), value);
+    }
+
+    /**
+     * Reads the value of the cookie or, if there is no such cookie, of the parameter of the same name.
+     *
+     * @param req - HTTP request.
+     * @param name - the name of the cookie and of the parameter.
+     * @return the value or null.
+     */
+    public static String readCookie(HttpServletRequest req, String name) {
+        String result = null;
+        Cookie[] cookies = req.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName())) {
+                    result = cookie.getValue();
+                }
+            }
+        }
+        return result != null ? result : req.getParameter(name);
+    }
+
+    /**
+     * Sets the script-inaccessible cookie of the whole application.
+     *
+     * @param resp - HTTP response.
+     * @param name - the name.
+     * @param value - the value, empty to delete the cookie.
+     * @param maxAge - the cookie's time to live, s, 0 to delete the cookie.
+     */
+    public static void writeCookie(HttpServletResponse resp, String name, String value, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        cookie.setMaxAge(maxAge);
+        resp.addCookie(cookie);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package ru.job4j.cinema.admission;
+
+import ru.job4j.cinema.model.QueueStatus;
+
+/**
+ * The waiting room's answer to the client: the client's status and the signed token the client keeps for the next
+ * request, a pass or a queue position.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Admission {
+    /**
+     * The signed token.
+     */
+    private final String token;
+
+    /**
+     * The client's status.
+     */
+    private final QueueStatus status;
+
+    /**
+     * Creates the answer.
+     *
+     * @param token - the signed token.
+     * @param status - the client's status.
+     */
+    public Admission(String token, QueueStatus status) {
+        this.token = token;
+        this.status = status;
+    }
+
+    /**
+     * Gets the signed token.
+     *
+     * @return the signed token.
+     */
+    public String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Gets the client's status.
+     *
+     * @return the client's status.
+     */
+    public QueueStatus getStatus() {
+        return this.status;
+    }
+}
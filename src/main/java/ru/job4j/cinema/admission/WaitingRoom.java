@@ -0,0 +1,413 @@
+package ru.job4j.cinema.admission;
+
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.hold.TokenSigner;
+import ru.job4j.cinema.model.QueueStatus;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The waiting room of a flash sale: lets the clients in at the admission rate and keeps the rest waiting in the
+ * order of their arrival. The client's position is its arrival time, kept by the client in the signed token, so
+ * the position is valid on every node with the same key and after a restart, and the clients are let in by their
+ * arrival times: every node admits the arrivals up to its cut-off time, moved on by the rate over the arrivals it
+ * counts. A node counts a client once, when the client comes back with the position, the first time to this node
+ * or to this run of it, and keeps the counts by the ten milliseconds of the arrival only, so the clients, which
+ * never come back, the cookieless ones included, take no place of the queue, and a queued client costs the node
+ * no memory of its own. The admitted client gets the pass, a signed token of the "admission-ttl" seconds, which
+ * any node with the same key accepts. While nobody waits, the clients are let in at once within the budget of one
+ * second of the rate.
+ * <p>
+ * The rate is "admission-rate" clients per second. If "admission-min-rate" is less than "admission-max-rate", the
+ * rate is adaptive: it is halved every second the service is overloaded and grows by the minimal rate every second
+ * the clients wait and the service is not overloaded. The rates must be positive.
+ * <p>
+ * The pass and the position are bearer tokens: whoever shows a copy is let in as its owner, and an admitted
+ * position is exchanged for a new pass every time it is shown. So the waiting room meters the honest clients
+ * only, the clients sharing one token are let in together.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class WaitingRoom {
+    /**
+     * The kind of the pass's token.
+     */
+    private static final String PASS = "pass";
+
+    /**
+     * The kind of the position's token.
+     */
+    private static final String QUEUE = "queue";
+
+    /**
+     * The separator of the token's fields.
+     */
+    private static final String SEPARATOR = ".";
+
+    /**
+     * The admission's tick, ms.
+     */
+    private static final long TICK = 100;
+
+    /**
+     * The arrivals are counted by this period, ms.
+     */
+    private static final long BUCKET = 10;
+
+    /**
+     * The mark of the position, which has not been counted yet.
+     */
+    private static final String UNCOUNTED = "";
+
+    /**
+     * The number of the ticks between the rate's adaptations.
+     */
+    private static final int ADAPT_TICKS = 10;
+
+    /**
+     * True if the waiting room is on, the "admission" setting.
+     */
+    private static final boolean ENABLED = Boolean.parseBoolean(Config.getInstanceOf().get("admission", "false"));
+
+    /**
+     * The waiting room singleton, configured by the settings.
+     */
+    private static final WaitingRoom INSTANCE = WaitingRoom.configure(Config.getInstanceOf());
+
+    /**
+     * The tokens' signer.
+     */
+    private final TokenSigner signer;
+
+    /**
+     * The node's run, the mark of the positions counted by it.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /**
+     * The counted waiting arrivals by their periods, guarded by this.
+     */
+    private final NavigableMap<Long, Long> arrivals = new TreeMap<Long, Long>();
+
+    /**
+     * The minimal rate, clients per second.
+     */
+    private final double minRate;
+
+    /**
+     * The maximal rate, clients per second.
+     */
+    private final double maxRate;
+
+    /**
+     * The pass's time to live, s.
+     */
+    private final long ttl;
+
+    /**
+     * The longest pause before the next check, s.
+     */
+    private final long poll;
+
+    /**
+     * The current rate, clients per second.
+     */
+    private volatile double rate;
+
+    /**
+     * The arrivals up to this time are admitted, epoch ms.
+     */
+    private volatile long cutoff = -1;
+
+    /**
+     * The number of the counted waiting arrivals, guarded by this.
+     */
+    private long waiting;
+
+    /**
+     * The admissions available now, may be negative after a crowd of the same period is admitted, guarded by this.
+     */
+    private double budget;
+
+    /**
+     * The overloads seen by the last adaptation, -1 before the first one; the ticker's thread only.
+     */
+    private long overloads = -1;
+
+    /**
+     * The ticks since the start; the ticker's thread only.
+     */
+    private long ticks;
+
+    /**
+     * The admission's thread, null until started.
+     */
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates the waiting room.
+     *
+     * @param signer - the tokens' signer.
+     * @param rate - the initial rate, clients per second.
+     * @param minRate - the minimal rate, clients per second.
+     * @param maxRate - the maximal rate, clients per second, the same as the minimal one for the fixed rate.
+     * @param ttl - the pass's time to live, s.
+     * @param poll - the longest pause before the next check, s.
+     * @throws IllegalArgumentException if a rate is not positive or the maximal rate is less than the minimal one.
+     */
+    public WaitingRoom(TokenSigner signer, double rate, double minRate, double maxRate, long ttl, long poll) {
+        if (!(rate > 0 && minRate > 0 && maxRate >= minRate)) {
+            throw new IllegalArgumentException(String.format(
+                    "The admission's rates must be positive, the maximal one not less than the minimal one: %s, %s, %s.",
+                    rate, minRate, maxRate
+            ));
+        }
+        this.signer = signer;
+        this.rate = rate;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.ttl = ttl;
+        this.poll = poll;
+        this.budget = rate;
+    }
+
+    /**
+     * Creates the waiting room by the settings.
+     *
+     * @param config - the settings.
+     * @return the waiting room.
+     */
+    private static WaitingRoom configure(Config config) {
+        String rate = config.get("admission-rate", "50");
+        return new WaitingRoom(
+                TokenSigner.getInstanceOf(),
+                Double.parseDouble(rate),
+                Double.parseDouble(config.get("admission-min-rate", rate)),
+                Double.parseDouble(config.get("admission-max-rate", rate)),
+                Long.parseLong(config.get("admission-ttl", "900")),
+                Long.parseLong(config.get("admission-poll", "5"))
+        );
+    }
+
+    /**
+     * Gets the waiting room singleton.
+     *
+     * @return the waiting room singleton.
+     */
+    public static WaitingRoom getInstanceOf() {
+        return WaitingRoom.INSTANCE;
+    }
+
+    /**
+     * Checks if the waiting room is on.
+     *
+     * @return true if the waiting room is on.
+     */
+    public static boolean isEnabled() {
+        return WaitingRoom.ENABLED;
+    }
+
+    /**
+     * Starts the admission's thread.
+     *
+     * @param overloads - the growing number of the service's overloads, e.g. the rejected requests.
+     */
+    public synchronized void start(LongSupplier overloads) {
+        if (this.ticker == null) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "waiting-room");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ticker.scheduleAtFixedRate(
+                    () -> this.tick(overloads), WaitingRoom.TICK, WaitingRoom.TICK, TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Stops the admission's thread, the waiting clients are not admitted any more.
+     */
+    public synchronized void stop() {
+        if (this.ticker != null) {
+            this.ticker.shutdownNow();
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Admits the client by its token: the valid pass is kept, the admitted position is exchanged for the pass, the
+     * waiting position is kept, counted first if this run of the node has not counted it, and the client without a
+     * valid token arrives, let in at once or given the uncounted position of its arrival time.
+     *
+     * @param token - the client's token or null.
+     * @param now - the current time, epoch ms.
+     * @return the client's status and the token to keep.
+     */
+    public Admission admit(String token, long now) {
+        Admission result = null;
+        String payload = this.signer.open(token);
+        String[] fields = payload != null ? payload.split("\\.", -1) : new String[0];
+        try {
+            if (fields.length == 2 && WaitingRoom.PASS.equals(fields[0]) && Long.parseLong(fields[1]) > now / 1000) {
+                result = new Admission(token, new QueueStatus(true, 0, 0, 0));
+            } else if (fields.length == 3 && WaitingRoom.QUEUE.equals(fields[0])) {
+                long arrival = Long.parseLong(fields[1]);
+                if (arrival <= this.cutoff) {
+                    result = this.pass(now);
+                } else if (this.epoch.equals(fields[2])) {
+                    result = new Admission(token, this.waiting(arrival));
+                } else {
+                    this.count(arrival);
+                    result = new Admission(this.position(arrival, this.epoch), this.waiting(arrival));
+                }
+            }
+        } catch (NumberFormatException e) {
+            result = null;
+        }
+        if (result == null) {
+            result = this.arrive() ? this.pass(now) : new Admission(
+                    this.position(now, WaitingRoom.UNCOUNTED), this.waiting(now)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of the waiting clients, counted by this node, the clients which have abandoned the queue
+     * after their second visit included.
+     *
+     * @return the number of the waiting clients.
+     */
+    public synchronized long getWaiting() {
+        return this.waiting;
+    }
+
+    /**
+     * Gets the current rate.
+     *
+     * @return the rate, clients per second.
+     */
+    public double getRate() {
+        return this.rate;
+    }
+
+    /**
+     * Lets the client in at once, if nobody waits and the budget allows.
+     *
+     * @return true if the client is let in.
+     */
+    private synchronized boolean arrive() {
+        boolean result = this.waiting == 0 && this.budget >= 1;
+        if (result) {
+            this.budget--;
+        }
+        return result;
+    }
+
+    /**
+     * Counts the waiting client of the specified arrival time.
+     *
+     * @param arrival - the arrival time, epoch ms.
+     */
+    private synchronized void count(long arrival) {
+        this.arrivals.merge(arrival / WaitingRoom.BUCKET, 1L, Long::sum);
+        this.waiting++;
+    }
+
+    /**
+     * Admits the waiting clients by the rate for the elapsed time, the earliest arrivals first, all the arrivals
+     * of a period at once. The unused budget is kept up to one second of the rate.
+     *
+     * @param seconds - the elapsed time, s.
+     */
+    synchronized void advance(double seconds) {
+        this.budget = Math.min(Math.max(1, this.rate), this.budget + this.rate * seconds);
+        while (!this.arrivals.isEmpty() && this.budget >= 1) {
+            Map.Entry<Long, Long> first = this.arrivals.pollFirstEntry();
+            this.cutoff = (first.getKey() + 1) * WaitingRoom.BUCKET - 1;
+            this.waiting -= first.getValue();
+            this.budget -= first.getValue();
+        }
+    }
+
+    /**
+     * Adapts the rate: halves it if the service has been overloaded since the last adaptation, or increases it if
+     * the clients wait.
+     *
+     * @param overloads - the growing number of the service's overloads.
+     */
+    void adapt(long overloads) {
+        if (this.minRate < this.maxRate) {
+            if (this.overloads >= 0 && overloads > this.overloads) {
+                this.rate = Math.max(this.minRate, this.rate / 2);
+            } else if (this.getWaiting() > 0) {
+                this.rate = Math.min(this.maxRate, this.rate + this.minRate);
+            }
+        }
+        this.overloads = overloads;
+    }
+
+    /**
+     * Advances the admission by the tick and adapts the rate every second.
+     *
+     * @param overloads - the growing number of the service's overloads.
+     */
+    private void tick(LongSupplier overloads) {
+        this.advance(WaitingRoom.TICK / 1000.0);
+        if (++this.ticks % WaitingRoom.ADAPT_TICKS == 0) {
+            this.adapt(overloads.getAsLong());
+        }
+    }
+
+    /**
+     * Issues the pass.
+     *
+     * @param now - the current time, epoch ms.
+     * @return the admitted status and the pass.
+     */
+    private Admission pass(long now) {
+        return new Admission(
+                this.signer.seal(String.join(
+                        WaitingRoom.SEPARATOR, WaitingRoom.PASS, String.valueOf(now / 1000 + this.ttl)
+                )),
+                new QueueStatus(true, 0, 0, 0)
+        );
+    }
+
+    /**
+     * Issues the position.
+     *
+     * @param arrival - the arrival time, epoch ms.
+     * @param counted - the run of the node, which has counted the position, or the mark of the uncounted one.
+     * @return the position's token.
+     */
+    private String position(long arrival, String counted) {
+        return this.signer.seal(String.join(WaitingRoom.SEPARATOR, WaitingRoom.QUEUE, String.valueOf(arrival), counted));
+    }
+
+    /**
+     * Describes the waiting position: the clients ahead are the counted arrivals of the earlier periods.
+     *
+     * @param arrival - the arrival time, epoch ms.
+     * @return the waiting status.
+     */
+    private QueueStatus waiting(long arrival) {
+        long ahead = 0;
+        synchronized (this) {
+            for (long count : this.arrivals.headMap(arrival / WaitingRoom.BUCKET, false).values()) {
+                ahead += count;
+            }
+        }
+        long wait = (long) Math.ceil((ahead + 1) / this.rate);
+        return new QueueStatus(false, ahead, wait, Math.max(1, Math.min(this.poll, wait)));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.admission.Admission;
+import ru.job4j.cinema.admission.WaitingRoom;
+import ru.job4j.cinema.model.QueueStatus;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Lets the clients to the hall, the booking and the purchases through the {@link WaitingRoom}, if it is on. The admitted client
+ * passes; the waiting one is redirected to the "queue.html" page, if it asks for a page, or answered
+ * "503 Service Unavailable" with "Retry-After" and its json-status otherwise. The client's pass or position is
+ * kept by the client as the "admission" cookie, so the check needs neither the database nor the session.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class AdmissionFilter implements Filter {
+    /**
+     * The page of the waiting clients.
+     */
+    private static final String QUEUE_PAGE = "/queue.html";
+
+    /**
+     * Lets the admitted client through.
+     *
+     * @param request - the request.
+     * @param response - the response.
+     * @param chain - the filter chain.
+     * @throws IOException if occurs.
+     * @throws ServletException if occurs.
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        QueueStatus status = AdmissionFilter.admit(req, resp);
+        if (status.isAdmitted()) {
+            chain.doFilter(request, response);
+        } else if ("GET".equals(req.getMethod()) && AdmissionFilter.isPage(req)) {
+            resp.sendRedirect(req.getContextPath() + AdmissionFilter.QUEUE_PAGE);
+        } else {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", String.valueOf(status.getPoll()));
+            Utils.writeJson(status, resp);
+        }
+    }
+
+    /**
+     * Admits the client by its cookie and sets the cookie of its new pass or position. Everybody is admitted if
+     * the waiting room is off.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @return the client's status.
+     */
+    static QueueStatus admit(HttpServletRequest req, HttpServletResponse resp) {
+        QueueStatus result = new QueueStatus(true, 0, 0, 0);
+        if (WaitingRoom.isEnabled()) {
+            String token = Utils.readCookie(req, Constants.COOKIE_ADMISSION);
+            Admission admission = WaitingRoom.getInstanceOf().admit(token, System.currentTimeMillis());
+            if (!admission.getToken().equals(token)) {
+                Utils.writeCookie(resp, Constants.COOKIE_ADMISSION, admission.getToken(), -1);
+            }
+            result = admission.getStatus();
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the client asks for a page.
+     *
+     * @param req - HTTP request.
+     * @return true if the client accepts html.
+     */
+    private static boolean isPage(HttpServletRequest req) {
+        String accept = req.getHeader("Accept");
+        return accept != null && accept.contains("text/html");
+    }
+}
@@ -0,0 +1,88 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.business.NullArgumentException;
+import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.SeatPreferences;
+import ru.job4j.cinema.validate.Validator;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Best seats controller. Finds "count" free seats of the "screening" together, as central as possible, in the rows
+ * from "firstRow" to "lastRow" and no more expensive than "maxPrice"; all but "count" are optional. The work is
+ * done by the reads' {@link RequestExecutor}.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class BestSeatsController extends HttpServlet {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(BestSeatsController.class.getName());
+
+    /**
+     * The logic singleton instance.
+     */
+    private final Validator logic = ValidatorDB.getMeasured();
+
+    /**
+     * Finds the seats out of the container's thread.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the rejection can not be sent.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        RequestExecutor.getReads().execute(req, resp, this::find);
+    }
+
+    /**
+     * Prepares the json-array of the found places, empty if there are no such seats together. Answers
+     * "400 Bad Request" if the number of the seats is absent or wrong.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    private void find(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        int screening = Utils.parseScreening(req.getParameter(Constants.ATTR_SCREENING));
+        int count = Utils.parseNumber(req.getParameter(Constants.ATTR_COUNT), 0);
+        SeatPreferences preferences = new SeatPreferences(
+                Utils.parseNumber(req.getParameter(Constants.ATTR_FIRST_ROW), SeatPreferences.ANY.getFirstRow()),
+                Utils.parseNumber(req.getParameter(Constants.ATTR_LAST_ROW), SeatPreferences.ANY.getLastRow()),
+                Utils.parseNumber(req.getParameter(Constants.ATTR_MAX_PRICE), SeatPreferences.ANY.getMaxPrice())
+        );
+        List<Place> places = Collections.emptyList();
+        try {
+            places = this.logic.findBestSeats(screening, count, preferences);
+        } catch (NoSuchModelException e) {
+            places = Collections.emptyList();
+        } catch (WrongArgumentException e) {
+            BestSeatsController.LOG.error("Wrong argument.", e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (NullArgumentException e) {
+            BestSeatsController.LOG.error("Null pointer argument.", e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (DaoSystemException e) {
+            BestSeatsController.LOG.error("SQL error occurs.", e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+        Utils.writeJson(places, resp);
+    }
+}
@@ -4,9 +4,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import ru.job4j.cinema.Constants;
 import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.business.NullArgumentException;
 import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.hold.BookingToken;
+import ru.job4j.cinema.hold.TokenSigner;
 import ru.job4j.cinema.model.Place;
 import ru.job4j.cinema.validate.Validator;
 import ru.job4j.cinema.validate.impl.ValidatorDB;
@@ -14,13 +17,18 @@ import ru.job4j.cinema.validate.impl.ValidatorDB;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
+import java.io.IOException;
 
 /**
- * Booking place controller. Sets to the session place's params.
+ * Booking place controller. Holds the place, the place of the "screening" parameter, the first screening by
+ * default, and gives the client the signed booking of the place with its price: the booking is kept by the client
+ * as the "booking" cookie, so no session is created. The place's hold is kept by this node, the other nodes adopt
+ * it from the booking at the purchase, see {@link TicketController}. The holder of the client's
+ * previous booking holds the new place first and releases the previous one then, so a refused booking keeps the
+ * previous one. The work is done by the writes' {@link RequestExecutor}.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.10
  * @since 20/05/2019
  */
 public class BookingController extends HttpServlet {
@@ -32,27 +40,59 @@ public class BookingController extends HttpServlet {
     /**
      * The logic singleton instance.
      */
-    private final Validator logic = ValidatorDB.getInstanceOf();
+    private final Validator logic = ValidatorDB.getMeasured();
 
     /**
-     * Actualize price of the specified place and puts it into session's attribute.
+     * The bookings' signer.
+     */
+    private final TokenSigner signer = TokenSigner.getInstanceOf();
+
+    /**
+     * Books the place out of the container's thread.
      *
      * @param req - HTTP request.
      * @param resp - HTTP response.
+     * @throws IOException if the rejection can not be sent.
      */
     @Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
-        HttpSession session = req.getSession();
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        RequestExecutor.getWrites().execute(req, resp, this::book);
+    }
+
+    /**
+     * Holds the specified place, actualize its price and sends the place's signed booking. Answers "409 Conflict"
+     * if the place is busy or held by somebody else, "400 Bad Request" if the place is wrong.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the error can not be sent.
+     */
+    private void book(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         Place place = Utils.parsePlace(req.getParameter(Constants.ATTR_PLACE));
+        place.setScreening(Utils.parseScreening(req.getParameter(Constants.ATTR_SCREENING)));
+        long now = System.currentTimeMillis() / 1000;
+        BookingToken previous = this.signer.verify(Utils.readCookie(req, Constants.COOKIE_BOOKING), now);
+        String holder = previous != null ? previous.getHolder() : TokenSigner.newHolder();
         try {
+            this.logic.holdPlace(place, holder);
+            if (previous != null && !previous.getPlace().equals(place)) {
+                this.logic.releasePlace(previous.getPlace(), holder);
+            }
             place.setPrice(this.logic.getActualPrice(place));
+            Utils.writeCookie(
+                    resp, Constants.COOKIE_BOOKING, this.signer.sign(place, holder, now), (int) this.signer.getTtl()
+            );
+        } catch (AlreadyOccupiedPlaceException e) {
+            resp.setStatus(HttpServletResponse.SC_CONFLICT);
         } catch (DaoSystemException e) {
             BookingController.LOG.error("SQL error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (WrongArgumentException e) {
             BookingController.LOG.error("Wrong argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
         } catch (NullArgumentException e) {
             BookingController.LOG.error("Null pointer argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
         }
-        session.setAttribute(Constants.ATTR_PLACE, place);
     }
 }
\ No newline at end of file
@@ -0,0 +1,370 @@
+package ru.job4j.cinema.controller;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The response of the work, done out of the container's thread: its status, headers and body are kept in memory
+ * and are written into the real response only by {@link #commit()}, so the work, which has timed out, never
+ * touches the response, which has been answered and completed meanwhile. The headers are only written, they are
+ * not read back.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+class BufferedResponse extends HttpServletResponseWrapper {
+    /**
+     * The changes of the real response's headers, in their order.
+     */
+    private final List<Change> changes = new ArrayList<Change>();
+
+    /**
+     * The body.
+     */
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    /**
+     * The status.
+     */
+    private int status = HttpServletResponse.SC_OK;
+
+    /**
+     * The error's message or null; the error is sent instead of the status and the body.
+     */
+    private String message;
+
+    /**
+     * True if the error is sent.
+     */
+    private boolean error;
+
+    /**
+     * The body's charset.
+     */
+    private Charset charset = StandardCharsets.ISO_8859_1;
+
+    /**
+     * The body's stream, null until it is asked for.
+     */
+    private ServletOutputStream stream;
+
+    /**
+     * The body's writer, null until it is asked for.
+     */
+    private PrintWriter writer;
+
+    /**
+     * Creates the response.
+     *
+     * @param resp - the real response.
+     */
+    BufferedResponse(HttpServletResponse resp) {
+        super(resp);
+    }
+
+    /**
+     * Writes the kept status, headers and body into the real response.
+     *
+     * @throws IOException if the response can not be written.
+     */
+    void commit() throws IOException {
+        HttpServletResponse resp = (HttpServletResponse) this.getResponse();
+        for (Change change : this.changes) {
+            change.apply(resp);
+        }
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        if (this.error) {
+            if (this.message != null) {
+                resp.sendError(this.status, this.message);
+            } else {
+                resp.sendError(this.status);
+            }
+        } else {
+            resp.setStatus(this.status);
+            if (this.body.size() > 0) {
+                this.body.writeTo(resp.getOutputStream());
+            }
+        }
+    }
+
+    /**
+     * Keeps the status.
+     *
+     * @param sc - the status.
+     */
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    /**
+     * Gets the kept status.
+     *
+     * @return the kept status.
+     */
+    @Override
+    public int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Keeps the error to send.
+     *
+     * @param sc - the error's status.
+     */
+    @Override
+    public void sendError(int sc) {
+        this.sendError(sc, null);
+    }
+
+    /**
+     * Keeps the error to send.
+     *
+     * @param sc - the error's status.
+     * @param msg - the error's message or null.
+     */
+    @Override
+    public void sendError(int sc, String msg) {
+        this.status = sc;
+        this.message = msg;
+        this.error = true;
+    }
+
+    /**
+     * Keeps the redirection.
+     *
+     * @param location - the redirection's location.
+     */
+    @Override
+    public void sendRedirect(String location) {
+        this.changes.add(resp -> resp.sendRedirect(location));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param value - the header's value.
+     */
+    @Override
+    public void setHeader(String name, String value) {
+        this.changes.add(resp -> resp.setHeader(name, value));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param value - the header's value.
+     */
+    @Override
+    public void addHeader(String name, String value) {
+        this.changes.add(resp -> resp.addHeader(name, value));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param value - the header's value.
+     */
+    @Override
+    public void setIntHeader(String name, int value) {
+        this.changes.add(resp -> resp.setIntHeader(name, value));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param value - the header's value.
+     */
+    @Override
+    public void addIntHeader(String name, int value) {
+        this.changes.add(resp -> resp.addIntHeader(name, value));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param date - the header's value, epoch ms.
+     */
+    @Override
+    public void setDateHeader(String name, long date) {
+        this.changes.add(resp -> resp.setDateHeader(name, date));
+    }
+
+    /**
+     * Keeps the header.
+     *
+     * @param name - the header's name.
+     * @param date - the header's value, epoch ms.
+     */
+    @Override
+    public void addDateHeader(String name, long date) {
+        this.changes.add(resp -> resp.addDateHeader(name, date));
+    }
+
+    /**
+     * Keeps the cookie.
+     *
+     * @param cookie - the cookie.
+     */
+    @Override
+    public void addCookie(Cookie cookie) {
+        this.changes.add(resp -> resp.addCookie(cookie));
+    }
+
+    /**
+     * Keeps the content's type.
+     *
+     * @param type - the content's type.
+     */
+    @Override
+    public void setContentType(String type) {
+        this.changes.add(resp -> resp.setContentType(type));
+    }
+
+    /**
+     * Keeps the body's charset.
+     *
+     * @param encoding - the charset's name.
+     */
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        this.charset = Charset.forName(encoding);
+        this.changes.add(resp -> resp.setCharacterEncoding(encoding));
+    }
+
+    /**
+     * Does nothing, the length of the kept body is set by the container.
+     *
+     * @param len - the length.
+     */
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    /**
+     * Does nothing, the length of the kept body is set by the container.
+     *
+     * @param len - the length.
+     */
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    /**
+     * Gets the stream of the kept body.
+     *
+     * @return the stream of the kept body.
+     */
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (this.stream == null) {
+            this.stream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("The buffered response is not written asynchronously.");
+                }
+
+                @Override
+                public void write(int b) {
+                    BufferedResponse.this.body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    BufferedResponse.this.body.write(b, off, len);
+                }
+            };
+        }
+        return this.stream;
+    }
+
+    /**
+     * Gets the writer of the kept body in its charset.
+     *
+     * @return the writer of the kept body.
+     */
+    @Override
+    public PrintWriter getWriter() {
+        if (this.writer == null) {
+            this.writer = new PrintWriter(new OutputStreamWriter(this.body, this.charset));
+        }
+        return this.writer;
+    }
+
+    /**
+     * Nothing is sent until the commit.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    /**
+     * Does nothing, nothing is sent until the commit.
+     */
+    @Override
+    public void flushBuffer() {
+    }
+
+    /**
+     * Drops the kept body.
+     */
+    @Override
+    public void resetBuffer() {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+        this.body.reset();
+    }
+
+    /**
+     * Drops the kept status, headers and body.
+     */
+    @Override
+    public void reset() {
+        this.resetBuffer();
+        this.changes.clear();
+        this.status = HttpServletResponse.SC_OK;
+        this.message = null;
+        this.error = false;
+    }
+
+    /**
+     * A change of the real response.
+     */
+    private interface Change {
+        /**
+         * Applies the change.
+         *
+         * @param resp - the real response.
+         * @throws IOException if occurs.
+         */
+        void apply(HttpServletResponse resp) throws IOException;
+    }
+}
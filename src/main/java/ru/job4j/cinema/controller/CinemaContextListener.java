@@ -0,0 +1,74 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.admission.WaitingRoom;
+import ru.job4j.cinema.dao.impl.ConnectionPool;
+import ru.job4j.cinema.dao.impl.PlaceDaoDb;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+/**
+ * The application's lifecycle. Starts the holds' expiry, opens the connections' pool, if the storage uses the
+ * database, and opens the waiting room, if it is on, when the application is deployed; finishes the running
+ * requests, stops the background threads and closes the pool when it is undeployed, so nothing is left behind
+ * after a redeploy.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.4
+ * @since 18/10/2026
+ */
+public class CinemaContextListener implements ServletContextListener {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(CinemaContextListener.class.getName());
+
+    /**
+     * Starts the logic and opens the connections' pool, unless the storage is in memory. Warns if the reads' and
+     * the writes' executors may take more connections than the pool has, so the reads may starve the writes. Opens
+     * the waiting room, if it is on, its rate adapts to the executors' rejections and the pool's timeouts.
+     *
+     * @param event - the event.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        if (ValidatorDB.getInstanceOf().isDatabase()) {
+            ConnectionPool pool = PlaceDaoDb.getInstanceOf().getPool();
+            int reads = RequestExecutor.getReads().getConcurrency();
+            int writes = RequestExecutor.getWrites().getConcurrency();
+            if (reads + writes > pool.getMaxTotal()) {
+                CinemaContextListener.LOG.warn(
+                        "The reads ({}) and the writes ({}) may take more than the pool's {} connections.",
+                        reads, writes, pool.getMaxTotal()
+                );
+            }
+            pool.start();
+        }
+        if (WaitingRoom.isEnabled()) {
+            boolean database = ValidatorDB.getInstanceOf().isDatabase();
+            WaitingRoom.getInstanceOf().start(() -> RequestExecutor.getReads().getRejected()
+                    + RequestExecutor.getWrites().getRejected()
+                    + (database ? PlaceDaoDb.getInstanceOf().getPool().getTimeouts() : 0));
+        }
+    }
+
+    /**
+     * Closes the waiting room, finishes the running requests, stops the logic and closes the connections' pool,
+     * if the storage uses the database.
+     *
+     * @param event - the event.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        WaitingRoom.getInstanceOf().stop();
+        RequestExecutor.getReads().shutdown();
+        RequestExecutor.getWrites().shutdown();
+        ValidatorDB.getInstanceOf().stop();
+        if (ValidatorDB.getInstanceOf().isDatabase()) {
+            PlaceDaoDb.getInstanceOf().getPool().close();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.business.NullArgumentException;
+import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.hold.BookingToken;
+import ru.job4j.cinema.hold.TokenSigner;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.validate.Validator;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group tickets controller. Buys all places of the repeated "place" parameter of the "screening" at once, in one
+ * request and one transaction, or none of them. The place of the client's signed booking is bought by its holder,
+ * its hold is adopted by this node whichever node has booked it, the other places must be free. The work is done by the writes' {@link RequestExecutor}.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.5
+ * @since 18/10/2026
+ */
+public class GroupTicketController extends HttpServlet {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(GroupTicketController.class.getName());
+
+    /**
+     * The logic singleton instance.
+     */
+    private final Validator logic = ValidatorDB.getMeasured();
+
+    /**
+     * Creates the tickets out of the container's thread.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the rejection can not be sent.
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        RequestExecutor.getWrites().execute(req, resp, this::buy);
+    }
+
+    /**
+     * Creates the tickets and answers the json-array of the bought places with their prices. Answers
+     * "409 Conflict" with the json-array of the busy places if some of them are busy or held by somebody else,
+     * "400 Bad Request" if the places or the person are wrong.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    private void buy(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        int screening = Utils.parseScreening(req.getParameter(Constants.ATTR_SCREENING));
+        String[] numbers = req.getParameterValues(Constants.ATTR_PLACE);
+        List<Place> places = new ArrayList<Place>();
+        if (numbers != null) {
+            for (String number : numbers) {
+                Place place = Utils.parsePlace(number);
+                place.setScreening(screening);
+                places.add(place);
+            }
+        }
+        Person person = new Person(req.getParameter(Constants.ATTR_NAME), req.getParameter(Constants.ATTR_PHONE));
+        BookingToken booking = TokenSigner.getInstanceOf().verify(
+                Utils.readCookie(req, Constants.COOKIE_BOOKING), System.currentTimeMillis() / 1000
+        );
+        try {
+            if (booking != null && places.contains(booking.getPlace())) {
+                this.logic.adoptBooking(booking.getPlace(), booking.getHolder(), booking.getExpires());
+            }
+            this.logic.createTickets(places, person, booking != null ? booking.getHolder() : TokenSigner.newHolder());
+            for (Place place : places) {
+                place.setEmpty(Place.BUSY);
+                place.setPrice(this.logic.getActualPrice(place));
+            }
+            Utils.writeJson(places, resp);
+        } catch (AlreadyOccupiedPlaceException e) {
+            for (Place place : e.getPlaces()) {
+                place.setEmpty(Place.BUSY);
+            }
+            resp.setStatus(HttpServletResponse.SC_CONFLICT);
+            Utils.writeJson(e.getPlaces(), resp);
+        } catch (NullArgumentException e) {
+            GroupTicketController.LOG.error("Null pointer argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (WrongArgumentException e) {
+            GroupTicketController.LOG.error("Wrong argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (DaoSystemException e) {
+            GroupTicketController.LOG.error("SQL error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
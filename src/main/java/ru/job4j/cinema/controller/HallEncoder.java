@@ -0,0 +1,100 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.model.HallGeometry;
+import ru.job4j.cinema.model.Place;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * The compact binary form of the hall, for "application/octet-stream" clients. All numbers are big-endian:
+ * <pre>
+ * u8       format, 1
+ * u16      rows
+ * u16      seat positions of every row, including gaps
+ * u8       zones
+ * i32      price of every zone, ascending
+ * u8       bits of a seat's zone
+ * bits     zone of every seat position, 0 for a gap, zone + 1 for a seat; padded to a byte
+ * bits     state of every seat position, 1 if the seat is busy; padded to a byte
+ * </pre>
+ * Bits are packed from the most significant one, seat positions go by rows and numbers.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+class HallEncoder {
+    /**
+     * The format version.
+     */
+    static final byte FORMAT = 1;
+
+    /**
+     * The maximal number of zones, encoded into one byte.
+     */
+    private static final int MAX_ZONES = 255;
+
+    /**
+     * Encodes the specified hall.
+     *
+     * @param places - all places of the hall.
+     * @return the encoded hall.
+     */
+    static byte[] encode(List<Place> places) {
+        HallGeometry geometry = new HallGeometry(places);
+        int[] prices = geometry.getZonePrices();
+        if (prices.length > HallEncoder.MAX_ZONES) {
+            throw new IllegalStateException(String.format("Too many price zones: %d.", prices.length));
+        }
+        int rows = geometry.getRows();
+        int size = geometry.size();
+        int zoneBits = 32 - Integer.numberOfLeadingZeros(prices.length);
+        byte[] zones = new byte[(size * zoneBits + 7) / 8];
+        byte[] busy = new byte[(size + 7) / 8];
+        for (int index = 0; index < size; index++) {
+            if (geometry.isPresent(index)) {
+                HallEncoder.putBits(zones, index * zoneBits, geometry.getZone(index) + 1, zoneBits);
+            }
+        }
+        for (Place place : places) {
+            int index = geometry.indexOf(place);
+            if (!place.isEmpty() && index >= 0) {
+                HallEncoder.putBits(busy, index, 1, 1);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(
+                1 + 2 + 2 * rows + 1 + 4 * prices.length + 1 + zones.length + busy.length
+        );
+        buffer.put(HallEncoder.FORMAT);
+        buffer.putShort((short) rows);
+        for (int row = 1; row <= rows; row++) {
+            buffer.putShort((short) geometry.getSeats(row));
+        }
+        buffer.put((byte) prices.length);
+        for (int price : prices) {
+            buffer.putInt(price);
+        }
+        buffer.put((byte) zoneBits);
+        buffer.put(zones);
+        buffer.put(busy);
+        return buffer.array();
+    }
+
+    /**
+     * Writes the lowest bits of the specified value into the bit string, the most significant bit first.
+     *
+     * @param bits - the bit string.
+     * @param position - the position of the first bit.
+     * @param value - the value.
+     * @param width - the number of bits to write.
+     */
+    private static void putBits(byte[] bits, int position, int value, int width) {
+        for (int i = 0; i < width; i++) {
+            if ((value >>> (width - 1 - i) & 1) != 0) {
+                int bit = position + i;
+                bits[bit >>> 3] |= 0x80 >>> (bit & 7);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.event.PlaceEvents;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.validate.Validator;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The serialized hall of every screening, shared by all requests and rebuilt only when the screening's version
+ * has changed. One thread rebuilds it, others wait for its result instead of reading the hall too; rebuilds are
+ * serialized by lock stripes, so screenings rarely wait for each other. There is a snapshot per format:
+ * the JSON array of all places as UTF-8 bytes, and the compact binary form.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.4
+ * @since 18/10/2026
+ */
+class HallSnapshot {
+    /**
+     * The JSON snapshot singleton.
+     */
+    private static final HallSnapshot INSTANCE = new HallSnapshot(ValidatorDB.getMeasured(), Utils.JSON::writeValueAsBytes);
+
+    /**
+     * The binary snapshot singleton.
+     */
+    private static final HallSnapshot BINARY = new HallSnapshot(ValidatorDB.getMeasured(), HallEncoder::encode);
+
+    /**
+     * The number of lock stripes, a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * The logic instance.
+     */
+    private final Validator logic;
+
+    /**
+     * The format of the snapshot.
+     */
+    private final Encoder encoder;
+
+    /**
+     * The last built snapshot of every requested screening.
+     */
+    private final Map<Integer, Snapshot> snapshots = new ConcurrentHashMap<Integer, Snapshot>();
+
+    /**
+     * The locks of the rebuilds, a screening uses the stripe of its id.
+     */
+    private final Object[] locks = new Object[HallSnapshot.STRIPES];
+
+    /**
+     * Creates the snapshot of the hall, read through the specified logic.
+     *
+     * @param logic - the logic instance.
+     * @param encoder - the format of the snapshot.
+     */
+    HallSnapshot(Validator logic, Encoder encoder) {
+        this.logic = logic;
+        this.encoder = encoder;
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Gets the JSON snapshot singleton.
+     *
+     * @return the JSON snapshot singleton.
+     */
+    static HallSnapshot getInstanceOf() {
+        return HallSnapshot.INSTANCE;
+    }
+
+    /**
+     * Gets the binary snapshot singleton.
+     *
+     * @return the binary snapshot singleton.
+     */
+    static HallSnapshot getBinaryInstanceOf() {
+        return HallSnapshot.BINARY;
+    }
+
+    /**
+     * Gets the serialized hall of the specified screening if it is of the current version already, so the caller
+     * knows the hall is not read.
+     *
+     * @param screening - the specified screening.
+     * @return the encoded places or null if the snapshot must be rebuilt.
+     */
+    byte[] getCurrent(int screening) {
+        Snapshot snapshot = this.snapshots.get(screening);
+        return snapshot != null && snapshot.version >= PlaceEvents.getInstanceOf().getVersion(screening)
+                ? snapshot.bytes : null;
+    }
+
+    /**
+     * Gets the serialized hall of the specified screening, not older than its current version. The bytes are
+     * shared, so they must not be changed. An unknown screening is not kept.
+     *
+     * @param screening - the specified screening.
+     * @return the encoded places.
+     * @throws DaoSystemException when SQL error occurs.
+     * @throws NoSuchModelException when there are no places in the hall.
+     * @throws IOException when the serialization fails.
+     */
+    byte[] get(int screening) throws DaoSystemException, NoSuchModelException, IOException {
+        long version = PlaceEvents.getInstanceOf().getVersion(screening);
+        Snapshot snapshot = this.snapshots.get(screening);
+        if (snapshot == null || snapshot.version < version) {
+            synchronized (this.locks[screening & (HallSnapshot.STRIPES - 1)]) {
+                snapshot = this.snapshots.get(screening);
+                if (snapshot == null || snapshot.version < version) {
+                    version = PlaceEvents.getInstanceOf().getVersion(screening);
+                    snapshot = new Snapshot(version, this.encoder.encode(this.logic.selectAllPlaces(screening)));
+                    this.snapshots.put(screening, snapshot);
+                }
+            }
+        }
+        return snapshot.bytes;
+    }
+
+    /**
+     * The format of the snapshot.
+     */
+    interface Encoder {
+        /**
+         * Encodes the specified places.
+         *
+         * @param places - all places of the hall.
+         * @return the encoded places.
+         * @throws IOException when the serialization fails.
+         */
+        byte[] encode(List<Place> places) throws IOException;
+    }
+
+    /**
+     * The serialized hall of the known version.
+     */
+    private static final class Snapshot {
+        /**
+         * The hall version, read before the hall.
+         */
+        private final long version;
+
+        /**
+         * The serialized hall.
+         */
+        private final byte[] bytes;
+
+        /**
+         * Creates the snapshot.
+         *
+         * @param version - the hall version, read before the hall.
+         * @param bytes - the serialized hall.
+         */
+        Snapshot(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+}
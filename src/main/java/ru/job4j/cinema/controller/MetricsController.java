@@ -0,0 +1,69 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.admission.WaitingRoom;
+import ru.job4j.cinema.dao.impl.ConnectionPool;
+import ru.job4j.cinema.dao.impl.PlaceDaoDb;
+import ru.job4j.cinema.metrics.Metrics;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Metrics controller. Shows the requests' and the storage's latencies and errors, the connections' pool and the
+ * waiting room in the Prometheus text format, ready to be scraped. The pool is shown only if the storage uses the
+ * database, so the in-memory storage never creates it.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class MetricsController extends HttpServlet {
+    /**
+     * Writes all metrics.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        StringBuilder out = new StringBuilder();
+        Metrics.getInstanceOf().write(out);
+        if (ValidatorDB.getInstanceOf().isDatabase()) {
+            ConnectionPool pool = PlaceDaoDb.getInstanceOf().getPool();
+            MetricsController.gauge(out, "cinema_pool_active", "The connections in use.", pool.getActive());
+            MetricsController.gauge(out, "cinema_pool_idle", "The idle connections.", pool.getIdle());
+            MetricsController.gauge(out, "cinema_pool_max", "The maximal number of the connections.", pool.getMaxTotal());
+            Metrics.writeHeader(out, "cinema_pool_timeouts_total", "The waits for a connection, which have timed out.", "counter");
+            out.append("cinema_pool_timeouts_total ").append(pool.getTimeouts()).append('\n');
+            Metrics.writeHeader(out, "cinema_pool_wait_seconds", "The waits for a connection.", "summary");
+            Metrics.writeSummary(out, "cinema_pool_wait_seconds", "", pool.getWaits());
+        }
+        if (WaitingRoom.isEnabled()) {
+            WaitingRoom room = WaitingRoom.getInstanceOf();
+            MetricsController.gauge(out, "cinema_queue_waiting", "The clients in the waiting room.", room.getWaiting());
+            MetricsController.gauge(
+                    out, "cinema_queue_rate", "The admission rate, clients per second.", Math.round(room.getRate())
+            );
+        }
+        resp.setContentType("text/plain; version=0.0.4");
+        resp.setCharacterEncoding("UTF-8");
+        resp.getWriter().append(out);
+    }
+
+    /**
+     * Writes the gauge.
+     *
+     * @param out - the output.
+     * @param name - the gauge's name.
+     * @param help - the gauge's description.
+     * @param value - the gauge's value.
+     */
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        Metrics.writeHeader(out, name, help, "gauge");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,134 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.metrics.Metrics;
+import ru.job4j.cinema.metrics.Timer;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Measures every request by its servlet and HTTP method: the latency and the responses with the 4xx and 5xx
+ * status codes by the code. The asynchronous request is measured until its completion, not until its servlet
+ * returns.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class MetricsFilter implements Filter {
+    /**
+     * The timers of the requests.
+     */
+    private static final Metrics.Family REQUESTS = Metrics.getInstanceOf().family(
+            "cinema_request", "The requests by the servlet and the method.", "status"
+    );
+
+    /**
+     * The least error status code.
+     */
+    private static final int ERROR_STATUS = 400;
+
+    /**
+     * Measures the request.
+     *
+     * @param request - the request.
+     * @param response - the response.
+     * @param chain - the filter chain.
+     * @throws IOException if occurs.
+     * @throws ServletException if occurs.
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long start = System.nanoTime();
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse resp = (HttpServletResponse) response;
+        Timer timer = MetricsFilter.REQUESTS.timer(String.format(
+                "servlet=\"%s\",method=\"%s\"", req.getHttpServletMapping().getServletName(), req.getMethod()
+        ));
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new Completion(timer, start, resp));
+            } else {
+                MetricsFilter.record(timer, start, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : resp.getStatus());
+            }
+        }
+    }
+
+    /**
+     * Records the request's latency and its error status.
+     *
+     * @param timer - the request's timer.
+     * @param start - the request's start, ns.
+     * @param status - the response's status code.
+     */
+    private static void record(Timer timer, long start, int status) {
+        timer.record(System.nanoTime() - start);
+        if (status >= MetricsFilter.ERROR_STATUS) {
+            timer.error(String.valueOf(status));
+        }
+    }
+
+    /**
+     * Measures the asynchronous request on its completion, which follows its timeout or error too.
+     */
+    private static final class Completion implements AsyncListener {
+        /**
+         * The request's timer.
+         */
+        private final Timer timer;
+
+        /**
+         * The request's start, ns.
+         */
+        private final long start;
+
+        /**
+         * The response.
+         */
+        private final HttpServletResponse resp;
+
+        /**
+         * Creates the listener.
+         *
+         * @param timer - the request's timer.
+         * @param start - the request's start, ns.
+         * @param resp - the response.
+         */
+        private Completion(Timer timer, long start, HttpServletResponse resp) {
+            this.timer = timer;
+            this.start = start;
+            this.resp = resp;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            MetricsFilter.record(this.timer, this.start, this.resp.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package ru.job4j.cinema.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
 import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.event.PlaceEvents;
+import ru.job4j.cinema.model.HallChanges;
 import ru.job4j.cinema.model.Place;
 import ru.job4j.cinema.validate.Validator;
 import ru.job4j.cinema.validate.impl.ValidatorDB;
@@ -13,14 +16,23 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.List;
 
 /**
- * Places controller. Prepare places states for the cinema hall.
+ * Places controller. Prepare places states for the cinema hall of the "screening" parameter, the first screening
+ * by default. Every response is tagged with the screening's hall version, a repeated request with the same tag
+ * is answered with "304 Not Modified" without reading the hall. The tag starts with this node's start time and
+ * the screening, so tags of the previous run or of another screening never match. A request with the
+ * "since" parameter, the tag without quotes, gets the changed places only, or all places if the tag is too old.
+ * All places are served from the shared snapshot, serialized once per hall version. A client accepting
+ * "application/octet-stream" gets the compact binary form, see {@link HallEncoder}, tagged apart from the JSON.
+ * The requests, which are answered from memory, are answered in the container's thread, the rest are passed to
+ * the reads' {@link RequestExecutor}, so the container's threads never wait for the database. The tag is set only
+ * on the answer with the hall: a failed read is answered "500 Internal Server Error", or "404 Not Found" for an
+ * unknown screening, without it, so the browser never keeps the error as the hall.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.9
  * @since 29/04/2019
  */
 public class PlacesController extends HttpServlet {
@@ -28,42 +40,182 @@ public class PlacesController extends HttpServlet {
      * The logger.
      */
     private static final Logger LOG = LogManager.getLogger(PlacesController.class.getName());
+
+    /**
+     * The content type of the binary form.
+     */
+    private static final String BINARY = "application/octet-stream";
     
     /**
      * The logic singleton instance.
      */
-    private final Validator logic = ValidatorDB.getInstanceOf();
+    private final Validator logic = ValidatorDB.getMeasured();
+
+    /**
+     * The prefix of this node's tags.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
 
     /**
      * Prepare places states for the cinema hall.
      *
      * @param req - HTTP request.
      * @param resp - HTTP response.
+     * @throws IOException when the response stream error occurs.
      */
     @Override
-    protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        int screening = Utils.parseScreening(req.getParameter(Constants.ATTR_SCREENING));
+        long version = PlaceEvents.getInstanceOf().getVersion(screening);
+        String accept = req.getHeader("Accept");
+        boolean binary = accept != null && accept.contains(PlacesController.BINARY);
+        String prefix = String.format("%s-%d-", this.epoch, screening);
+        String tag = String.format(binary ? "\"%s%d-bin\"" : "\"%s%d\"", prefix, version);
+        HallSnapshot snapshot = binary ? HallSnapshot.getBinaryInstanceOf() : HallSnapshot.getInstanceOf();
+        String type = binary ? PlacesController.BINARY : "text/json;charset=UTF-8";
+        String since = req.getParameter("since");
+        if (since != null) {
+            List<Place> changes = this.changesSince(screening, prefix, since);
+            if (changes != null) {
+                this.tag(tag, resp);
+                Utils.writeJson(new HallChanges(prefix + version, false, changes), resp);
+            } else {
+                RequestExecutor.getReads().execute(
+                        req, resp, (request, response) -> this.prepareAll(screening, prefix + version, tag, response)
+                );
+            }
+        } else if (this.matches(req.getHeader("If-None-Match"), tag)) {
+            this.tag(tag, resp);
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+            byte[] current = snapshot.getCurrent(screening);
+            if (current != null) {
+                this.tag(tag, resp);
+                this.prepareResponse(current, type, resp);
+            } else {
+                RequestExecutor.getReads().execute(
+                        req, resp, (request, response) -> this.prepareSnapshot(screening, snapshot, type, tag, response)
+                );
+            }
+        }
+    }
+
+    /**
+     * Prepares the rebuilt snapshot of the hall, tagged after it has been built.
+     *
+     * @param screening - the requested screening.
+     * @param snapshot - the snapshot of the requested format.
+     * @param type - the content type of the requested format.
+     * @param tag - the tag of the hall's version, read before the hall.
+     * @param resp - HTTP response.
+     * @throws IOException if the error can not be sent.
+     */
+    private void prepareSnapshot(int screening, HallSnapshot snapshot, String type, String tag, HttpServletResponse resp) throws IOException {
         try {
-            this.prepareResponse(this.logic.selectAllPlaces(), resp);
+            byte[] body = snapshot.get(screening);
+            this.tag(tag, resp);
+            this.prepareResponse(body, type, resp);
         } catch (DaoSystemException e) {
             PlacesController.LOG.error("SQL error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (NoSuchModelException e) {
             PlacesController.LOG.error("No such model in database.", e);
-        } catch (IOException e) {
-            PlacesController.LOG.error("IO error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Prepares all places as the changes, for the client whose version is unknown or too old, tagged after they
+     * have been read.
+     *
+     * @param screening - the requested screening.
+     * @param version - the version of the screening's hall, read before the hall.
+     * @param tag - the tag of the hall's version.
+     * @param resp - HTTP response.
+     * @throws IOException if the error can not be sent.
+     */
+    private void prepareAll(int screening, String version, String tag, HttpServletResponse resp) throws IOException {
+        try {
+            HallChanges changes = new HallChanges(version, true, this.logic.selectAllPlaces(screening));
+            this.tag(tag, resp);
+            Utils.writeJson(changes, resp);
+        } catch (DaoSystemException e) {
+            PlacesController.LOG.error("SQL error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (NoSuchModelException e) {
+            PlacesController.LOG.error("No such model in database.", e);
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Sets the validators of the answer with the hall: its tag, the revalidation of every use and the variation by
+     * the format.
+     *
+     * @param tag - the tag of the hall's version.
+     * @param resp - HTTP response.
+     */
+    private void tag(String tag, HttpServletResponse resp) {
+        resp.setHeader("ETag", tag);
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("Vary", "Accept");
+    }
+
+    /**
+     * Gets the hall's changes since the client's version. The current version is read before the changes,
+     * so the changes may be ahead of it, and the client gets them once more next time, but never misses them.
+     *
+     * @param screening - the requested screening.
+     * @param prefix - the prefix of the screening's tags.
+     * @param since - the client's version, the tag without quotes.
+     * @return the changed places or null if the client's version is unknown or too old.
+     */
+    private List<Place> changesSince(int screening, String prefix, String since) {
+        List<Place> result = null;
+        if (since.startsWith(prefix)) {
+            try {
+                result = PlaceEvents.getInstanceOf().changesSince(
+                        screening, Long.parseLong(since.substring(prefix.length()))
+                );
+            } catch (NumberFormatException e) {
+                PlacesController.LOG.debug("Wrong version: {}", since);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the browser already has the hall with the specified tag.
+     *
+     * @param header - the "If-None-Match" header, a list of tags or null.
+     * @param tag - the current tag.
+     * @return true if the current tag is in the list.
+     */
+    private boolean matches(String header, String tag) {
+        boolean result = false;
+        if (header != null) {
+            for (String candidate : header.split(",")) {
+                String trimmed = candidate.trim();
+                if (tag.equals(trimmed) || ("W/" + tag).equals(trimmed) || "*".equals(trimmed)) {
+                    result = true;
+                    break;
+                }
+            }
         }
+        return result;
     }
 
     /**
-     * Prepares HTTP-response, puts into it json-array of places.
+     * Prepares HTTP-response, puts into it the serialized places. Package-private for the benchmarks.
      *
+     * @param body - the serialized places.
+     * @param type - the content type of the serialized places.
      * @param resp - HTTP response.
-     * @throws IOException when PrintWriter error occurs.
+     * @throws IOException when the response stream error occurs.
      */
-    private void prepareResponse(List<Place> places, HttpServletResponse resp) throws IOException {
-        resp.setContentType("text/json");
-        ObjectMapper mapper = new ObjectMapper();
-        PrintWriter writer = new PrintWriter(resp.getOutputStream());
-        writer.append(mapper.writeValueAsString(places));
-        writer.flush();
+    void prepareResponse(byte[] body, String type, HttpServletResponse resp) throws IOException {
+        resp.setContentType(type);
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
     }
 }
\ No newline at end of file
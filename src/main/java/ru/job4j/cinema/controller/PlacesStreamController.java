@@ -0,0 +1,343 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.event.PlaceEvents;
+import ru.job4j.cinema.event.PlaceListener;
+import ru.job4j.cinema.model.Place;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places stream controller. Pushes the places' state changes to the connected browsers as Server-Sent Events:
+ * the "snapshot" event with all places on connect, then "change" events with the changed places only.
+ * Changes are collected per place and flushed by one broadcaster thread, so a burst of changes of one place
+ * is sent as its last state, and the database is not touched however many viewers are connected. The snapshot
+ * is taken from the shared serialized hall, so a wave of reconnects does not read the hall again either.
+ * A browser watches the screening of its "screening" parameter, the first screening by default. The streams are
+ * written in the non-blocking mode: every browser has its own queue of the events, written only while its
+ * stream is ready and drained by the container when the stream gets ready again, so a slow browser never holds
+ * the broadcaster up. A browser, which lets its queue overflow, is dropped, it gets the snapshot on reconnect.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.3
+ * @since 18/10/2026
+ */
+public class PlacesStreamController extends HttpServlet implements PlaceListener {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(PlacesStreamController.class.getName());
+
+    /**
+     * The pause between flushes of the collected changes, ms.
+     */
+    private static final long FLUSH_PERIOD = 200;
+
+    /**
+     * The pause between heartbeats, keeping idle connections open and detecting gone clients, ms.
+     */
+    private static final long HEARTBEAT_PERIOD = 15000;
+
+    /**
+     * The heartbeat, an SSE comment line.
+     */
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The most events waiting to be written to a browser, the slower browser is dropped.
+     */
+    private static final int MAX_PENDING = 32;
+
+    /**
+     * The connected browsers.
+     */
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The changes, collected since the last flush, keyed by screening and place.
+     */
+    private final Map<Long, Place> changes = new ConcurrentHashMap<Long, Place>();
+
+    /**
+     * The broadcaster thread.
+     */
+    private ScheduledExecutorService broadcaster;
+
+    /**
+     * Starts the broadcaster and subscribes for the places' changes.
+     */
+    @Override
+    public void init() {
+        this.broadcaster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "places-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.broadcaster.scheduleWithFixedDelay(
+                this::flush, PlacesStreamController.FLUSH_PERIOD, PlacesStreamController.FLUSH_PERIOD, TimeUnit.MILLISECONDS
+        );
+        this.broadcaster.scheduleWithFixedDelay(
+                () -> this.send(PlacesStreamController.HEARTBEAT),
+                PlacesStreamController.HEARTBEAT_PERIOD, PlacesStreamController.HEARTBEAT_PERIOD, TimeUnit.MILLISECONDS
+        );
+        PlaceEvents.getInstanceOf().subscribe(this);
+    }
+
+    /**
+     * Unsubscribes from the places' changes, stops the broadcaster and closes all streams.
+     */
+    @Override
+    public void destroy() {
+        PlaceEvents.getInstanceOf().unsubscribe(this);
+        this.broadcaster.shutdownNow();
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.close();
+        }
+    }
+
+    /**
+     * Opens the stream: sends all places and keeps the connection for the following changes.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the stream can not be opened.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.setContentType("text/event-stream");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        AsyncContext context = req.startAsync();
+        context.setTimeout(0);
+        Subscriber subscriber = new Subscriber(
+                context, resp.getOutputStream(), Utils.parseScreening(req.getParameter(Constants.ATTR_SCREENING))
+        );
+        context.addListener(subscriber);
+        synchronized (subscriber) {
+            subscriber.out.setWriteListener(subscriber);
+            this.subscribers.add(subscriber);
+            try {
+                subscriber.send(this.event("snapshot", HallSnapshot.getInstanceOf().get(subscriber.screening)));
+            } catch (DaoSystemException e) {
+                PlacesStreamController.LOG.error("SQL error occurs.", e);
+                subscriber.close();
+            } catch (NoSuchModelException e) {
+                PlacesStreamController.LOG.error("No such model in database.", e);
+                subscriber.close();
+            } catch (IOException e) {
+                PlacesStreamController.LOG.error("IO error occurs.", e);
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Collects the changed place for the next flush. The later change of the same place replaces the earlier.
+     *
+     * @param place - the changed place with its screening, new state and price.
+     */
+    @Override
+    public void placeChanged(Place place) {
+        this.changes.put((long) place.getScreening() << 32 | place.getRow() << 16 | place.getNumber(), place);
+    }
+
+    /**
+     * Sends the collected changes of every screening to its browsers as one event.
+     */
+    private void flush() {
+        Map<Integer, List<Place>> screenings = new HashMap<Integer, List<Place>>();
+        for (Long key : this.changes.keySet()) {
+            Place place = this.changes.remove(key);
+            if (place != null) {
+                screenings.computeIfAbsent(place.getScreening(), screening -> new ArrayList<Place>()).add(place);
+            }
+        }
+        for (Map.Entry<Integer, List<Place>> entry : screenings.entrySet()) {
+            try {
+                byte[] event = this.event("change", Utils.JSON.writeValueAsBytes(entry.getValue()));
+                for (Subscriber subscriber : this.subscribers) {
+                    if (subscriber.screening == entry.getKey()) {
+                        subscriber.send(event);
+                    }
+                }
+            } catch (IOException e) {
+                PlacesStreamController.LOG.error("IO error occurs.", e);
+            }
+        }
+    }
+
+    /**
+     * Sends the specified bytes to all connected browsers.
+     *
+     * @param bytes - the event.
+     */
+    private void send(byte[] bytes) {
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.send(bytes);
+        }
+    }
+
+    /**
+     * Formats the specified JSON as SSE event.
+     *
+     * @param name - the event name.
+     * @param data - the event data, one line JSON.
+     * @return the event bytes.
+     */
+    private byte[] event(String name, byte[] data) {
+        byte[] head = String.format("event: %s\ndata: ", name).getBytes(StandardCharsets.UTF_8);
+        byte[] result = Arrays.copyOf(head, head.length + data.length + 2);
+        System.arraycopy(data, 0, result, head.length, data.length);
+        result[result.length - 2] = '\n';
+        result[result.length - 1] = '\n';
+        return result;
+    }
+
+    /**
+     * The connected browser. The events are queued and written while the stream is ready, the rest is written by
+     * the container's call when the stream gets ready again. Writes are serialized by the subscriber's monitor,
+     * the stream is closed on the first failed write or the queue's overflow.
+     */
+    private final class Subscriber implements AsyncListener, WriteListener {
+        /**
+         * The async context of the browser's request.
+         */
+        private final AsyncContext context;
+
+        /**
+         * The browser's stream in the non-blocking mode.
+         */
+        private final ServletOutputStream out;
+
+        /**
+         * The watched screening.
+         */
+        private final int screening;
+
+        /**
+         * The events waiting to be written.
+         */
+        private final Queue<byte[]> pending = new ArrayDeque<byte[]>();
+
+        /**
+         * Creates the subscriber of the specified request.
+         *
+         * @param context - the async context of the browser's request.
+         * @param out - the browser's stream.
+         * @param screening - the watched screening.
+         */
+        Subscriber(AsyncContext context, ServletOutputStream out, int screening) {
+            this.context = context;
+            this.out = out;
+            this.screening = screening;
+        }
+
+        /**
+         * Queues the specified bytes and writes the queue as far as the stream is ready. Drops the browser, which
+         * has not taken the queued events.
+         *
+         * @param bytes - the event.
+         */
+        synchronized void send(byte[] bytes) {
+            if (this.pending.size() < PlacesStreamController.MAX_PENDING) {
+                this.pending.add(bytes);
+                this.drain();
+            } else {
+                PlacesStreamController.LOG.debug("The browser is too slow, it is dropped.");
+                this.close();
+            }
+        }
+
+        /**
+         * Writes the queued events while the stream is ready and flushes them after the last one.
+         */
+        private synchronized void drain() {
+            try {
+                while (!this.pending.isEmpty() && this.out.isReady()) {
+                    this.out.write(this.pending.poll());
+                }
+                if (this.pending.isEmpty() && this.out.isReady()) {
+                    this.out.flush();
+                }
+            } catch (IOException | IllegalStateException e) {
+                this.close();
+            }
+        }
+
+        /**
+         * Writes the queued events, the stream is ready again.
+         */
+        @Override
+        public void onWritePossible() {
+            this.drain();
+        }
+
+        /**
+         * Closes the failed stream.
+         *
+         * @param throwable - the failure.
+         */
+        @Override
+        public void onError(Throwable throwable) {
+            this.close();
+        }
+
+        /**
+         * Forgets the browser and completes its request.
+         */
+        void close() {
+            if (PlacesStreamController.this.subscribers.remove(this)) {
+                try {
+                    this.context.complete();
+                } catch (IllegalStateException e) {
+                    PlacesStreamController.LOG.debug("The stream is already closed.", e);
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            PlacesStreamController.this.subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            this.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            this.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
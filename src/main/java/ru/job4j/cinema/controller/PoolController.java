@@ -0,0 +1,55 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.impl.ConnectionPool;
+import ru.job4j.cinema.dao.impl.PlaceDaoDb;
+import ru.job4j.cinema.metrics.Histogram;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connections' pool controller. Shows the live state of the pool: the connections in use and idle, the waits for
+ * a connection and the waits, which have timed out. The in-memory storage has no pool, it is answered
+ * "404 Not Found", so the pool is never created for it.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class PoolController extends HttpServlet {
+    /**
+     * Prepares the json-object of the pool's state, the waits are in microseconds, if the storage uses the
+     * database.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (ValidatorDB.getInstanceOf().isDatabase()) {
+            ConnectionPool pool = PlaceDaoDb.getInstanceOf().getPool();
+            Histogram waits = pool.getWaits();
+            Map<String, Object> state = new LinkedHashMap<String, Object>();
+            state.put("active", pool.getActive());
+            state.put("idle", pool.getIdle());
+            state.put("maxTotal", pool.getMaxTotal());
+            state.put("timeouts", pool.getTimeouts());
+            state.put("waits", waits.getCount());
+            state.put("waitP50", TimeUnit.NANOSECONDS.toMicros(waits.getValueAtPercentile(50)));
+            state.put("waitP99", TimeUnit.NANOSECONDS.toMicros(waits.getValueAtPercentile(99)));
+            state.put("waitP999", TimeUnit.NANOSECONDS.toMicros(waits.getValueAtPercentile(99.9)));
+            state.put("waitMax", TimeUnit.NANOSECONDS.toMicros(waits.getMax()));
+            Utils.writeJson(state, resp);
+        } else {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.job4j.cinema.controller;
+
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.model.QueueStatus;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Waiting room controller. Shows the client's place in the queue, or lets it in, from the memory only, so the
+ * waiting clients poll it cheaply, as often as "Retry-After" says.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class QueueController extends HttpServlet {
+    /**
+     * Prepares the json-status of the client.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        QueueStatus status = AdmissionFilter.admit(req, resp);
+        resp.setHeader("Cache-Control", "no-store");
+        if (!status.isAdmitted()) {
+            resp.setHeader("Retry-After", String.valueOf(status.getPoll()));
+        }
+        Utils.writeJson(status, resp);
+    }
+}
@@ -0,0 +1,454 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.metrics.Metrics;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the blocking work of the requests out of the container's threads. The request is put into the async mode,
+ * the container's thread is returned at once, and the work is done by the executor's thread. The executor is
+ * bounded: a fixed number of threads and no queue by default, or a limited queue if its size is set, or, in the
+ * "virtual" mode on JDK 21 and newer, a virtual thread per task with the same limit of the tasks in flight. A request, which
+ * does not fit the limit, is answered "503 Service Unavailable" with "Retry-After" at once; a request, which is not
+ * done in time, is answered the same, and its work is not started any more. The work writes its answer into a
+ * {@link BufferedResponse}, which is sent only if the work is done first, so the work, which has timed out, never
+ * touches the answered response. The write, which has timed out while running, may be done yet, so it is answered
+ * without "Retry-After": a retry could buy the place twice. The rejections are counted by the executor and the
+ * reason.
+ * <p>
+ * There are two executors, the bulkheads: the reads, the polling of the hall, and the writes, the bookings and the
+ * purchases. A crowd of the viewers fills the reads' threads and queue only and is rejected, while the buyers are
+ * served by their own threads. Every task uses one connection at most, so the threads of a bulkhead are its budget
+ * of the pool's connections too.
+ * Settings: "async-mode" ("pool" or "virtual"), "async-read-threads", "async-read-queue", "async-write-threads",
+ * "async-write-queue", "async-timeout" (ms), "retry-after" (s).
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.5
+ * @since 18/10/2026
+ */
+class RequestExecutor {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(RequestExecutor.class.getName());
+
+    /**
+     * The setting of the executor's mode.
+     */
+    private static final String CONFIG_MODE = "async-mode";
+
+    /**
+     * The setting of the number of the executor's threads, formatted by the executor's name.
+     */
+    private static final String CONFIG_THREADS = "async-%s-threads";
+
+    /**
+     * The setting of the number of the waiting tasks, formatted by the executor's name.
+     */
+    private static final String CONFIG_QUEUE = "async-%s-queue";
+
+    /**
+     * The setting of the request's timeout, ms.
+     */
+    private static final String CONFIG_TIMEOUT = "async-timeout";
+
+    /**
+     * The setting of the client's pause before the retry of the rejected request, s.
+     */
+    private static final String CONFIG_RETRY_AFTER = "retry-after";
+
+    /**
+     * The mode of a virtual thread per task.
+     */
+    private static final String VIRTUAL = "virtual";
+
+    /**
+     * The state of the request, which waits for its work to start.
+     */
+    private static final int WAITING = 0;
+
+    /**
+     * The state of the request, which work is running.
+     */
+    private static final int RUNNING = 1;
+
+    /**
+     * The state of the request, which is answered.
+     */
+    private static final int DONE = 2;
+
+    /**
+     * The rejected requests.
+     */
+    private static final Metrics.Counters REJECTED = Metrics.getInstanceOf().counters(
+            "cinema_bulkhead_rejected_total", "The requests rejected by the executors."
+    );
+
+    /**
+     * The executor of the reads, configured by the settings.
+     */
+    private static final RequestExecutor READS = RequestExecutor.configure("read", true, "12", "0");
+
+    /**
+     * The executor of the writes, configured by the settings.
+     */
+    private static final RequestExecutor WRITES = RequestExecutor.configure("write", false, "6", "0");
+
+    /**
+     * The executor.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The permits of the tasks in flight, null if the executor bounds them itself.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The limit of the tasks in flight.
+     */
+    private final int concurrency;
+
+    /**
+     * The request's timeout, ms.
+     */
+    private final long timeout;
+
+    /**
+     * The client's pause before the retry of the rejected request, s.
+     */
+    private final String retryAfter;
+
+    /**
+     * True if the work may be retried after it has timed out while running.
+     */
+    private final boolean retriable;
+
+    /**
+     * The requests rejected as not fitting the limit.
+     */
+    private final LongAdder full;
+
+    /**
+     * The requests rejected as not done in time.
+     */
+    private final LongAdder late;
+
+    /**
+     * Creates the executor.
+     *
+     * @param name - the name of the executor's threads.
+     * @param virtual - true for a virtual thread per task, if the JDK has them.
+     * @param threads - the number of the threads; the tasks in flight are limited by it and the queue only
+     * for the virtual threads.
+     * @param queue - the number of the waiting tasks.
+     * @param timeout - the request's timeout, ms.
+     * @param retryAfter - the client's pause before the retry of the rejected request, s.
+     * @param retriable - true if the work may be retried after it has timed out while running, as the reads.
+     */
+    RequestExecutor(String name, boolean virtual, int threads, int queue, long timeout, long retryAfter, boolean retriable) {
+        this.timeout = timeout;
+        this.retryAfter = String.valueOf(retryAfter);
+        this.retriable = retriable;
+        this.full = RequestExecutor.REJECTED.counter(String.format("bulkhead=\"%s\",reason=\"full\"", name));
+        this.late = RequestExecutor.REJECTED.counter(String.format("bulkhead=\"%s\",reason=\"timeout\"", name));
+        ExecutorService service = virtual ? RequestExecutor.virtualThreads() : null;
+        if (service != null) {
+            this.executor = service;
+            this.concurrency = threads + queue;
+            this.permits = new Semaphore(this.concurrency);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.concurrency = threads;
+            this.executor = new ThreadPoolExecutor(
+                    threads, threads, 0, TimeUnit.MILLISECONDS,
+                    queue > 0 ? new ArrayBlockingQueue<Runnable>(queue) : new SynchronousQueue<Runnable>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, String.format("%s-%d", name, counter.incrementAndGet()));
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Creates the executor by the settings.
+     *
+     * @param name - the executor's name, the infix of its settings.
+     * @param retriable - true if the work may be retried after it has timed out while running.
+     * @param threads - the number of the threads by default.
+     * @param queue - the number of the waiting tasks by default.
+     * @return the executor.
+     */
+    private static RequestExecutor configure(String name, boolean retriable, String threads, String queue) {
+        Config config = Config.getInstanceOf();
+        return new RequestExecutor(
+                name,
+                RequestExecutor.VIRTUAL.equals(config.get(RequestExecutor.CONFIG_MODE, "pool")),
+                Integer.parseInt(config.get(String.format(RequestExecutor.CONFIG_THREADS, name), threads)),
+                Integer.parseInt(config.get(String.format(RequestExecutor.CONFIG_QUEUE, name), queue)),
+                Long.parseLong(config.get(RequestExecutor.CONFIG_TIMEOUT, "10000")),
+                Long.parseLong(config.get(RequestExecutor.CONFIG_RETRY_AFTER, "1")),
+                retriable
+        );
+    }
+
+    /**
+     * Gets the executor of the reads: the hall, its places and the screenings.
+     *
+     * @return the executor of the reads.
+     */
+    static RequestExecutor getReads() {
+        return RequestExecutor.READS;
+    }
+
+    /**
+     * Gets the executor of the writes: the bookings and the purchases.
+     *
+     * @return the executor of the writes.
+     */
+    static RequestExecutor getWrites() {
+        return RequestExecutor.WRITES;
+    }
+
+    /**
+     * Gets the number of the rejected requests.
+     *
+     * @return the number of the requests rejected as not fitting the limit or not done in time.
+     */
+    long getRejected() {
+        return this.full.sum() + this.late.sum();
+    }
+
+    /**
+     * Gets the limit of the tasks in flight, the most connections the executor may use at once.
+     *
+     * @return the limit of the tasks in flight.
+     */
+    int getConcurrency() {
+        return this.concurrency;
+    }
+
+    /**
+     * Creates the executor of a virtual thread per task, found by reflection, so the code runs on older JDKs too.
+     *
+     * @return the executor or null if the JDK has no virtual threads.
+     */
+    private static ExecutorService virtualThreads() {
+        ExecutorService result = null;
+        try {
+            result = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            RequestExecutor.LOG.warn("There are no virtual threads in this JDK, the thread pool is used.");
+        }
+        return result;
+    }
+
+    /**
+     * Stops taking the requests and waits for the running ones no longer than the request's timeout.
+     */
+    void shutdown() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(this.timeout, TimeUnit.MILLISECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the specified work of the request out of the container's thread and completes the request after it.
+     * The servlet must support the async mode.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @param task - the work of the request.
+     * @throws IOException if the rejection can not be sent.
+     */
+    void execute(HttpServletRequest req, HttpServletResponse resp, Task task) throws IOException {
+        AsyncContext context = req.startAsync(req, resp);
+        context.setTimeout(this.timeout);
+        AtomicInteger state = new AtomicInteger(RequestExecutor.WAITING);
+        context.addListener(new Timeout(state, this));
+        boolean accepted = this.permits == null || this.permits.tryAcquire();
+        if (accepted) {
+            try {
+                this.executor.execute(() -> this.run(context, state, task));
+            } catch (RejectedExecutionException e) {
+                accepted = false;
+                if (this.permits != null) {
+                    this.permits.release();
+                }
+            }
+        }
+        if (!accepted) {
+            state.set(RequestExecutor.DONE);
+            this.full.increment();
+            this.reject(resp, true);
+            context.complete();
+        }
+    }
+
+    /**
+     * Answers "503 Service Unavailable", with the pause before the retry if the request may be retried.
+     *
+     * @param resp - HTTP response.
+     * @param retry - true if the request may be retried.
+     * @throws IOException if the answer can not be sent.
+     */
+    private void reject(HttpServletResponse resp, boolean retry) throws IOException {
+        if (retry) {
+            resp.setHeader("Retry-After", this.retryAfter);
+        }
+        resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Runs the work of the request, unless the request has timed out before, and sends its answer and completes
+     * the request, unless the request has timed out meanwhile: the answer of the late work is dropped.
+     *
+     * @param context - the async context of the request.
+     * @param state - the request's state, its answer is sent by the first of the work and the timeout.
+     * @param task - the work of the request.
+     */
+    private void run(AsyncContext context, AtomicInteger state, Task task) {
+        try {
+            if (state.compareAndSet(RequestExecutor.WAITING, RequestExecutor.RUNNING)) {
+                BufferedResponse resp = new BufferedResponse((HttpServletResponse) context.getResponse());
+                try {
+                    task.run((HttpServletRequest) context.getRequest(), resp);
+                } catch (IOException | RuntimeException e) {
+                    RequestExecutor.LOG.error("Request failed.", e);
+                    resp.reset();
+                    resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+                if (state.compareAndSet(RequestExecutor.RUNNING, RequestExecutor.DONE)) {
+                    try {
+                        resp.commit();
+                    } catch (IOException e) {
+                        RequestExecutor.LOG.error("The answer can not be sent.", e);
+                    } finally {
+                        context.complete();
+                    }
+                } else {
+                    RequestExecutor.LOG.warn("The request has timed out, its answer is dropped.");
+                }
+            }
+        } finally {
+            if (this.permits != null) {
+                this.permits.release();
+            }
+        }
+    }
+
+    /**
+     * The work of a request.
+     */
+    interface Task {
+        /**
+         * Does the work of the request.
+         *
+         * @param req - HTTP request.
+         * @param resp - HTTP response.
+         * @throws IOException if occurs.
+         */
+        void run(HttpServletRequest req, HttpServletResponse resp) throws IOException;
+    }
+
+    /**
+     * Answers "503 Service Unavailable" to the request, which is not done in time.
+     */
+    private static final class Timeout implements AsyncListener {
+        /**
+         * The request's state, its answer is sent by the first of the work and the timeout.
+         */
+        private final AtomicInteger state;
+
+        /**
+         * The executor of the request.
+         */
+        private final RequestExecutor executor;
+
+        /**
+         * Creates the listener.
+         *
+         * @param state - the request's state, its answer is sent by the first of the work and the timeout.
+         * @param executor - the executor of the request.
+         */
+        Timeout(AtomicInteger state, RequestExecutor executor) {
+            this.state = state;
+            this.executor = executor;
+        }
+
+        /**
+         * Answers "503 Service Unavailable", unless the work is done: with "Retry-After" if the work has not
+         * started, it will not start any more, or if it may be retried, without it otherwise.
+         *
+         * @param event - the event.
+         * @throws IOException if the answer can not be sent.
+         */
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            boolean waiting = this.state.compareAndSet(RequestExecutor.WAITING, RequestExecutor.DONE);
+            if (waiting || this.state.compareAndSet(RequestExecutor.RUNNING, RequestExecutor.DONE)) {
+                this.executor.late.increment();
+                HttpServletResponse resp = (HttpServletResponse) event.getAsyncContext().getResponse();
+                if (!resp.isCommitted()) {
+                    this.executor.reject(resp, waiting || this.executor.retriable);
+                }
+                event.getAsyncContext().complete();
+            }
+        }
+
+        /**
+         * Does nothing.
+         *
+         * @param event - the event.
+         */
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        /**
+         * Does nothing.
+         *
+         * @param event - the event.
+         */
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        /**
+         * Does nothing.
+         *
+         * @param event - the event.
+         */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
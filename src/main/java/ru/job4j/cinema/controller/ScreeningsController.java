@@ -0,0 +1,64 @@
+package ru.job4j.cinema.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Utils;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.validate.Validator;
+import ru.job4j.cinema.validate.impl.ValidatorDB;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Screenings controller. Prepares the list of screenings to choose the hall from. The work is done by the reads'
+ * {@link RequestExecutor}.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class ScreeningsController extends HttpServlet {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(ScreeningsController.class.getName());
+
+    /**
+     * The logic singleton instance.
+     */
+    private final Validator logic = ValidatorDB.getMeasured();
+
+    /**
+     * Prepares the screenings out of the container's thread.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the rejection can not be sent.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        RequestExecutor.getReads().execute(req, resp, this::prepare);
+    }
+
+    /**
+     * Prepares the json-array of all screenings.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     */
+    private void prepare(HttpServletRequest req, HttpServletResponse resp) {
+        try {
+            Utils.writeJson(this.logic.selectScreenings(), resp);
+        } catch (DaoSystemException e) {
+            ScreeningsController.LOG.error("SQL error occurs.", e);
+        } catch (NoSuchModelException e) {
+            ScreeningsController.LOG.error("No such model in database.", e);
+        } catch (IOException e) {
+            ScreeningsController.LOG.error("IO error occurs.", e);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package ru.job4j.cinema.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import ru.job4j.cinema.Constants;
+import ru.job4j.cinema.Utils;
 import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.business.NullArgumentException;
 import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.hold.BookingToken;
+import ru.job4j.cinema.hold.TokenSigner;
 import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
 import ru.job4j.cinema.model.Ticket;
@@ -18,15 +20,17 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
- * Tickets controller. Actualize ticket's price and puts ticket into database.
+ * Tickets controller. Puts ticket of the signed booking into database at the booked price, converting the
+ * booking's hold of the place. The booking is verified by its signature on any node and its hold is trusted till
+ * its expiry, so any node finishes the purchase without a session. The purchase is done by the writes'
+ * {@link RequestExecutor}, the booking is described at once.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.9
  * @since 20/05/2019
  */
 public class TicketController extends HttpServlet {
@@ -38,10 +42,15 @@ public class TicketController extends HttpServlet {
     /**
      * The logic singleton instance.
      */
-    private final Validator logic = ValidatorDB.getInstanceOf();
+    private final Validator logic = ValidatorDB.getMeasured();
 
     /**
-     * Prepares information about selected place for the "payment.html" page.
+     * The bookings' signer.
+     */
+    private final TokenSigner signer = TokenSigner.getInstanceOf();
+
+    /**
+     * Prepares information about selected place, it is read from the booking without the database.
      *
      * @param req - HTTP request.
      * @param resp - HTTP response.
@@ -49,42 +58,78 @@ public class TicketController extends HttpServlet {
      */
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        Place place = null;
-        try {
-            place = this.actualizePrice((Place) req.getSession().getAttribute(Constants.ATTR_PLACE));
-        } catch (NullArgumentException e) {
-            TicketController.LOG.error("Null pointer argument.", e);
-        } catch (WrongArgumentException e) {
-            TicketController.LOG.error("Wrong argument.", e);
-        } catch (DaoSystemException e) {
-            TicketController.LOG.error("SQL error occurs.", e);
-        }
-        this.prepareResponse(place, resp);
+        this.describe(req, resp);
     }
 
     /**
-     * Sends information about payment (person, place) into database to create a ticket.
+     * Creates the ticket out of the container's thread.
      *
      * @param req - HTTP request.
      * @param resp - HTTP response.
+     * @throws IOException if the rejection can not be sent.
      */
     @Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse resp) {
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        RequestExecutor.getWrites().execute(req, resp, this::buy);
+    }
+
+    /**
+     * Prepares information about the booked place for the "payment.html" page, null if nothing is booked or the
+     * booking is expired.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if occurs.
+     */
+    private void describe(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        BookingToken booking = this.booking(req);
+        this.prepareResponse(booking != null ? booking.getPlace() : null, resp);
+    }
+
+    /**
+     * Sends information about payment (person, place) into database to create a ticket. The booking's hold is
+     * adopted by this node first, whichever node has booked the place. Answers "409 Conflict" if the place is busy,
+     * "400 Bad Request" if nothing is booked, the booking is expired or forged or the person is wrong.
+     *
+     * @param req - HTTP request.
+     * @param resp - HTTP response.
+     * @throws IOException if the error can not be sent.
+     */
+    private void buy(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        BookingToken booking = this.booking(req);
         try {
-            Place place = this.actualizePrice((Place) req.getSession().getAttribute(Constants.ATTR_PLACE));
+            if (booking == null) {
+                throw new NullArgumentException("Nothing is booked or the booking is expired.");
+            }
             Person person = new Person(req.getParameter(Constants.ATTR_NAME), req.getParameter(Constants.ATTR_PHONE));
-            this.logic.createTicket(new Ticket(place, person));
+            this.logic.adoptBooking(booking.getPlace(), booking.getHolder(), booking.getExpires());
+            this.logic.createTicket(new Ticket(booking.getPlace(), person), booking.getHolder());
+            Utils.writeCookie(resp, Constants.COOKIE_BOOKING, "", 0);
         } catch (NullArgumentException e) {
             TicketController.LOG.error("Null pointer argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
         } catch (WrongArgumentException e) {
             TicketController.LOG.error("Wrong argument.", e);
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
         } catch (DaoSystemException e) {
             TicketController.LOG.error("SQL error occurs.", e);
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (AlreadyOccupiedPlaceException e) {
             TicketController.LOG.error("The place is already occupied", e);
+            resp.setStatus(HttpServletResponse.SC_CONFLICT);
         }
     }
 
+    /**
+     * Verifies the client's booking.
+     *
+     * @param req - HTTP request.
+     * @return the booking or null if it is absent, expired or forged.
+     */
+    private BookingToken booking(HttpServletRequest req) {
+        return this.signer.verify(Utils.readCookie(req, Constants.COOKIE_BOOKING), System.currentTimeMillis() / 1000);
+    }
+
     /**
      * Prepares response.
      *
@@ -93,26 +138,8 @@ public class TicketController extends HttpServlet {
      * @throws IOException if occurs.
      */
     private void prepareResponse(Place place, HttpServletResponse resp) throws IOException {
-        resp.setContentType("text/json");
-        ObjectMapper mapper = new ObjectMapper();
-        PrintWriter writer = new PrintWriter(resp.getOutputStream());
         List<Place> jsonPlaces = new LinkedList<Place>();
         jsonPlaces.add(place);
-        writer.append(mapper.writeValueAsString(jsonPlaces));
-        writer.flush();
-    }
-
-    /**
-     * Actualize price of the specified place.
-     *
-     * @param place - the specified place.
-     * @return actual place's price.
-     * @throws DaoSystemException if SQLException occurs.
-     * @throws WrongArgumentException if argument is wrong (e.g. place located outside of the hall).
-     * @throws NullArgumentException if argument pointer is null.
-     */
-    private Place actualizePrice(Place place) throws DaoSystemException, WrongArgumentException, NullArgumentException {
-        place.setPrice(this.logic.getActualPrice(place));
-        return place;
+        Utils.writeJson(jsonPlaces, resp);
     }
-}
\ No newline at end of file
+}
@@ -4,40 +4,53 @@ import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
 import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
 
 import java.util.List;
 
 /**
- * Data access object, working with the place-model.
+ * Data access object, working with the place-model. Every screening has its own places, a place carries
+ * its screening.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.2
  * @since 29/04/2019
  */
 public interface PlaceDao {
     /**
-     * Finds all free places of the hall.
+     * Finds all free places of the specified screening.
      *
-     * @return all free places of the hall.
+     * @param screening - the specified screening.
+     * @return all free places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
-    List<Place> findFreePlaces() throws DaoSystemException;
+    List<Place> findFreePlaces(int screening) throws DaoSystemException;
 
     /**
-     * Finds all busy places of the hall.
+     * Finds all busy places of the specified screening.
      *
-     * @return all busy places of the hall.
+     * @param screening - the specified screening.
+     * @return all busy places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
-    List<Place> findBusyPlaces() throws DaoSystemException;
+    List<Place> findBusyPlaces(int screening) throws DaoSystemException;
 
     /**
-     * Finds all places of the hall.
+     * Finds all places of the specified screening.
      *
-     * @return all places of the hall.
+     * @param screening - the specified screening.
+     * @return all places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
-    List<Place> findAllPlaces() throws DaoSystemException;
+    List<Place> findAllPlaces(int screening) throws DaoSystemException;
+
+    /**
+     * Finds all screenings.
+     *
+     * @return all screenings, ordered by id.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    List<Screening> findScreenings() throws DaoSystemException;
 
     /**
      * Checks if the specified place is free.
@@ -101,6 +114,16 @@ public interface PlaceDao {
      */
     void createTicket(Place place, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException;
 
+    /**
+     * Creates tickets for all the specified places and the person, all at once or none of them.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy, it lists them.
+     */
+    void createTickets(List<Place> places, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException;
+
     /**
      * Checks existence of account for the specified person.
      *
@@ -1,13 +1,23 @@
 package ru.job4j.cinema.dao.exception.business;
 
+import ru.job4j.cinema.model.Place;
+
+import java.util.Collections;
+import java.util.List;
+
 /**
- * The place is already occupied.
+ * The place is already occupied. For a group of places, there are all the occupied ones.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.1
  * @since 06/06/2019
  */
 public class AlreadyOccupiedPlaceException extends DaoBusinessException {
+    /**
+     * The occupied places, empty if they are unknown.
+     */
+    private final List<Place> places;
+
     /**
      * Creates checked exception, based on message.
      *
@@ -15,6 +25,18 @@ public class AlreadyOccupiedPlaceException extends DaoBusinessException {
      */
     public AlreadyOccupiedPlaceException(String message) {
         super(message);
+        this.places = Collections.emptyList();
+    }
+
+    /**
+     * Creates checked exception, based on message and the occupied places.
+     *
+     * @param message - the specified message.
+     * @param places - the occupied places.
+     */
+    public AlreadyOccupiedPlaceException(String message, List<Place> places) {
+        super(message);
+        this.places = places;
     }
 
     /**
@@ -25,5 +47,15 @@ public class AlreadyOccupiedPlaceException extends DaoBusinessException {
      */
     public AlreadyOccupiedPlaceException(String message, Throwable cause) {
         super(message, cause);
+        this.places = Collections.emptyList();
+    }
+
+    /**
+     * Gets the occupied places.
+     *
+     * @return the occupied places, empty if they are unknown.
+     */
+    public List<Place> getPlaces() {
+        return this.places;
     }
 }
@@ -0,0 +1,96 @@
+package ru.job4j.cinema.dao.impl;
+
+import ru.job4j.cinema.model.Person;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded cache of the accounts' ids by the persons' names, the least recently used account is evicted first.
+ * An account is found only with the phone it has been saved with, so the changed phone is saved again.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+class AccountCache {
+    /**
+     * The cached accounts by the names in the access order.
+     */
+    private final Map<String, Account> accounts;
+
+    /**
+     * Creates the cache.
+     *
+     * @param capacity - the maximal number of the cached accounts.
+     */
+    AccountCache(int capacity) {
+        this.accounts = new LinkedHashMap<String, Account>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Account> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the id of the specified person's account.
+     *
+     * @param person - the specified person.
+     * @return the account's id or null if the account is not cached or its phone is different.
+     */
+    synchronized Integer get(Person person) {
+        Integer result = null;
+        Account account = this.accounts.get(person.getName());
+        if (account != null && Objects.equals(account.phone, person.getPhone())) {
+            result = account.id;
+        }
+        return result;
+    }
+
+    /**
+     * Caches the id of the specified person's account with the person's phone.
+     *
+     * @param person - the specified person.
+     * @param id - the account's id.
+     */
+    synchronized void put(Person person, int id) {
+        this.accounts.put(person.getName(), new Account(id, person.getPhone()));
+    }
+
+    /**
+     * Forgets the specified person's account.
+     *
+     * @param person - the specified person.
+     */
+    synchronized void remove(Person person) {
+        this.accounts.remove(person.getName());
+    }
+
+    /**
+     * A cached account.
+     */
+    private static final class Account {
+        /**
+         * The account's id.
+         */
+        private final int id;
+
+        /**
+         * The account's phone.
+         */
+        private final String phone;
+
+        /**
+         * Creates the cached account.
+         *
+         * @param id - the account's id.
+         * @param phone - the account's phone.
+         */
+        Account(int id, String phone) {
+            this.id = id;
+            this.phone = phone;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.metrics.Histogram;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The database connections' pool. All its settings are read from the config, so they can be set by the
+ * "db.properties", the environment or the system properties. The pool measures how long every connection is
+ * waited for and counts the waits, which have timed out, so the pool can be sized by the numbers.
+ * Settings: "pool-initial-size", "pool-min-idle", "pool-max-idle", "pool-max-total", "pool-max-wait" (ms),
+ * "pool-validation-query", "pool-validation-timeout" (s), "pool-test-on-borrow", "pool-test-while-idle",
+ * "pool-eviction-interval" (ms), "pool-max-lifetime" (ms). The statements of the pool's connections are measured,
+ * the statements longer than "slow-query" (ms) are logged to the slow queries' log.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class ConnectionPool {
+    private final static String CONFIG_URL = "url";
+
+    private final static String CONFIG_USER = "username";
+
+    private final static String CONFIG_PASSWORD = "password";
+
+    private final static String CONFIG_DRIVER = "driver-class-name";
+
+    private final static int CONFIG_MAX_PREPARED_STATEMENTS = 100;
+
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * The pool.
+     */
+    private final BasicDataSource source = new BasicDataSource();
+
+    /**
+     * The times the connections have been waited for, ns.
+     */
+    private final Histogram waits = new Histogram();
+
+    /**
+     * The number of the waits, which have timed out.
+     */
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Measures the statements of the connections.
+     */
+    private final StatementTimer statements;
+
+    /**
+     * Creates the pool by the specified config. No connection is opened until the pool is started or used.
+     *
+     * @param config - the config.
+     */
+    public ConnectionPool(Config config) {
+        this.source.setDriverClassName(config.get(ConnectionPool.CONFIG_DRIVER, null));
+        this.source.setUrl(config.get(ConnectionPool.CONFIG_URL, null));
+        this.source.setUsername(config.get(ConnectionPool.CONFIG_USER, null));
+        this.source.setPassword(config.get(ConnectionPool.CONFIG_PASSWORD, null));
+        this.source.setInitialSize(Integer.parseInt(config.get("pool-initial-size", "5")));
+        this.source.setMinIdle(Integer.parseInt(config.get("pool-min-idle", "5")));
+        this.source.setMaxIdle(Integer.parseInt(config.get("pool-max-idle", "10")));
+        this.source.setMaxTotal(Integer.parseInt(config.get("pool-max-total", "20")));
+        this.source.setMaxWaitMillis(Long.parseLong(config.get("pool-max-wait", "5000")));
+        this.source.setValidationQuery(config.get("pool-validation-query", null));
+        this.source.setValidationQueryTimeout(Integer.parseInt(config.get("pool-validation-timeout", "5")));
+        this.source.setTestOnBorrow(Boolean.parseBoolean(config.get("pool-test-on-borrow", "true")));
+        this.source.setTestWhileIdle(Boolean.parseBoolean(config.get("pool-test-while-idle", "false")));
+        this.source.setTimeBetweenEvictionRunsMillis(Long.parseLong(config.get("pool-eviction-interval", "-1")));
+        this.source.setMaxConnLifetimeMillis(Long.parseLong(config.get("pool-max-lifetime", "-1")));
+        this.source.setMaxOpenPreparedStatements(ConnectionPool.CONFIG_MAX_PREPARED_STATEMENTS);
+        this.statements = new StatementTimer(Long.parseLong(config.get("slow-query", "200")));
+    }
+
+    /**
+     * Opens the initial connections of the pool and checks one of them, so the wrong settings are found at the
+     * start and the first requests do not wait for the connections. A failure is logged only, the pool tries again
+     * on the first use.
+     */
+    public void start() {
+        try (Connection connection = this.source.getConnection()) {
+            if (connection.isValid(this.source.getValidationQueryTimeout())) {
+                ConnectionPool.LOG.info(
+                        "The pool is started: {} active, {} idle, {} at most.",
+                        this.getActive(), this.getIdle(), this.getMaxTotal()
+                );
+            } else {
+                ConnectionPool.LOG.error("The pool is started, but its connection is not valid.");
+            }
+        } catch (SQLException e) {
+            ConnectionPool.LOG.error("The pool could not be started, will retry on first use.", e);
+        }
+    }
+
+    /**
+     * Closes the idle connections of the pool, the active connections are closed as soon as they are returned.
+     */
+    public void close() {
+        try {
+            this.source.close();
+        } catch (SQLException e) {
+            ConnectionPool.LOG.error("The pool could not be closed.", e);
+        }
+    }
+
+    /**
+     * Gets a connection from the pool, waiting for it no longer than "pool-max-wait".
+     *
+     * @return the connection, its prepared statements are measured.
+     * @throws SQLException if the connection can not be opened or the wait has timed out.
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return this.statements.wrap(this.source.getConnection());
+        } catch (SQLException e) {
+            if (e.getCause() instanceof NoSuchElementException) {
+                this.timeouts.increment();
+            }
+            throw e;
+        } finally {
+            this.waits.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the number of the connections in use.
+     *
+     * @return the number of the connections in use.
+     */
+    public int getActive() {
+        return this.source.getNumActive();
+    }
+
+    /**
+     * Gets the number of the idle connections.
+     *
+     * @return the number of the idle connections.
+     */
+    public int getIdle() {
+        return this.source.getNumIdle();
+    }
+
+    /**
+     * Gets the maximal number of the connections.
+     *
+     * @return the maximal number of the connections.
+     */
+    public int getMaxTotal() {
+        return this.source.getMaxTotal();
+    }
+
+    /**
+     * Gets the times the connections have been waited for.
+     *
+     * @return the histogram of the waits, ns.
+     */
+    public Histogram getWaits() {
+        return this.waits;
+    }
+
+    /**
+     * Gets the number of the waits, which have timed out.
+     *
+     * @return the number of the timeouts.
+     */
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+}
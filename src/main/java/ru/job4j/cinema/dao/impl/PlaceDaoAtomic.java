@@ -0,0 +1,509 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.HallGeometry;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implementation of data access object, keeping the hall's seat state in memory. Every seat is one bit of an
+ * atomic long array: reads never leave the memory, taking or freeing a seat is a compare-and-set on its bit,
+ * and every successful change is written through to the delegate storage. If the write-through fails the bit
+ * is restored, so the memory never claims a state the storage has not accepted. Every screening has its own
+ * seat state, so screenings share nothing but the map they are found in.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class PlaceDaoAtomic implements PlaceDao {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(PlaceDaoAtomic.class.getName());
+
+    /**
+     * The in-memory engine singleton, backed by the database.
+     */
+    private static final PlaceDaoAtomic INSTANCE = new PlaceDaoAtomic(PlaceDaoDb.getInstanceOf());
+
+    /**
+     * The persistent storage, every change is written through to it.
+     */
+    private final PlaceDao delegate;
+
+    /**
+     * The current seat state of every loaded screening.
+     */
+    private final Map<Integer, Seats> screenings = new ConcurrentHashMap<Integer, Seats>();
+
+    /**
+     * Creates the engine and loads all screenings from the specified storage.
+     *
+     * @param delegate - the persistent storage.
+     */
+    PlaceDaoAtomic(PlaceDao delegate) {
+        this.delegate = delegate;
+        try {
+            this.reload();
+        } catch (DaoSystemException e) {
+            PlaceDaoAtomic.LOG.error("Could not load the screenings, will retry on first access.", e);
+        }
+    }
+
+    /**
+     * Gets the singleton instance of the in-memory engine.
+     *
+     * @return the singleton instance of the in-memory engine.
+     */
+    public static PlaceDaoAtomic getInstanceOf() {
+        return PlaceDaoAtomic.INSTANCE;
+    }
+
+    /**
+     * Reloads all screenings from the persistent storage. Changes made in the storage by somebody else become
+     * visible only after reload.
+     *
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    public void reload() throws DaoSystemException {
+        for (Screening screening : this.delegate.findScreenings()) {
+            this.load(screening.getId());
+        }
+    }
+
+    /**
+     * Loads the specified screening from the persistent storage. A screening without places is not kept.
+     *
+     * @param screening - the specified screening.
+     * @return the loaded seat state.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    private Seats load(int screening) throws DaoSystemException {
+        Seats result = new Seats(screening, this.delegate.findAllPlaces(screening));
+        if (result.size() > 0) {
+            this.screenings.put(screening, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current seat state of the specified screening, loading it if it has not been loaded yet. Only
+     * the first loads of screenings are serialized.
+     *
+     * @param screening - the specified screening.
+     * @return the current seat state, empty for an unknown screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    private Seats seats(int screening) throws DaoSystemException {
+        Seats result = this.screenings.get(screening);
+        if (result == null) {
+            synchronized (this) {
+                result = this.screenings.get(screening);
+                if (result == null) {
+                    result = this.load(screening);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all free places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all free places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findFreePlaces(int screening) throws DaoSystemException {
+        return this.seats(screening).find(true, false);
+    }
+
+    /**
+     * Finds all busy places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all busy places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findBusyPlaces(int screening) throws DaoSystemException {
+        return this.seats(screening).find(false, true);
+    }
+
+    /**
+     * Finds all places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findAllPlaces(int screening) throws DaoSystemException {
+        return this.seats(screening).find(true, true);
+    }
+
+    /**
+     * Finds all screenings in the persistent storage.
+     *
+     * @return all screenings, ordered by id.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Screening> findScreenings() throws DaoSystemException {
+        return this.delegate.findScreenings();
+    }
+
+    /**
+     * Checks if the specified place is free.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is free.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean isFree(Place place) throws DaoSystemException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        return index >= 0 && !seats.isBusy(index);
+    }
+
+    /**
+     * Checks if the specified place is busy.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is busy.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean isBusy(Place place) throws DaoSystemException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        return index >= 0 && seats.isBusy(index);
+    }
+
+    /**
+     * Takes the specified place (sets "isEmpty" as false). The storage is updated only if the place's state
+     * has really changed.
+     *
+     * @param place - the specified place.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public void busyPlace(Place place) throws DaoSystemException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        if (index >= 0 && seats.compareAndSet(index, false)) {
+            try {
+                this.delegate.busyPlace(place);
+            } catch (DaoSystemException e) {
+                seats.compareAndSet(index, true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Frees the specified place (sets "isEmpty" as true). The storage is updated only if the place's state
+     * has really changed.
+     *
+     * @param place - the specified place.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public void freePlace(Place place) throws DaoSystemException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        if (index >= 0 && seats.compareAndSet(index, true)) {
+            try {
+                this.delegate.freePlace(place);
+            } catch (DaoSystemException e) {
+                seats.compareAndSet(index, false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Checks if the specified place lies in the hall.
+     *
+     * @param place the specified place.
+     * @return true if the specified place's row lies in the hall's rows range and number is in the hall's numbers range.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean inHall(Place place) throws DaoSystemException {
+        return this.seats(place.getScreening()).indexOf(place) >= 0;
+    }
+
+    /**
+     * Gets the actual place's price from memory.
+     *
+     * @param place - the specified place (row and number);
+     * @return actual place's price.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public int getActualPrice(Place place) throws DaoSystemException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        return index >= 0 ? seats.price(index) : 0;
+    }
+
+    /**
+     * Creates a ticket with the specified parameters: person and place. The place is claimed in memory first,
+     * so only one of the concurrent buyers reaches the storage. If the storage fails, the claim is rolled back.
+     *
+     * @param place - the specified place.
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy.
+     */
+    @Override
+    public void createTicket(Place place, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        Seats seats = this.seats(place.getScreening());
+        int index = seats.indexOf(place);
+        if (index < 0 || !seats.compareAndSet(index, false)) {
+            throw new AlreadyOccupiedPlaceException("The place is already occupied");
+        }
+        try {
+            this.delegate.createTicket(place, person);
+        } catch (DaoSystemException e) {
+            seats.compareAndSet(index, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates tickets for all the specified places and the person, all at once or none of them. The places are
+     * claimed in memory first, every busy one is reported, and the claims are rolled back unless the storage
+     * accepts them all. If the storage finds some places busy, only they stay busy in memory.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy, it lists them.
+     */
+    @Override
+    public void createTickets(List<Place> places, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        List<Place> conflicts = new LinkedList<Place>();
+        List<Seats> claimedSeats = new ArrayList<Seats>(places.size());
+        List<Place> claimed = new ArrayList<Place>(places.size());
+        for (Place place : places) {
+            Seats seats = this.seats(place.getScreening());
+            int index = seats.indexOf(place);
+            if (index >= 0 && seats.compareAndSet(index, false)) {
+                claimedSeats.add(seats);
+                claimed.add(place);
+            } else if (index < 0 || !claimed.contains(place)) {
+                conflicts.add(place);
+            }
+        }
+        try {
+            if (!conflicts.isEmpty()) {
+                throw new AlreadyOccupiedPlaceException("The places are already occupied", conflicts);
+            }
+            this.delegate.createTickets(claimed, person);
+        } catch (AlreadyOccupiedPlaceException e) {
+            PlaceDaoAtomic.release(claimedSeats, claimed, e.getPlaces());
+            throw e;
+        } catch (DaoSystemException e) {
+            PlaceDaoAtomic.release(claimedSeats, claimed, Collections.<Place>emptyList());
+            throw e;
+        }
+    }
+
+    /**
+     * Rolls back the claims of the specified places, except the places found busy.
+     *
+     * @param seats - the seat state of every claimed place.
+     * @param claimed - the claimed places.
+     * @param busy - the places to keep busy.
+     */
+    private static void release(List<Seats> seats, List<Place> claimed, List<Place> busy) {
+        for (int i = 0; i < claimed.size(); i++) {
+            Place place = claimed.get(i);
+            if (!busy.contains(new Place(place.getScreening(), place.getRow(), place.getNumber(), Place.BUSY, 0))) {
+                seats.get(i).compareAndSet(seats.get(i).indexOf(place), true);
+            }
+        }
+    }
+
+    /**
+     * Checks existence of account for the specified person.
+     *
+     * @param person - the specified person.
+     * @return true if account already exists.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public boolean checkAccount(Person person) throws DaoSystemException {
+        return this.delegate.checkAccount(person);
+    }
+
+    /**
+     * Adds new account for the specified person into database.
+     *
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public void addAccount(Person person) throws DaoSystemException {
+        this.delegate.addAccount(person);
+    }
+
+    /**
+     * Updates the existent account for the specified person in database.
+     *
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public void updateAccount(Person person) throws DaoSystemException {
+        this.delegate.updateAccount(person);
+    }
+
+    /**
+     * The packed seat state of the screening: the hall's geometry and one busy bit per seat index. The geometry
+     * never changes, only the busy bits do.
+     */
+    private static final class Seats {
+        /**
+         * The number of seat bits in one long word.
+         */
+        private static final int WORD_BITS = 64;
+
+        /**
+         * The screening.
+         */
+        private final int screening;
+
+        /**
+         * The hall's geometry.
+         */
+        private final HallGeometry geometry;
+
+        /**
+         * Bits of the busy seats.
+         */
+        private final AtomicLongArray busy;
+
+        /**
+         * Builds the packed state from the specified places.
+         *
+         * @param screening - the screening.
+         * @param places - all places of the screening.
+         */
+        Seats(int screening, List<Place> places) {
+            this.screening = screening;
+            this.geometry = new HallGeometry(places);
+            this.busy = new AtomicLongArray((this.geometry.size() + Seats.WORD_BITS - 1) / Seats.WORD_BITS);
+            for (Place place : places) {
+                int index = this.geometry.indexOf(place);
+                if (index >= 0 && !place.isEmpty()) {
+                    this.compareAndSet(index, false);
+                }
+            }
+        }
+
+        /**
+         * Gets the number of seat positions.
+         *
+         * @return the number of seat positions, 0 if the screening has no places.
+         */
+        int size() {
+            return this.geometry.size();
+        }
+
+        /**
+         * Gets the index of the specified place.
+         *
+         * @param place - the specified place.
+         * @return the seat index or -1 if there is no such seat in the hall.
+         */
+        int indexOf(Place place) {
+            return this.geometry.indexOf(place);
+        }
+
+        /**
+         * Checks the busy bit of the specified seat.
+         *
+         * @param index - the seat index.
+         * @return true if the seat is busy.
+         */
+        boolean isBusy(int index) {
+            return (this.busy.get(index / Seats.WORD_BITS) & 1L << index) != 0;
+        }
+
+        /**
+         * Atomically flips the busy bit of the specified seat, if it has the expected value.
+         *
+         * @param index - the seat index.
+         * @param expectBusy - the expected state of the seat.
+         * @return true if the bit has been flipped, false if the seat was not in the expected state.
+         */
+        boolean compareAndSet(int index, boolean expectBusy) {
+            int word = index / Seats.WORD_BITS;
+            long mask = 1L << index;
+            boolean result = false;
+            long prev = this.busy.get(word);
+            while (((prev & mask) != 0) == expectBusy) {
+                if (this.busy.compareAndSet(word, prev, prev ^ mask)) {
+                    result = true;
+                    break;
+                }
+                prev = this.busy.get(word);
+            }
+            return result;
+        }
+
+        /**
+         * Gets the price of the specified seat.
+         *
+         * @param index - the seat index.
+         * @return the seat's price.
+         */
+        int price(int index) {
+            return this.geometry.getPrice(index);
+        }
+
+        /**
+         * Collects places of the hall in the row and number order.
+         *
+         * @param free - collect free places.
+         * @param busy - collect busy places.
+         * @return the suitable places.
+         */
+        List<Place> find(boolean free, boolean busy) {
+            List<Place> result = new ArrayList<Place>(this.geometry.size());
+            for (int row = 1; row <= this.geometry.getRows(); row++) {
+                int first = this.geometry.firstIndex(row);
+                for (int index = first; index < first + this.geometry.getSeats(row); index++) {
+                    if (this.geometry.isPresent(index)) {
+                        boolean isBusy = this.isBusy(index);
+                        if (isBusy ? busy : free) {
+                            result.add(new Place(
+                                    this.screening, row, index - first + 1, !isBusy, this.geometry.getPrice(index)
+                            ));
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
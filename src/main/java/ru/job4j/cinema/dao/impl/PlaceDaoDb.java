@@ -1,53 +1,160 @@
 package ru.job4j.cinema.dao.impl;
 
-import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
 import ru.job4j.cinema.dao.PlaceDao;
 import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Order;
 import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Properties;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Implementation of data access object, working with the place-model for data base.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.3
+ * @version 1.11
  * @since 29/04/2019
  */
 public class PlaceDaoDb implements PlaceDao {
-    private final static String CONFIG_URL = "url";
+    private final static String COLUMN_SCREENING = "screening_id";
 
-    private final static String CONFIG_USER = "username";
+    private final static String COLUMN_ROW = "row";
 
-    private final static String CONFIG_PASSWORD = "password";
+    private final static String COLUMN_NUMBER = "number";
 
-    private final static String CONFIG_DRIVER = "driver-class-name";
+    private final static String COLUMN_ISEMPTY = "isEmpty";
 
-    private final static int CONFIG_MIN_IDLE_CONNECTIONS = 5;
+    private final static String COLUMN_PRICE = "price";
 
-    private final static int CONFIG_MAX_IDLE_CONNECTIONS = 10;
+    private final static String COLUMN_ID = "id";
 
-    private final static int CONFIG_MAX_PREPARED_STATEMENTS = 100;
+    private final static String COLUMN_NAME = "name";
 
-    private final static String COLUMN_ROW = "row";
+    private final static String COLUMN_PHONE = "phone";
 
-    private final static String COLUMN_NUMBER = "number";
+    /**
+     * The setting of the maximal number of the cached accounts.
+     */
+    private static final String CONFIG_ACCOUNT_CACHE = "account-cache";
 
-    private final static String COLUMN_ISEMPTY = "isEmpty";
+    /**
+     * Finds the free or busy places of a screening.
+     */
+    static final String SQL_FIND_PLACES = "select * from hall where screening_id = ? and isempty = ? order by row, number;";
 
-    private final static String COLUMN_PRICE = "price";
+    /**
+     * Finds all places of a screening.
+     */
+    static final String SQL_FIND_ALL_PLACES = "select * from hall where screening_id = ? order by row, number;";
+
+    /**
+     * Finds all screenings.
+     */
+    static final String SQL_FIND_SCREENINGS = "select id, name from screenings order by id;";
+
+    /**
+     * Finds a place.
+     */
+    static final String SQL_FIND_PLACE = "select * from hall where screening_id = ? and row = ? and number = ?;";
+
+    /**
+     * Takes a place.
+     */
+    static final String SQL_BUSY_PLACE = "update hall set isempty = 'false' where screening_id = ? and row = ? and number = ?;";
+
+    /**
+     * Frees a place.
+     */
+    static final String SQL_FREE_PLACE = "update hall set isempty = 'true' where screening_id = ? and row = ? and number = ?;";
+
+    /**
+     * Finds the price of a place.
+     */
+    static final String SQL_FIND_PRICE = "select price from hall where screening_id = ? and row = ? and number = ?;";
+
+    /**
+     * Claims a free place and creates its ticket for an account.
+     */
+    static final String SQL_SELL_PLACE = "with place as ("
+            + "update hall set isempty = 'false' "
+            + "where screening_id = ? and row = ? and number = ? and isempty returning id, screening_id) "
+            + "insert into tickets (place_id, account_id, screening_id) "
+            + "select place.id, ?, place.screening_id from place;";
+
+    /**
+     * Claims a free place, adds or updates the account of a name and a phone, if the place has been claimed, and
+     * creates the place's ticket for the account. Answers the account's id of the sold ticket.
+     */
+    static final String SQL_SELL_PLACE_TO_PERSON = "with place as ("
+            + "update hall set isempty = 'false' "
+            + "where screening_id = ? and row = ? and number = ? and isempty returning id, screening_id), "
+            + "account as (insert into accounts (name, phone) select ?, ? from place "
+            + "on conflict (name) do update set phone = excluded.phone returning id) "
+            + "insert into tickets (place_id, account_id, screening_id) "
+            + "select place.id, account.id, place.screening_id from place, account returning account_id;";
+
+    /**
+     * Adds or updates the accounts of the arrays of names and phones.
+     */
+    static final String SQL_SAVE_ACCOUNTS = "insert into accounts (name, phone) select * from unnest(?, ?) as account (name, phone) "
+            + "on conflict (name) do update set phone = excluded.phone returning id, name, phone;";
+
+    /**
+     * Locks the places of the arrays of screenings, rows and numbers in their lock order.
+     */
+    static final String SQL_LOCK_PLACES = "select hall.id, hall.screening_id, hall.row, hall.number, hall.isempty from hall "
+            + "join unnest(?, ?, ?) as seat (screening_id, row, number) "
+            + "on hall.screening_id = seat.screening_id and hall.row = seat.row and hall.number = seat.number "
+            + "order by hall.screening_id, hall.row, hall.number for update of hall;";
+
+    /**
+     * Takes the locked places of the array of ids and creates their tickets for an account.
+     */
+    static final String SQL_TAKE_PLACES = "with place as ("
+            + "update hall set isempty = 'false' where id = any(?) returning id, screening_id) "
+            + "insert into tickets (place_id, account_id, screening_id) "
+            + "select place.id, ?, place.screening_id from place;";
+
+    /**
+     * Finds an account by name.
+     */
+    static final String SQL_FIND_ACCOUNT = "select * from accounts where name = ?;";
+
+    /**
+     * Adds an account, if there is no account with its name.
+     */
+    static final String SQL_ADD_ACCOUNT = "insert into accounts(name, phone) values(?, ?) on conflict (name) do nothing;";
+
+    /**
+     * Updates the phone of an account.
+     */
+    static final String SQL_UPDATE_ACCOUNT = "update accounts set phone = ? where name = ?;";
+
+    /**
+     * The order the places of a group are locked in, the same for all buyers, so they never wait for each other
+     * in a circle.
+     */
+    private static final Comparator<Place> LOCK_ORDER = Comparator.comparingInt(Place::getScreening)
+            .thenComparingInt(Place::getRow).thenComparingInt(Place::getNumber);
 
     /**
      * The logger.
@@ -57,24 +164,18 @@ public class PlaceDaoDb implements PlaceDao {
     /**
      * The connections' pool.
      */
-    private static final BasicDataSource SOURCE = new BasicDataSource();
+    private static final ConnectionPool SOURCE = new ConnectionPool(Config.getInstanceOf());
 
     private static final PlaceDaoDb INSTANCE = new PlaceDaoDb();
 
+    /**
+     * The accounts' ids by the persons' names, so the repeat customers cost no account queries.
+     */
+    private final AccountCache accounts;
+
     private PlaceDaoDb() {
-        Properties config = new Properties();
-        try (InputStream in = PlaceDaoDb.class.getClassLoader().getResourceAsStream("db.properties")) {
-            config.load(in);
-        } catch (IOException e) {
-            PlaceDaoDb.LOG.error(e.getMessage(), e);
-        }
-        PlaceDaoDb.SOURCE.setDriverClassName(config.getProperty(PlaceDaoDb.CONFIG_DRIVER));
-        PlaceDaoDb.SOURCE.setUrl(config.getProperty(PlaceDaoDb.CONFIG_URL));
-        PlaceDaoDb.SOURCE.setUsername(config.getProperty(PlaceDaoDb.CONFIG_USER));
-        PlaceDaoDb.SOURCE.setPassword(config.getProperty(PlaceDaoDb.CONFIG_PASSWORD));
-        PlaceDaoDb.SOURCE.setMinIdle(PlaceDaoDb.CONFIG_MIN_IDLE_CONNECTIONS);
-        PlaceDaoDb.SOURCE.setMaxIdle(PlaceDaoDb.CONFIG_MAX_IDLE_CONNECTIONS);
-        PlaceDaoDb.SOURCE.setMaxOpenPreparedStatements(PlaceDaoDb.CONFIG_MAX_PREPARED_STATEMENTS);
+        Config config = Config.getInstanceOf();
+        this.accounts = new AccountCache(Integer.parseInt(config.get(PlaceDaoDb.CONFIG_ACCOUNT_CACHE, "10000")));
     }
 
     public static PlaceDaoDb getInstanceOf() {
@@ -82,44 +183,56 @@ public class PlaceDaoDb implements PlaceDao {
     }
 
     /**
-     * Finds all free places of the hall.
+     * Gets the connections' pool.
+     *
+     * @return the connections' pool.
+     */
+    public ConnectionPool getPool() {
+        return PlaceDaoDb.SOURCE;
+    }
+
+    /**
+     * Finds all free places of the specified screening.
      *
-     * @return all free places of the hall.
+     * @param screening - the specified screening.
+     * @return all free places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
     @Override
-    public List<Place> findFreePlaces() throws DaoSystemException {
-        return this.findPlaces(true);
+    public List<Place> findFreePlaces(int screening) throws DaoSystemException {
+        return this.findPlaces(screening, true);
     }
 
     /**
-     * Finds all busy places of the hall.
+     * Finds all busy places of the specified screening.
      *
-     * @return all busy places of the hall.
+     * @param screening - the specified screening.
+     * @return all busy places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
     @Override
-    public List<Place> findBusyPlaces() throws DaoSystemException {
-        return this.findPlaces(false);
+    public List<Place> findBusyPlaces(int screening) throws DaoSystemException {
+        return this.findPlaces(screening, false);
     }
 
     /**
-     * Finds all places of the hall by the specified 'isEmpty' parameter.
+     * Finds all places of the specified screening by the specified 'isEmpty' parameter.
      *
+     * @param screening - the specified screening.
      * @param isEmpty - param of select, selects empty or busy places.
-     * @return all suitable places of the hall.
+     * @return all suitable places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
-    private List<Place> findPlaces(boolean isEmpty) throws DaoSystemException {
+    private List<Place> findPlaces(int screening, boolean isEmpty) throws DaoSystemException {
         List<Place> result = new LinkedList<Place>();
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from hall where isempty = ? order by row, number;"
-             )) {
-            statement.setBoolean(1, isEmpty);
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_PLACES)) {
+            statement.setInt(1, screening);
+            statement.setBoolean(2, isEmpty);
             try (ResultSet rslSet = statement.executeQuery()) {
                 while (rslSet.next()) {
                     result.add(new Place(
+                            rslSet.getInt(PlaceDaoDb.COLUMN_SCREENING),
                             rslSet.getInt(PlaceDaoDb.COLUMN_ROW),
                             rslSet.getInt(PlaceDaoDb.COLUMN_NUMBER),
                             rslSet.getBoolean(PlaceDaoDb.COLUMN_ISEMPTY),
@@ -134,21 +247,22 @@ public class PlaceDaoDb implements PlaceDao {
     }
 
     /**
-     * Finds all places of the hall.
+     * Finds all places of the specified screening.
      *
-     * @return all places of the hall.
+     * @param screening - the specified screening.
+     * @return all places of the screening.
      * @throws DaoSystemException if SQLException occurs.
      */
     @Override
-    public List<Place> findAllPlaces() throws DaoSystemException {
+    public List<Place> findAllPlaces(int screening) throws DaoSystemException {
         List<Place> result = new LinkedList<Place>();
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from hall order by row, number;"
-             )) {
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_ALL_PLACES)) {
+            statement.setInt(1, screening);
             try (ResultSet rslSet = statement.executeQuery()) {
                 while (rslSet.next()) {
                     result.add(new Place(
+                            rslSet.getInt(PlaceDaoDb.COLUMN_SCREENING),
                             rslSet.getInt(PlaceDaoDb.COLUMN_ROW),
                             rslSet.getInt(PlaceDaoDb.COLUMN_NUMBER),
                             rslSet.getBoolean(PlaceDaoDb.COLUMN_ISEMPTY),
@@ -162,6 +276,27 @@ public class PlaceDaoDb implements PlaceDao {
         return result;
     }
 
+    /**
+     * Finds all screenings.
+     *
+     * @return all screenings, ordered by id.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Screening> findScreenings() throws DaoSystemException {
+        List<Screening> result = new LinkedList<Screening>();
+        try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_SCREENINGS);
+             ResultSet rslSet = statement.executeQuery()) {
+            while (rslSet.next()) {
+                result.add(new Screening(rslSet.getInt(PlaceDaoDb.COLUMN_ID), rslSet.getString(PlaceDaoDb.COLUMN_NAME)));
+            }
+        } catch (SQLException e) {
+            throw new DaoSystemException(e.getMessage(), e);
+        }
+        return result;
+    }
+
     /**
      * Checks if the specified place is free.
      *
@@ -173,11 +308,10 @@ public class PlaceDaoDb implements PlaceDao {
     public boolean isFree(Place place) throws DaoSystemException {
         boolean result = false;
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from hall where row = ? and number = ? order by row, number;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_PLACE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             try (ResultSet rslSet = statement.executeQuery()) {
                 if (rslSet.next()) {
                     if (rslSet.getBoolean(PlaceDaoDb.COLUMN_ISEMPTY)) {
@@ -202,11 +336,10 @@ public class PlaceDaoDb implements PlaceDao {
     public boolean isBusy(Place place) throws DaoSystemException {
         boolean result = false;
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from hall where row = ? and number = ? order by row, number;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_PLACE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             try (ResultSet rslSet = statement.executeQuery()) {
                 if (rslSet.next()) {
                     if (!rslSet.getBoolean(PlaceDaoDb.COLUMN_ISEMPTY)) {
@@ -229,11 +362,10 @@ public class PlaceDaoDb implements PlaceDao {
     @Override
     public void busyPlace(Place place) throws DaoSystemException {
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "update hall set isempty = 'false' where row = ? and number = ?;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_BUSY_PLACE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             statement.executeUpdate();
         } catch (SQLException e) {
             throw new DaoSystemException(e.getMessage(), e);
@@ -249,11 +381,10 @@ public class PlaceDaoDb implements PlaceDao {
     @Override
     public void freePlace(Place place) throws DaoSystemException {
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "update hall set isempty = 'true' where row = ? and number = ?;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FREE_PLACE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             statement.executeUpdate();
         } catch (SQLException e) {
             throw new DaoSystemException(e.getMessage(), e);
@@ -271,11 +402,10 @@ public class PlaceDaoDb implements PlaceDao {
     public boolean inHall(Place place) throws DaoSystemException {
         boolean result = false;
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from hall where row = ? and number = ? order by row, number;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_PLACE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             try (ResultSet rslSet = statement.executeQuery()) {
                 if (rslSet.next()) {
                     result = true;
@@ -298,11 +428,10 @@ public class PlaceDaoDb implements PlaceDao {
     public int getActualPrice(Place place) throws DaoSystemException {
         int price = 0;
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select price from hall where row = ? and number = ?;"
-             )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_PRICE)) {
+            statement.setInt(1, place.getScreening());
+            statement.setInt(2, place.getRow());
+            statement.setInt(3, place.getNumber());
             try (ResultSet rslSet = statement.executeQuery()) {
                 if (rslSet.next()) {
                     price = rslSet.getInt(PlaceDaoDb.COLUMN_PRICE);
@@ -315,7 +444,12 @@ public class PlaceDaoDb implements PlaceDao {
     }
 
     /**
-     * Creates a ticket in database with the specified parameters: person and place.
+     * Creates a ticket in database with the specified parameters: person and place. The sale is one statement, so
+     * it takes one round trip and is atomic by itself: the place is claimed by a conditional update, which matches
+     * nothing if the place is already busy, and the ticket is inserted only if the place has been claimed. The
+     * person's account id is taken from the cache, or the account is saved by the same statement, only if the
+     * place has been claimed, and is cached after the sale. Concurrent buyers of the same place are serialized by
+     * the row lock, the losers' conditional update matches nothing after the winner commits.
      *
      * @param place - the specified place.
      * @param person - the specified person.
@@ -324,106 +458,261 @@ public class PlaceDaoDb implements PlaceDao {
      */
     @Override
     public void createTicket(Place place, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        boolean sold = false;
+        Integer account = this.accounts.get(person);
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection()) {
-            this.updateTables(connection, person, place);
+            if (account != null) {
+                try (PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_SELL_PLACE)) {
+                    statement.setInt(1, place.getScreening());
+                    statement.setInt(2, place.getRow());
+                    statement.setInt(3, place.getNumber());
+                    statement.setInt(4, account);
+                    sold = statement.executeUpdate() > 0;
+                }
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_SELL_PLACE_TO_PERSON)) {
+                    statement.setInt(1, place.getScreening());
+                    statement.setInt(2, place.getRow());
+                    statement.setInt(3, place.getNumber());
+                    statement.setString(4, person.getName());
+                    statement.setString(5, person.getPhone());
+                    try (ResultSet rslSet = statement.executeQuery()) {
+                        if (rslSet.next()) {
+                            sold = true;
+                            this.accounts.put(person, rslSet.getInt(1));
+                        }
+                    }
+                }
+            }
         } catch (SQLException e) {
             throw new DaoSystemException(e.getMessage(), e);
         }
+        if (!sold) {
+            throw new AlreadyOccupiedPlaceException("The place is already occupied");
+        }
+    }
+
+    /**
+     * Gets the ids of the specified persons' accounts. The accounts, which are not cached with the same phone,
+     * are added or updated by one statement in the caller's transaction; they are cached by the caller after the
+     * commit, so the cache never keeps an account, which has been rolled back.
+     *
+     * @param connection - the connection in the sale's transaction.
+     * @param persons - the specified persons.
+     * @param saved - the saved persons and their accounts' ids, filled.
+     * @return the accounts' ids by the persons' names.
+     * @throws SQLException if occurs.
+     */
+    private Map<String, Integer> saveAccounts(Connection connection, List<Person> persons, Map<Person, Integer> saved)
+            throws SQLException {
+        Map<String, Integer> result = new HashMap<String, Integer>();
+        Map<String, Person> missed = new LinkedHashMap<String, Person>();
+        for (Person person : persons) {
+            Integer id = this.accounts.get(person);
+            if (id == null) {
+                missed.put(person.getName(), person);
+            } else {
+                result.put(person.getName(), id);
+            }
+        }
+        if (!missed.isEmpty()) {
+            String[] names = new String[missed.size()];
+            String[] phones = new String[missed.size()];
+            int i = 0;
+            for (Person person : missed.values()) {
+                names[i] = person.getName();
+                phones[i] = person.getPhone();
+                i++;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_SAVE_ACCOUNTS)) {
+                statement.setArray(1, connection.createArrayOf("varchar", names));
+                statement.setArray(2, connection.createArrayOf("varchar", phones));
+                try (ResultSet rslSet = statement.executeQuery()) {
+                    while (rslSet.next()) {
+                        Person person = new Person(
+                                rslSet.getString(PlaceDaoDb.COLUMN_NAME), rslSet.getString(PlaceDaoDb.COLUMN_PHONE)
+                        );
+                        result.put(person.getName(), rslSet.getInt(PlaceDaoDb.COLUMN_ID));
+                        saved.put(person, rslSet.getInt(PlaceDaoDb.COLUMN_ID));
+                    }
+                }
+            }
+        }
+        return result;
     }
 
     /**
-     * A help-method for "createTicket()"-method. The specified connection sets into not auto commit mode, prepares
-     * all update table requests, then commits all request, or rollback, if an error occurs.
+     * Creates tickets for all the specified places and the person in one transaction, all at once or none of
+     * them. The places are bound as arrays: one statement locks them all in the same order for every buyer and
+     * finds the busy ones, the other takes them and creates the tickets.
      *
-     * @param connection - the specified connection.
+     * @param places - the specified places.
      * @param person - the specified person.
-     * @param place - the specified place.
      * @throws DaoSystemException if SQL Exception occurs.
-     * @throws AlreadyOccupiedPlaceException if the specified place is busy.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy, it lists them.
      */
-    private void updateTables(Connection connection, Person person, Place place) throws DaoSystemException, AlreadyOccupiedPlaceException {
-        try {
+    @Override
+    public void createTickets(List<Place> places, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        List<Place> conflicts = this.createTickets(Collections.singletonList(new Order(places, person))).get(0);
+        if (!conflicts.isEmpty()) {
+            throw new AlreadyOccupiedPlaceException("The places are already occupied", conflicts);
+        }
+    }
+
+    /**
+     * Sells the specified orders in one transaction, every order all at once or none of it. All places of all
+     * orders are locked by one statement, then the orders are looked through in their turn: an order, which
+     * places are all free and not taken by the earlier orders, is sold, the other orders are refused. The accounts
+     * of the sold orders are saved and the sold orders are written by one batch and committed together, so a
+     * whole batch of buyers costs a few round trips and one commit, and a refused buyer leaves no account.
+     *
+     * @param orders - the specified orders.
+     * @return the unavailable places of every order in the orders' turn: the busy places, the places taken by the
+     * earlier orders and the places out of the hall; the empty list for the sold order.
+     * @throws DaoSystemException if SQL Exception occurs, none of the orders is sold.
+     */
+    public List<List<Place>> createTickets(List<Order> orders) throws DaoSystemException {
+        TreeSet<Place> requested = new TreeSet<Place>(PlaceDaoDb.LOCK_ORDER);
+        for (Order order : orders) {
+            requested.addAll(order.getPlaces());
+        }
+        List<List<Place>> result = new ArrayList<List<Place>>(orders.size());
+        Map<Person, Integer> saved = new HashMap<Person, Integer>();
+        try (Connection connection = PlaceDaoDb.SOURCE.getConnection()) {
             connection.setAutoCommit(false);
-            if (this.isFree(place)) {
-                this.updateHall(connection, place);
-                if (this.checkAccount(person)) {
-                    this.updateAccountsTable(connection, person);
+            try {
+                Map<Place, Integer> free = new TreeMap<Place, Integer>(PlaceDaoDb.LOCK_ORDER);
+                TreeSet<Place> busy = this.lockPlaces(connection, requested, free);
+                Map<Place, Integer> taken = new TreeMap<Place, Integer>(PlaceDaoDb.LOCK_ORDER);
+                List<Order> sold = new ArrayList<Order>(orders.size());
+                for (Order order : orders) {
+                    List<Place> conflicts = PlaceDaoDb.unavailable(order.getPlaces(), free, busy);
+                    if (conflicts.isEmpty()) {
+                        for (Place place : order.getPlaces()) {
+                            Integer id = free.remove(place);
+                            if (id != null) {
+                                taken.put(place, id);
+                                busy.add(new Place(
+                                        place.getScreening(), place.getRow(), place.getNumber(), Place.BUSY, 0
+                                ));
+                            }
+                        }
+                        sold.add(order);
+                    }
+                    result.add(conflicts);
+                }
+                if (sold.isEmpty()) {
+                    connection.rollback();
                 } else {
-                    this.addAccount(person);
+                    List<Person> persons = new ArrayList<Person>(sold.size());
+                    for (Order order : sold) {
+                        persons.add(order.getPerson());
+                    }
+                    this.takePlaces(connection, sold, taken, this.saveAccounts(connection, persons, saved));
+                    connection.commit();
                 }
-                this.updateTicketsTable(connection, person, place);
-                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
                 connection.setAutoCommit(true);
-            } else {
-                throw new AlreadyOccupiedPlaceException("The place is already occupied");
             }
         } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException e1) {
-                throw new DaoSystemException(e1.getMessage(), e1);
-            }
             throw new DaoSystemException(e.getMessage(), e);
         }
+        for (Map.Entry<Person, Integer> account : saved.entrySet()) {
+            this.accounts.put(account.getKey(), account.getValue());
+        }
+        return result;
     }
 
     /**
-     * A help-method for "updateTables()"-method. Updates accounts table.
+     * Finds the unavailable places of an order.
      *
-     * @param connection - the specified not auto commit connection.
-     * @param person - the specified person.
-     * @throws DaoSystemException if SQL Exception occurs.
+     * @param places - the places of the order.
+     * @param free - the ids of the free places.
+     * @param busy - the busy places.
+     * @return the busy places and the places out of the hall, in the lock order.
      */
-    private void updateAccountsTable(Connection connection, Person person) throws DaoSystemException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                     "update accounts set phone = ? where name = ?;")) {
-            statement.setString(1, person.getPhone());
-            statement.setString(2, person.getName());
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            throw new DaoSystemException(e.getMessage(), e);
+    private static List<Place> unavailable(List<Place> places, Map<Place, Integer> free, TreeSet<Place> busy) {
+        TreeSet<Place> result = new TreeSet<Place>(PlaceDaoDb.LOCK_ORDER);
+        for (Place place : places) {
+            if (!free.containsKey(place)) {
+                Place found = busy.ceiling(place);
+                result.add(found != null && PlaceDaoDb.LOCK_ORDER.compare(found, place) == 0 ? found : place);
+            }
         }
+        return new LinkedList<Place>(result);
     }
 
     /**
-     * A help-method for "updateTables()"-method. Updates hall, busy the specified place.
+     * Locks the specified places till the end of the transaction in their lock order.
      *
-     * @param connection - the specified not auto commit connection.
-     * @param place - the specified place.
-     * @throws DaoSystemException if SQL Exception occurs.
+     * @param connection - the transaction's connection.
+     * @param places - the specified places in their lock order.
+     * @param free - gets the ids of the free places.
+     * @return the busy places. The places out of the hall are neither free nor busy.
+     * @throws SQLException if occurs.
      */
-    private void updateHall(Connection connection, Place place) throws DaoSystemException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "update hall set isempty = 'false' where row = ? and number = ?;"
-        )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            throw new DaoSystemException(e.getMessage(), e);
+    private TreeSet<Place> lockPlaces(Connection connection, TreeSet<Place> places, Map<Place, Integer> free) throws SQLException {
+        Integer[] screenings = new Integer[places.size()];
+        Integer[] rows = new Integer[places.size()];
+        Integer[] numbers = new Integer[places.size()];
+        int i = 0;
+        for (Place place : places) {
+            screenings[i] = place.getScreening();
+            rows[i] = place.getRow();
+            numbers[i] = place.getNumber();
+            i++;
         }
+        TreeSet<Place> result = new TreeSet<Place>(PlaceDaoDb.LOCK_ORDER);
+        try (PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_LOCK_PLACES)) {
+            statement.setArray(1, connection.createArrayOf("int4", screenings));
+            statement.setArray(2, connection.createArrayOf("int4", rows));
+            statement.setArray(3, connection.createArrayOf("int4", numbers));
+            try (ResultSet rslSet = statement.executeQuery()) {
+                while (rslSet.next()) {
+                    Place place = new Place(
+                            rslSet.getInt(PlaceDaoDb.COLUMN_SCREENING),
+                            rslSet.getInt(PlaceDaoDb.COLUMN_ROW),
+                            rslSet.getInt(PlaceDaoDb.COLUMN_NUMBER),
+                            rslSet.getBoolean(PlaceDaoDb.COLUMN_ISEMPTY),
+                            0
+                    );
+                    if (place.isEmpty()) {
+                        free.put(place, rslSet.getInt(PlaceDaoDb.COLUMN_ID));
+                    } else {
+                        result.add(place);
+                    }
+                }
+            }
+        }
+        return result;
     }
 
     /**
-     * A help-method for "updateTables()"-method. Creates a new ticket in database.
+     * Takes the locked places of the specified orders and creates their tickets for the orders' accounts. The
+     * orders are sent by one batch.
      *
-     * @param connection - the specified not auto commit connection.
-     * @param person - the specified person.
-     * @param place - the specified place.
-     * @throws DaoSystemException if SQL Exception occurs.
+     * @param connection - the transaction's connection.
+     * @param orders - the specified orders.
+     * @param ids - the ids of the locked places.
+     * @param accounts - the accounts' ids by the persons' names.
+     * @throws SQLException if occurs.
      */
-    private void updateTicketsTable(Connection connection, Person person, Place place) throws DaoSystemException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "insert into tickets (place_id, account_id) values ("
-                        + "(select id from hall where row = ? and number = ?),  "
-                        + "(select id from accounts where name = ?));"
-        )) {
-            statement.setInt(1, place.getRow());
-            statement.setInt(2, place.getNumber());
-            statement.setString(3, person.getName());
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            throw new DaoSystemException(e.getMessage(), e);
+    private void takePlaces(Connection connection, List<Order> orders, Map<Place, Integer> ids, Map<String, Integer> accounts) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_TAKE_PLACES)) {
+            for (Order order : orders) {
+                TreeSet<Integer> places = new TreeSet<Integer>();
+                for (Place place : order.getPlaces()) {
+                    places.add(ids.get(place));
+                }
+                Array array = connection.createArrayOf("int4", places.toArray(new Integer[0]));
+                statement.setArray(1, array);
+                statement.setInt(2, accounts.get(order.getPerson().getName()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
         }
     }
 
@@ -438,9 +727,7 @@ public class PlaceDaoDb implements PlaceDao {
     public boolean checkAccount(Person person) throws DaoSystemException {
         boolean result = false;
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "select * from accounts where name = ?;"
-             )) {
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_FIND_ACCOUNT)) {
             statement.setString(1, person.getName());
             try (ResultSet rslSet = statement.executeQuery()) {
                 if (rslSet.next()) {
@@ -454,7 +741,7 @@ public class PlaceDaoDb implements PlaceDao {
     }
 
     /**
-     * Adds new account for the specified person into database.
+     * Adds new account for the specified person into database, if there is no account with the person's name.
      *
      * @param person - the specified person.
      * @throws DaoSystemException if SQL Exception occurs.
@@ -462,8 +749,7 @@ public class PlaceDaoDb implements PlaceDao {
     @Override
     public void addAccount(Person person) throws DaoSystemException {
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "insert into accounts(name, phone) values(?, ?);")) {
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_ADD_ACCOUNT)) {
             statement.setString(1, person.getName());
             statement.setString(2, person.getPhone());
             statement.executeUpdate();
@@ -481,13 +767,14 @@ public class PlaceDaoDb implements PlaceDao {
     @Override
     public void updateAccount(Person person) throws DaoSystemException {
         try (Connection connection = PlaceDaoDb.SOURCE.getConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "update accounts set phone = ? where name = ?;")) {
+             PreparedStatement statement = connection.prepareStatement(PlaceDaoDb.SQL_UPDATE_ACCOUNT)) {
             statement.setString(1, person.getPhone());
             statement.setString(2, person.getName());
             statement.executeUpdate();
         } catch (SQLException e) {
             throw new DaoSystemException(e.getMessage(), e);
+        } finally {
+            this.accounts.remove(person);
         }
     }
 }
\ No newline at end of file
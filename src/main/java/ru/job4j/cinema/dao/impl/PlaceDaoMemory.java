@@ -0,0 +1,535 @@
+package ru.job4j.cinema.dao.impl;
+
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.model.HallGeometry;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of data access object, keeping everything in memory: the screenings, the seats, the tickets and
+ * the accounts, no database is used. The halls are generated at the start by the "memory-screenings",
+ * "memory-rows", "memory-seats" and "memory-price" settings. Every seat holds the account's id of its ticket, so
+ * the seats are read without locks. The changes of the seats are guarded by a fixed number of locks, every seat
+ * belongs to one of them by its hash: the buyers of different seats rarely meet on a lock, and a group takes the
+ * locks of its seats in their order, so the groups never wait for each other in a circle. Nothing survives the
+ * restart, the storage is meant for the load tests and the work without a database.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class PlaceDaoMemory implements PlaceDao {
+    /**
+     * The number of the locks, a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * The account's id of a seat, taken without a ticket.
+     */
+    private static final int NO_ACCOUNT = -1;
+
+    /**
+     * The account's id of a free seat.
+     */
+    private static final int FREE = 0;
+
+    /**
+     * The order the seats of a group are locked in.
+     */
+    private static final Comparator<Place> LOCK_ORDER = Comparator.comparingInt(Place::getScreening)
+            .thenComparingInt(Place::getRow).thenComparingInt(Place::getNumber);
+
+    /**
+     * The in-memory storage singleton.
+     */
+    private static final PlaceDaoMemory INSTANCE = new PlaceDaoMemory(
+            Integer.parseInt(Config.getInstanceOf().get("memory-screenings", "1")),
+            Integer.parseInt(Config.getInstanceOf().get("memory-rows", "3")),
+            Integer.parseInt(Config.getInstanceOf().get("memory-seats", "3")),
+            Integer.parseInt(Config.getInstanceOf().get("memory-price", "500"))
+    );
+
+    /**
+     * The screenings, ordered by id.
+     */
+    private final List<Screening> screenings = new ArrayList<Screening>();
+
+    /**
+     * The halls of the screenings.
+     */
+    private final Map<Integer, Hall> halls = new ConcurrentHashMap<Integer, Hall>();
+
+    /**
+     * The locks of the seats' changes.
+     */
+    private final ReentrantLock[] stripes = new ReentrantLock[PlaceDaoMemory.STRIPES];
+
+    /**
+     * The accounts by the name.
+     */
+    private final Map<String, Account> accounts = new ConcurrentHashMap<String, Account>();
+
+    /**
+     * The next account's id.
+     */
+    private final AtomicInteger ids = new AtomicInteger();
+
+    /**
+     * Creates the storage of the same free halls.
+     *
+     * @param screenings - the number of the screenings.
+     * @param rows - the hall's rows.
+     * @param seats - the seats of every row.
+     * @param price - the seat's price.
+     */
+    PlaceDaoMemory(int screenings, int rows, int seats, int price) {
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        for (int id = 1; id <= screenings; id++) {
+            List<Place> places = new ArrayList<Place>(rows * seats);
+            for (int row = 1; row <= rows; row++) {
+                for (int number = 1; number <= seats; number++) {
+                    places.add(new Place(id, row, number, Place.FREE, price));
+                }
+            }
+            this.screenings.add(new Screening(id, String.format("Hall %d", id)));
+            this.halls.put(id, new Hall(id, new HallGeometry(places)));
+        }
+    }
+
+    /**
+     * Gets the singleton instance of the in-memory storage.
+     *
+     * @return the singleton instance of the in-memory storage.
+     */
+    public static PlaceDaoMemory getInstanceOf() {
+        return PlaceDaoMemory.INSTANCE;
+    }
+
+    /**
+     * Finds all free places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all free places of the screening.
+     */
+    @Override
+    public List<Place> findFreePlaces(int screening) {
+        return this.find(screening, true, false);
+    }
+
+    /**
+     * Finds all busy places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all busy places of the screening.
+     */
+    @Override
+    public List<Place> findBusyPlaces(int screening) {
+        return this.find(screening, false, true);
+    }
+
+    /**
+     * Finds all places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all places of the screening.
+     */
+    @Override
+    public List<Place> findAllPlaces(int screening) {
+        return this.find(screening, true, true);
+    }
+
+    /**
+     * Finds all screenings.
+     *
+     * @return all screenings, ordered by id.
+     */
+    @Override
+    public List<Screening> findScreenings() {
+        return new ArrayList<Screening>(this.screenings);
+    }
+
+    /**
+     * Checks if the specified place is free.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is free.
+     */
+    @Override
+    public boolean isFree(Place place) {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        return index >= 0 && hall.owners.get(index) == PlaceDaoMemory.FREE;
+    }
+
+    /**
+     * Checks if the specified place is busy.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is busy.
+     */
+    @Override
+    public boolean isBusy(Place place) {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        return index >= 0 && hall.owners.get(index) != PlaceDaoMemory.FREE;
+    }
+
+    /**
+     * Takes the specified place (sets "isEmpty" as false) without a ticket, the ticket of the busy place stays.
+     *
+     * @param place - the specified place.
+     */
+    @Override
+    public void busyPlace(Place place) {
+        this.set(place, PlaceDaoMemory.NO_ACCOUNT);
+    }
+
+    /**
+     * Frees the specified place (sets "isEmpty" as true), its ticket is gone too.
+     *
+     * @param place - the specified place.
+     */
+    @Override
+    public void freePlace(Place place) {
+        this.set(place, PlaceDaoMemory.FREE);
+    }
+
+    /**
+     * Checks if the specified place lies in the hall.
+     *
+     * @param place the specified place.
+     * @return true if the specified place's row lies in the hall's rows range and number is in the hall's numbers range.
+     */
+    @Override
+    public boolean inHall(Place place) {
+        Hall hall = this.halls.get(place.getScreening());
+        return hall != null && hall.geometry.indexOf(place) >= 0;
+    }
+
+    /**
+     * Gets the actual place's price.
+     *
+     * @param place - the specified place (row and number);
+     * @return actual place's price, 0 for the place out of the hall.
+     */
+    @Override
+    public int getActualPrice(Place place) {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        return index >= 0 ? hall.geometry.getPrice(index) : 0;
+    }
+
+    /**
+     * Creates a ticket with the specified parameters: person and place. The person's account is created or its
+     * phone is updated, the same as the database does.
+     *
+     * @param place - the specified place.
+     * @param person - the specified person.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy or out of the hall.
+     */
+    @Override
+    public void createTicket(Place place, Person person) throws AlreadyOccupiedPlaceException {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        if (index < 0) {
+            throw new AlreadyOccupiedPlaceException("The place is already occupied");
+        }
+        int account = this.saveAccount(person);
+        ReentrantLock lock = this.stripe(place);
+        lock.lock();
+        try {
+            if (hall.owners.get(index) != PlaceDaoMemory.FREE) {
+                throw new AlreadyOccupiedPlaceException("The place is already occupied");
+            }
+            hall.owners.set(index, account);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates tickets for all the specified places and the person, all at once or none of them. The locks of
+     * the places are taken in the places' order, then all places are checked and taken.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy or out of the hall, it lists them.
+     */
+    @Override
+    public void createTickets(List<Place> places, Person person) throws AlreadyOccupiedPlaceException {
+        TreeSet<Place> requested = new TreeSet<Place>(PlaceDaoMemory.LOCK_ORDER);
+        requested.addAll(places);
+        TreeSet<Integer> stripes = new TreeSet<Integer>();
+        for (Place place : requested) {
+            stripes.add(PlaceDaoMemory.stripeOf(place));
+        }
+        int account = this.saveAccount(person);
+        List<Place> conflicts = new LinkedList<Place>();
+        for (int stripe : stripes) {
+            this.stripes[stripe].lock();
+        }
+        try {
+            for (Place place : requested) {
+                Hall hall = this.halls.get(place.getScreening());
+                int index = hall == null ? -1 : hall.geometry.indexOf(place);
+                if (index < 0) {
+                    conflicts.add(place);
+                } else if (hall.owners.get(index) != PlaceDaoMemory.FREE) {
+                    conflicts.add(hall.place(index));
+                }
+            }
+            if (conflicts.isEmpty()) {
+                for (Place place : requested) {
+                    Hall hall = this.halls.get(place.getScreening());
+                    hall.owners.set(hall.geometry.indexOf(place), account);
+                }
+            }
+        } finally {
+            for (int stripe : stripes.descendingSet()) {
+                this.stripes[stripe].unlock();
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new AlreadyOccupiedPlaceException("The places are already occupied", conflicts);
+        }
+    }
+
+    /**
+     * Checks existence of account for the specified person.
+     *
+     * @param person - the specified person.
+     * @return true if account already exists.
+     */
+    @Override
+    public boolean checkAccount(Person person) {
+        return this.accounts.containsKey(person.getName());
+    }
+
+    /**
+     * Adds new account for the specified person, if there is no account with the person's name.
+     *
+     * @param person - the specified person.
+     */
+    @Override
+    public void addAccount(Person person) {
+        this.accounts.computeIfAbsent(
+                person.getName(), name -> new Account(this.ids.incrementAndGet(), person.getPhone())
+        );
+    }
+
+    /**
+     * Updates the phone of the existent account for the specified person.
+     *
+     * @param person - the specified person.
+     */
+    @Override
+    public void updateAccount(Person person) {
+        this.accounts.computeIfPresent(person.getName(), (name, account) -> new Account(account.id, person.getPhone()));
+    }
+
+    /**
+     * Gets the account's id of the specified seat's ticket.
+     *
+     * @param place - the specified place.
+     * @return the account's id, 0 for the free place or the place out of the hall, -1 for the place taken without
+     * a ticket.
+     */
+    int owner(Place place) {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        return index >= 0 ? hall.owners.get(index) : PlaceDaoMemory.FREE;
+    }
+
+    /**
+     * Gets the account's id of the specified person's name.
+     *
+     * @param person - the specified person.
+     * @return the account's id, 0 if there is no account.
+     */
+    int accountOf(Person person) {
+        Account account = this.accounts.get(person.getName());
+        return account != null ? account.id : 0;
+    }
+
+    /**
+     * Creates the person's account or updates its phone.
+     *
+     * @param person - the specified person.
+     * @return the account's id.
+     */
+    private int saveAccount(Person person) {
+        Account result = this.accounts.get(person.getName());
+        if (result == null || !Objects.equals(result.phone, person.getPhone())) {
+            result = this.accounts.compute(person.getName(), (name, old) -> old == null
+                    ? new Account(this.ids.incrementAndGet(), person.getPhone())
+                    : new Account(old.id, person.getPhone())
+            );
+        }
+        return result.id;
+    }
+
+    /**
+     * Sets the account's id of the specified seat, the seat taken without a ticket keeps its ticket.
+     *
+     * @param place - the specified place.
+     * @param account - the account's id.
+     */
+    private void set(Place place, int account) {
+        Hall hall = this.halls.get(place.getScreening());
+        int index = hall == null ? -1 : hall.geometry.indexOf(place);
+        if (index >= 0) {
+            ReentrantLock lock = this.stripe(place);
+            lock.lock();
+            try {
+                if (account != PlaceDaoMemory.NO_ACCOUNT || hall.owners.get(index) == PlaceDaoMemory.FREE) {
+                    hall.owners.set(index, account);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Collects places of the screening in the row and number order.
+     *
+     * @param screening - the specified screening.
+     * @param free - collect free places.
+     * @param busy - collect busy places.
+     * @return the suitable places, empty for an unknown screening.
+     */
+    private List<Place> find(int screening, boolean free, boolean busy) {
+        Hall hall = this.halls.get(screening);
+        List<Place> result = new ArrayList<Place>();
+        if (hall != null) {
+            for (int row = 1; row <= hall.geometry.getRows(); row++) {
+                int first = hall.geometry.firstIndex(row);
+                for (int index = first; index < first + hall.geometry.getSeats(row); index++) {
+                    if (hall.geometry.isPresent(index)) {
+                        boolean isBusy = hall.owners.get(index) != PlaceDaoMemory.FREE;
+                        if (isBusy ? busy : free) {
+                            result.add(new Place(
+                                    screening, row, index - first + 1, !isBusy, hall.geometry.getPrice(index)
+                            ));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the lock of the specified place.
+     *
+     * @param place - the specified place.
+     * @return the lock.
+     */
+    private ReentrantLock stripe(Place place) {
+        return this.stripes[PlaceDaoMemory.stripeOf(place)];
+    }
+
+    /**
+     * Finds the lock's index of the specified place.
+     *
+     * @param place - the specified place.
+     * @return the lock's index.
+     */
+    private static int stripeOf(Place place) {
+        int hash = (place.getScreening() * 31 + place.getRow()) * 31 + place.getNumber();
+        return (hash ^ hash >>> 16) & (PlaceDaoMemory.STRIPES - 1);
+    }
+
+    /**
+     * The hall of a screening: its geometry and the account's id of every seat.
+     */
+    private static final class Hall {
+        /**
+         * The screening.
+         */
+        private final int screening;
+
+        /**
+         * The hall's geometry.
+         */
+        private final HallGeometry geometry;
+
+        /**
+         * The account's id of every seat's ticket, 0 for the free seat.
+         */
+        private final AtomicIntegerArray owners;
+
+        /**
+         * Creates the free hall.
+         *
+         * @param screening - the screening.
+         * @param geometry - the hall's geometry.
+         */
+        private Hall(int screening, HallGeometry geometry) {
+            this.screening = screening;
+            this.geometry = geometry;
+            this.owners = new AtomicIntegerArray(geometry.size());
+        }
+
+        /**
+         * Gets the place of the specified seat in its current state.
+         *
+         * @param index - the seat index.
+         * @return the place.
+         */
+        private Place place(int index) {
+            int row = this.geometry.getRows();
+            while (this.geometry.firstIndex(row) > index) {
+                row--;
+            }
+            return new Place(
+                    this.screening, row, index - this.geometry.firstIndex(row) + 1,
+                    this.owners.get(index) == PlaceDaoMemory.FREE, this.geometry.getPrice(index)
+            );
+        }
+    }
+
+    /**
+     * The account: its id and phone.
+     */
+    private static final class Account {
+        /**
+         * The id.
+         */
+        private final int id;
+
+        /**
+         * The phone.
+         */
+        private final String phone;
+
+        /**
+         * Creates the account.
+         *
+         * @param id - the id.
+         * @param phone - the phone.
+         */
+        private Account(int id, String phone) {
+            this.id = id;
+            this.phone = phone;
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Order;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Implementation of data access object, selling the tickets by the group commit. The purchases are put into the
+ * queue, the single writer takes all of them, which have come during the linger time, and sells them as one
+ * batch in one transaction, so the cost of the commit is shared by the whole batch. Every buyer waits for the
+ * outcome of its own order only, and not longer than the timeout. If the batch fails, its orders are sold one by
+ * one, so a bad order fails alone. All other operations go to the delegate directly.
+ * Settings: "booking-batch" (the maximal orders in a batch), "booking-linger" (ms), "booking-queue",
+ * "booking-timeout" (ms).
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class PlaceDaoPipeline implements PlaceDao {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(PlaceDaoPipeline.class.getName());
+
+    /**
+     * The setting of the maximal number of the orders in a batch.
+     */
+    private static final String CONFIG_BATCH = "booking-batch";
+
+    /**
+     * The setting of the time the writer waits for more orders after the first one, ms.
+     */
+    private static final String CONFIG_LINGER = "booking-linger";
+
+    /**
+     * The setting of the maximal number of the waiting orders.
+     */
+    private static final String CONFIG_QUEUE = "booking-queue";
+
+    /**
+     * The setting of the longest wait of a buyer for its outcome, ms.
+     */
+    private static final String CONFIG_TIMEOUT = "booking-timeout";
+
+    /**
+     * The pipeline singleton, backed by the database.
+     */
+    private static final PlaceDaoPipeline INSTANCE = new PlaceDaoPipeline(
+            PlaceDaoDb.getInstanceOf(),
+            Integer.parseInt(Config.getInstanceOf().get(PlaceDaoPipeline.CONFIG_BATCH, "64")),
+            Long.parseLong(Config.getInstanceOf().get(PlaceDaoPipeline.CONFIG_LINGER, "2")),
+            Integer.parseInt(Config.getInstanceOf().get(PlaceDaoPipeline.CONFIG_QUEUE, "4096")),
+            Long.parseLong(Config.getInstanceOf().get(PlaceDaoPipeline.CONFIG_TIMEOUT, "10000"))
+    );
+
+    /**
+     * The database storage.
+     */
+    private final PlaceDaoDb delegate;
+
+    /**
+     * The waiting purchases.
+     */
+    private final BlockingQueue<Purchase> queue;
+
+    /**
+     * The maximal number of the orders in a batch.
+     */
+    private final int batch;
+
+    /**
+     * The time the writer waits for more orders after the first one, ns.
+     */
+    private final long linger;
+
+    /**
+     * The longest wait of a buyer for its outcome, ns.
+     */
+    private final long timeout;
+
+    /**
+     * The writer's thread, null until started.
+     */
+    private volatile Thread writer;
+
+    /**
+     * Creates the pipeline.
+     *
+     * @param delegate - the database storage.
+     * @param batch - the maximal number of the orders in a batch.
+     * @param linger - the time the writer waits for more orders after the first one, ms; if 0, a batch has the
+     * orders, which have come while the previous one was written.
+     * @param queue - the maximal number of the waiting orders, the buyers wait for a room in the queue.
+     * @param timeout - the longest wait of a buyer for a room in the queue and for its outcome, ms.
+     */
+    PlaceDaoPipeline(PlaceDaoDb delegate, int batch, long linger, int queue, long timeout) {
+        this.delegate = delegate;
+        this.batch = batch;
+        this.linger = TimeUnit.MILLISECONDS.toNanos(linger);
+        this.queue = new LinkedBlockingQueue<Purchase>(queue);
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Gets the singleton instance of the pipeline, started.
+     *
+     * @return the singleton instance of the pipeline.
+     */
+    public static PlaceDaoPipeline getInstanceOf() {
+        PlaceDaoPipeline.INSTANCE.start();
+        return PlaceDaoPipeline.INSTANCE;
+    }
+
+    /**
+     * Starts the writer's thread.
+     */
+    public synchronized void start() {
+        if (this.writer == null) {
+            this.writer = new Thread(this::write, "booking-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    /**
+     * Stops the writer's thread after the current batch. The waiting purchases fail.
+     */
+    public synchronized void stop() {
+        if (this.writer != null) {
+            this.writer.interrupt();
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Takes the purchases from the queue and sells them by batches until interrupted. The purchases left fail
+     * however the writer ends, by the interruption or by an error.
+     */
+    private void write() {
+        List<Purchase> purchases = new ArrayList<Purchase>(this.batch);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                purchases.add(this.queue.take());
+                long deadline = System.nanoTime() + this.linger;
+                this.queue.drainTo(purchases, this.batch - purchases.size());
+                long left = deadline - System.nanoTime();
+                while (purchases.size() < this.batch && left > 0) {
+                    Purchase next = this.queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    purchases.add(next);
+                    this.queue.drainTo(purchases, this.batch - purchases.size());
+                    left = deadline - System.nanoTime();
+                }
+                this.sell(purchases);
+                purchases.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            DaoSystemException stopped = new DaoSystemException("The booking pipeline is stopped.");
+            this.queue.drainTo(purchases);
+            for (Purchase purchase : purchases) {
+                purchase.result.completeExceptionally(stopped);
+            }
+        }
+    }
+
+    /**
+     * Sells the specified purchases as one batch and completes every purchase with its own outcome. If the
+     * batch fails, none of it is sold, and its purchases are sold one by one, so only the bad ones fail.
+     *
+     * @param purchases - the specified purchases.
+     */
+    private void sell(List<Purchase> purchases) {
+        List<Order> orders = new ArrayList<Order>(purchases.size());
+        for (Purchase purchase : purchases) {
+            orders.add(purchase.order);
+        }
+        try {
+            List<List<Place>> conflicts = this.delegate.createTickets(orders);
+            for (int i = 0; i < purchases.size(); i++) {
+                if (conflicts.get(i).isEmpty()) {
+                    purchases.get(i).result.complete(null);
+                } else {
+                    purchases.get(i).result.completeExceptionally(
+                            new AlreadyOccupiedPlaceException("The places are already occupied", conflicts.get(i))
+                    );
+                }
+            }
+        } catch (DaoSystemException | RuntimeException e) {
+            if (purchases.size() > 1) {
+                PlaceDaoPipeline.LOG.warn("The batch of {} orders failed, they are sold one by one.", purchases.size(), e);
+                for (Purchase purchase : purchases) {
+                    this.sell(Collections.singletonList(purchase));
+                }
+            } else {
+                PlaceDaoPipeline.LOG.error("The order failed.", e);
+                purchases.get(0).result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Puts the order into the queue and waits for its outcome. The order is refused if the writer is not running,
+     * and the outcome is unknown to the buyer if the queue is full or the order is not sold within the timeout.
+     *
+     * @param order - the order.
+     * @throws DaoSystemException if SQL Exception occurs, the writer is not running, the timeout is over or the
+     * waiting is interrupted.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy, it lists them.
+     */
+    private void submit(Order order) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        Thread current = this.writer;
+        if (current == null || !current.isAlive()) {
+            throw new DaoSystemException("The booking pipeline is not running.");
+        }
+        Purchase purchase = new Purchase(order);
+        long deadline = System.nanoTime() + this.timeout;
+        try {
+            if (!this.queue.offer(purchase, this.timeout, TimeUnit.NANOSECONDS)) {
+                throw new DaoSystemException("The booking queue is full.");
+            }
+            purchase.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            this.queue.remove(purchase);
+            throw new DaoSystemException("The purchase is not completed in time.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DaoSystemException("The purchase is interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AlreadyOccupiedPlaceException) {
+                throw (AlreadyOccupiedPlaceException) e.getCause();
+            } else if (e.getCause() instanceof DaoSystemException) {
+                throw (DaoSystemException) e.getCause();
+            }
+            throw new DaoSystemException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Creates a ticket in the next batch.
+     *
+     * @param place - the specified place.
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy.
+     */
+    @Override
+    public void createTicket(Place place, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        this.submit(new Order(Collections.singletonList(place), person));
+    }
+
+    /**
+     * Creates tickets for all the specified places and the person in the next batch, all at once or none of them.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy, it lists them.
+     */
+    @Override
+    public void createTickets(List<Place> places, Person person) throws DaoSystemException, AlreadyOccupiedPlaceException {
+        this.submit(new Order(places, person));
+    }
+
+    /**
+     * Finds all free places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all free places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findFreePlaces(int screening) throws DaoSystemException {
+        return this.delegate.findFreePlaces(screening);
+    }
+
+    /**
+     * Finds all busy places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all busy places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findBusyPlaces(int screening) throws DaoSystemException {
+        return this.delegate.findBusyPlaces(screening);
+    }
+
+    /**
+     * Finds all places of the specified screening.
+     *
+     * @param screening - the specified screening.
+     * @return all places of the screening.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Place> findAllPlaces(int screening) throws DaoSystemException {
+        return this.delegate.findAllPlaces(screening);
+    }
+
+    /**
+     * Finds all screenings.
+     *
+     * @return all screenings, ordered by id.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public List<Screening> findScreenings() throws DaoSystemException {
+        return this.delegate.findScreenings();
+    }
+
+    /**
+     * Checks if the specified place is free.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is free.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean isFree(Place place) throws DaoSystemException {
+        return this.delegate.isFree(place);
+    }
+
+    /**
+     * Checks if the specified place is busy.
+     *
+     * @param place - the specified place.
+     * @return true if the specified place is busy.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean isBusy(Place place) throws DaoSystemException {
+        return this.delegate.isBusy(place);
+    }
+
+    /**
+     * Takes the specified place (sets "isEmpty" as false).
+     *
+     * @param place - the specified place.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public void busyPlace(Place place) throws DaoSystemException {
+        this.delegate.busyPlace(place);
+    }
+
+    /**
+     * Frees the specified place (sets "isEmpty" as true).
+     *
+     * @param place - the specified place.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public void freePlace(Place place) throws DaoSystemException {
+        this.delegate.freePlace(place);
+    }
+
+    /**
+     * Checks if the specified place lies in the hall.
+     *
+     * @param place the specified place.
+     * @return true if the specified place's row lies in the hall's rows range and number is in the hall's numbers range.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public boolean inHall(Place place) throws DaoSystemException {
+        return this.delegate.inHall(place);
+    }
+
+    /**
+     * Gets the actual place's price from database.
+     *
+     * @param place - the specified place (row and number);
+     * @return actual place's price.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public int getActualPrice(Place place) throws DaoSystemException {
+        return this.delegate.getActualPrice(place);
+    }
+
+    /**
+     * Checks existence of account for the specified person.
+     *
+     * @param person - the specified person.
+     * @return true if account already exists.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public boolean checkAccount(Person person) throws DaoSystemException {
+        return this.delegate.checkAccount(person);
+    }
+
+    /**
+     * Adds new account for the specified person into database.
+     *
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public void addAccount(Person person) throws DaoSystemException {
+        this.delegate.addAccount(person);
+    }
+
+    /**
+     * Updates the existent account for the specified person in database.
+     *
+     * @param person - the specified person.
+     * @throws DaoSystemException if SQL Exception occurs.
+     */
+    @Override
+    public void updateAccount(Person person) throws DaoSystemException {
+        this.delegate.updateAccount(person);
+    }
+
+    /**
+     * A waiting order and its outcome.
+     */
+    private static final class Purchase {
+        /**
+         * The order.
+         */
+        private final Order order;
+
+        /**
+         * Completed by the writer with the order's outcome.
+         */
+        private final CompletableFuture<Void> result = new CompletableFuture<Void>();
+
+        /**
+         * Creates the purchase.
+         *
+         * @param order - the order.
+         */
+        Purchase(Order order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.metrics.Metrics;
+import ru.job4j.cinema.metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the statements of the pool's connections by their SQL's fingerprint, the SQL with the literals replaced
+ * by "?" and the spaces collapsed: the execution time, the errors by their SQL state and the rows returned by the
+ * queries or changed by the updates. The statements, executed longer than the "slow-query" setting (ms), are logged
+ * to the slow queries' log with the types of their bind values only, the values themselves are never logged.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+class StatementTimer {
+    /**
+     * The slow queries' log.
+     */
+    private static final Logger SLOW = LogManager.getLogger("ru.job4j.cinema.slow-queries");
+
+    /**
+     * The string and numeric literals.
+     */
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * The spaces.
+     */
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /**
+     * The greatest number of the cached fingerprints, the SQL built with the literals could fill the cache up.
+     */
+    private static final int FINGERPRINTS = 1000;
+
+    /**
+     * The timers of the statements.
+     */
+    private static final Metrics.Family STATEMENTS = Metrics.getInstanceOf().family(
+            "cinema_sql", "The statements by the SQL's fingerprint.", "state"
+    );
+
+    /**
+     * The rows returned or changed by the statements.
+     */
+    private static final Metrics.Counters ROWS = Metrics.getInstanceOf().counters(
+            "cinema_sql_rows_total", "The rows returned or changed by the statements."
+    );
+
+    /**
+     * The measures of every SQL.
+     */
+    private final Map<String, Measures> measures = new ConcurrentHashMap<String, Measures>();
+
+    /**
+     * The least time of a slow statement, ns; negative if no statement is logged.
+     */
+    private final long slow;
+
+    /**
+     * Creates the timer.
+     *
+     * @param slow - the least time of a slow statement, ms; negative if no statement is logged.
+     */
+    StatementTimer(long slow) {
+        this.slow = slow < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(slow);
+    }
+
+    /**
+     * Wraps the connection, so its prepared statements are measured.
+     *
+     * @param connection - the connection.
+     * @return the measured connection.
+     */
+    Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new Measured(connection, null)
+        );
+    }
+
+    /**
+     * Finds the fingerprint of the SQL.
+     *
+     * @param sql - the SQL.
+     * @return the SQL with the literals replaced by "?", the spaces collapsed and no trailing semicolon.
+     */
+    static String fingerprint(String sql) {
+        String result = StatementTimer.SPACES.matcher(
+                StatementTimer.LITERALS.matcher(sql).replaceAll("?")
+        ).replaceAll(" ").trim();
+        return result.endsWith(";") ? result.substring(0, result.length() - 1).trim() : result;
+    }
+
+    /**
+     * Finds the measures of the SQL.
+     *
+     * @param sql - the SQL.
+     * @return the measures of its fingerprint.
+     */
+    private Measures measures(String sql) {
+        Measures result = this.measures.get(sql);
+        if (result == null) {
+            result = new Measures(StatementTimer.fingerprint(sql));
+            if (this.measures.size() < StatementTimer.FINGERPRINTS) {
+                this.measures.putIfAbsent(sql, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The measures of a fingerprint.
+     */
+    private static final class Measures {
+        /**
+         * The fingerprint.
+         */
+        private final String fingerprint;
+
+        /**
+         * The execution times and errors.
+         */
+        private final Timer timer;
+
+        /**
+         * The rows.
+         */
+        private final LongAdder rows;
+
+        /**
+         * Finds the measures of the fingerprint.
+         *
+         * @param fingerprint - the fingerprint.
+         */
+        private Measures(String fingerprint) {
+            String labels = String.format("sql=\"%s\"", Metrics.escape(fingerprint));
+            this.fingerprint = fingerprint;
+            this.timer = StatementTimer.STATEMENTS.timer(labels);
+            this.rows = StatementTimer.ROWS.counter(labels);
+        }
+    }
+
+    /**
+     * Measures a connection, its prepared statement or the statement's result set.
+     */
+    private final class Measured implements InvocationHandler {
+        /**
+         * The connection, the statement or the result set.
+         */
+        private final Object target;
+
+        /**
+         * The measures of the statement or its result set, null for the connection.
+         */
+        private final Measures measures;
+
+        /**
+         * The types of the statement's bind values by their index from 0.
+         */
+        private final List<String> binds = new ArrayList<String>();
+
+        /**
+         * The number of the statement's batched rows.
+         */
+        private int batch;
+
+        /**
+         * Creates the handler.
+         *
+         * @param target - the connection, the statement or the result set.
+         * @param measures - the measures of the statement or its result set, null for the connection.
+         */
+        private Measured(Object target, Measures measures) {
+            this.target = target;
+            this.measures = measures;
+        }
+
+        /**
+         * Calls the target's method: wraps the prepared statements and their result sets, remembers the types of
+         * the bind values, measures the executions and counts the rows.
+         *
+         * @param proxy - the proxy.
+         * @param method - the called method.
+         * @param args - the arguments.
+         * @return the method's result.
+         * @throws Throwable the method's exception.
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Object result;
+            if (this.target instanceof Connection) {
+                result = this.call(method, args);
+                if ("prepareStatement".equals(name)) {
+                    result = this.wrap(PreparedStatement.class, result, StatementTimer.this.measures((String) args[0]));
+                }
+            } else if (this.target instanceof ResultSet) {
+                result = this.call(method, args);
+                if ("next".equals(name) && (Boolean) result) {
+                    this.measures.rows.increment();
+                }
+            } else if (name.startsWith("execute")) {
+                result = this.execute(method, args);
+            } else {
+                this.bind(name, args);
+                result = this.call(method, args);
+                if ("getResultSet".equals(name) && result != null) {
+                    result = this.wrap(ResultSet.class, result, this.measures);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Executes the statement and measures it.
+         *
+         * @param method - the execute method.
+         * @param args - the arguments.
+         * @return the method's result, the result set is wrapped to count its rows.
+         * @throws Throwable the method's exception.
+         */
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = this.call(method, args);
+            } catch (SQLException e) {
+                this.measures.timer.error(String.valueOf(e.getSQLState()));
+                throw e;
+            } finally {
+                long time = System.nanoTime() - start;
+                this.measures.timer.record(time);
+                if (StatementTimer.this.slow >= 0 && time >= StatementTimer.this.slow) {
+                    StatementTimer.SLOW.warn(
+                            "{} ms: {}; binds {}, batch {}",
+                            TimeUnit.NANOSECONDS.toMillis(time), this.measures.fingerprint, this.binds, this.batch
+                    );
+                }
+                this.batch = 0;
+            }
+            if (result instanceof ResultSet) {
+                result = this.wrap(ResultSet.class, result, this.measures);
+            } else if (result instanceof Integer || result instanceof Long) {
+                this.measures.rows.add(((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (int rows : (int[]) result) {
+                    this.measures.rows.add(Math.max(0, rows));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Remembers the type of the bind value, never the value itself.
+         *
+         * @param name - the statement's method.
+         * @param args - the arguments.
+         */
+        private void bind(String name, Object[] args) {
+            if ("addBatch".equals(name)) {
+                this.batch++;
+            } else if ("clearParameters".equals(name)) {
+                this.binds.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0] - 1;
+                while (this.binds.size() <= index) {
+                    this.binds.add("?");
+                }
+                this.binds.set(index, args[1] == null ? "null" : name.substring("set".length()).toLowerCase());
+            }
+        }
+
+        /**
+         * Calls the target's method.
+         *
+         * @param method - the method.
+         * @param args - the arguments.
+         * @return the method's result.
+         * @throws Throwable the method's exception.
+         */
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(this.target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Wraps the statement or the result set.
+         *
+         * @param type - the wrapped interface.
+         * @param target - the statement or the result set.
+         * @param measures - the measures of the statement.
+         * @param <T> - the wrapped interface's type.
+         * @return the proxy.
+         */
+        private <T> T wrap(Class<T> type, Object target, Measures measures) {
+            return type.cast(Proxy.newProxyInstance(
+                    type.getClassLoader(), new Class<?>[] {type}, new Measured(target, measures)
+            ));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.job4j.cinema.event;
+
+import ru.job4j.cinema.model.Place;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded log of the places' changes, keyed by the hall version: every change bumps the version by one.
+ * Keeps the latest changes only, the oldest are overwritten, so the changes since a too old version can not be
+ * restored.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class ChangeLog {
+    /**
+     * The changed places, the ring buffer indexed by version.
+     */
+    private final Place[] places;
+
+    /**
+     * The version of the last logged change, the current hall version.
+     */
+    private volatile long last;
+
+    /**
+     * Creates the log of the specified capacity.
+     *
+     * @param capacity - the number of the latest changes to keep.
+     */
+    public ChangeLog(int capacity) {
+        this.places = new Place[capacity];
+    }
+
+    /**
+     * Logs the specified change and bumps the version.
+     *
+     * @param place - the changed place.
+     * @return the hall version, made by the change.
+     */
+    public synchronized long add(Place place) {
+        long version = this.last + 1;
+        this.places[(int) (version % this.places.length)] = place;
+        this.last = version;
+        return version;
+    }
+
+    /**
+     * Gets the version of the last logged change, without waiting for a concurrent change.
+     *
+     * @return the version of the last logged change, 0 if nothing has been logged.
+     */
+    public long getLast() {
+        return this.last;
+    }
+
+    /**
+     * Gets the places changed after the specified version, the last state of every place only.
+     *
+     * @param version - the version the client has.
+     * @return the changed places, or null if the version is unknown or the changes have been overwritten.
+     */
+    public synchronized List<Place> since(long version) {
+        List<Place> result = null;
+        if (version >= 0 && version <= this.last && this.last - version <= this.places.length) {
+            Map<Integer, Place> changes = new LinkedHashMap<Integer, Place>();
+            for (long current = version + 1; current <= this.last; current++) {
+                Place place = this.places[(int) (current % this.places.length)];
+                changes.put(place.getRow() << 16 | place.getNumber(), place);
+            }
+            result = new ArrayList<Place>(changes.values());
+        }
+        return result;
+    }
+}
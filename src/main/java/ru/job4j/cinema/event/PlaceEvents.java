@@ -0,0 +1,128 @@
+package ru.job4j.cinema.event;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.model.Place;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publisher of the places' state changes. The validate layer publishes every change it has made, the listeners
+ * are called in the publisher's thread, so they must be quick. Every publication bumps the version of the place's
+ * screening, so equal versions mean the screening's hall has not been changed through this node in between.
+ * The latest changes of every screening are kept in its own log, so a client with a recent version may get
+ * the changes only, and screenings do not wait for each other.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.3
+ * @since 18/10/2026
+ */
+public class PlaceEvents {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(PlaceEvents.class.getName());
+
+    /**
+     * The publisher singleton.
+     */
+    private static final PlaceEvents INSTANCE = new PlaceEvents();
+
+    /**
+     * The number of the latest changes kept in the log of a screening.
+     */
+    private static final int LOG_CAPACITY = 4096;
+
+    /**
+     * The log of a screening without changes.
+     */
+    private static final ChangeLog NO_CHANGES = new ChangeLog(1);
+
+    /**
+     * The subscribed listeners.
+     */
+    private final List<PlaceListener> listeners = new CopyOnWriteArrayList<PlaceListener>();
+
+    /**
+     * The logs of the latest changes of the changed screenings, their last versions are the screenings' versions.
+     */
+    private final Map<Integer, ChangeLog> changes = new ConcurrentHashMap<Integer, ChangeLog>();
+
+    /**
+     * No params constructor.
+     */
+    private PlaceEvents() {
+    }
+
+    /**
+     * Gets the publisher singleton.
+     *
+     * @return the publisher singleton.
+     */
+    public static PlaceEvents getInstanceOf() {
+        return PlaceEvents.INSTANCE;
+    }
+
+    /**
+     * Subscribes the specified listener.
+     *
+     * @param listener - the specified listener.
+     */
+    public void subscribe(PlaceListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes the specified listener.
+     *
+     * @param listener - the specified listener.
+     */
+    public void unsubscribe(PlaceListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Gets the current hall version of the specified screening. The version is read before the hall itself,
+     * so the hall read can only be newer than its version, never older.
+     *
+     * @param screening - the specified screening.
+     * @return the current hall version, 0 if the screening has not been changed.
+     */
+    public long getVersion(int screening) {
+        return this.changes.getOrDefault(screening, PlaceEvents.NO_CHANGES).getLast();
+    }
+
+    /**
+     * Gets the places of the specified screening, changed after the specified version, the last state of every
+     * place only.
+     *
+     * @param screening - the specified screening.
+     * @param since - the version the client has.
+     * @return the changed places, or null if the version is unknown or too old, and the client needs all places.
+     */
+    public List<Place> changesSince(int screening, long since) {
+        return this.changes.getOrDefault(screening, PlaceEvents.NO_CHANGES).since(since);
+    }
+
+    /**
+     * Bumps the version of the place's screening, logs the change and notifies all listeners about the place's
+     * change. A failed listener does not prevent others from being notified.
+     *
+     * @param place - the changed place with its screening, new state and price.
+     */
+    public void publish(Place place) {
+        this.changes.computeIfAbsent(
+                place.getScreening(), screening -> new ChangeLog(PlaceEvents.LOG_CAPACITY)
+        ).add(place);
+        for (PlaceListener listener : this.listeners) {
+            try {
+                listener.placeChanged(place);
+            } catch (RuntimeException e) {
+                PlaceEvents.LOG.error("Place listener failed.", e);
+            }
+        }
+    }
+}
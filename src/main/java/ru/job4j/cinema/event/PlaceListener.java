@@ -0,0 +1,19 @@
+package ru.job4j.cinema.event;
+
+import ru.job4j.cinema.model.Place;
+
+/**
+ * Listener of the places' state changes.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public interface PlaceListener {
+    /**
+     * Is called after the place's state has been changed in the storage.
+     *
+     * @param place - the changed place with its new state and price.
+     */
+    void placeChanged(Place place);
+}
@@ -0,0 +1,69 @@
+package ru.job4j.cinema.hold;
+
+import ru.job4j.cinema.model.Place;
+
+/**
+ * The booking of a place, carried by the client instead of the server's session: the booked place with its price,
+ * the holder's id of the place's hold and the booking's expiry. The booking is trusted only as signed by the
+ * {@link TokenSigner}.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class BookingToken {
+    /**
+     * The booked place with its price.
+     */
+    private final Place place;
+
+    /**
+     * The holder's id.
+     */
+    private final String holder;
+
+    /**
+     * The expiry, epoch seconds.
+     */
+    private final long expires;
+
+    /**
+     * Creates the booking.
+     *
+     * @param place - the booked place with its price.
+     * @param holder - the holder's id.
+     * @param expires - the expiry, epoch seconds.
+     */
+    public BookingToken(Place place, String holder, long expires) {
+        this.place = place;
+        this.holder = holder;
+        this.expires = expires;
+    }
+
+    /**
+     * Gets the booked place.
+     *
+     * @return the booked place with its price.
+     */
+    public Place getPlace() {
+        return this.place;
+    }
+
+    /**
+     * Gets the holder's id.
+     *
+     * @return the holder's id.
+     */
+    public String getHolder() {
+        return this.holder;
+    }
+
+    /**
+     * Gets the expiry.
+     *
+     * @return the expiry, epoch seconds.
+     */
+    public long getExpires() {
+        return this.expires;
+    }
+}
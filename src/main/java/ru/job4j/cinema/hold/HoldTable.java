@@ -0,0 +1,254 @@
+package ru.job4j.cinema.hold;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.model.Place;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory table of the seats' holds. A hold reserves a free seat for its holder for the time to live, nobody
+ * else can hold or buy the seat through this node meanwhile, and nothing is written to the database. The other
+ * nodes learn the hold from its signed booking, when the holder comes to them, and take it over. Holds expire by
+ * a timing wheel: every hold is put into the wheel's slot of its deadline tick, and every tick only the current slot is
+ * looked through, so the expiry costs nothing for the holds whose time has not come.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.3
+ * @since 18/10/2026
+ */
+public class HoldTable {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(HoldTable.class.getName());
+
+    /**
+     * The current holds, keyed by screening and place.
+     */
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<Long, Hold>();
+
+    /**
+     * The wheel's slots, the holds which may expire at the slot's ticks.
+     */
+    private final Queue<Hold>[] wheel;
+
+    /**
+     * The time to live of a hold, ticks.
+     */
+    private final long ttl;
+
+    /**
+     * The tick duration, ms.
+     */
+    private final long tick;
+
+    /**
+     * Notified about every expired hold.
+     */
+    private final Consumer<Place> expired;
+
+    /**
+     * The current tick.
+     */
+    private volatile long now;
+
+    /**
+     * The wheel's thread, null until started.
+     */
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates the hold table.
+     *
+     * @param ttl - the time to live of a hold, ms.
+     * @param tick - the tick duration, ms; holds live up to one tick longer than the time to live.
+     * @param slots - the number of the wheel's slots.
+     * @param expired - notified about every expired hold, in the wheel's thread.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HoldTable(long ttl, long tick, int slots, Consumer<Place> expired) {
+        this.ttl = Math.max(1, (ttl + tick - 1) / tick);
+        this.tick = tick;
+        this.expired = expired;
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            this.wheel[i] = new ConcurrentLinkedQueue<Hold>();
+        }
+    }
+
+    /**
+     * Starts the wheel's thread.
+     */
+    public synchronized void start() {
+        if (this.ticker == null) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "seat-holds");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ticker.scheduleAtFixedRate(this::advance, this.tick, this.tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the wheel's thread, the holds do not expire any more.
+     */
+    public synchronized void stop() {
+        if (this.ticker != null) {
+            this.ticker.shutdownNow();
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Holds the specified place for the specified holder. The holder's own hold is prolonged.
+     *
+     * @param place - the specified place with its screening.
+     * @param holder - the holder.
+     * @return true if the place is held by the holder now, false if it is held by somebody else.
+     */
+    public boolean hold(Place place, String holder) {
+        long key = HoldTable.key(place);
+        Hold hold = new Hold(key, place, holder, this.now + this.ttl);
+        Hold result = this.holds.merge(key, hold, (prev, next) -> prev.holder.equals(next.holder) ? next : prev);
+        if (result == hold) {
+            this.wheel[(int) (hold.deadline % this.wheel.length)].add(hold);
+        }
+        return result == hold;
+    }
+
+    /**
+     * Takes the specified place over for the specified holder for the specified time, whoever has held it.
+     *
+     * @param place - the specified place with its screening.
+     * @param holder - the holder.
+     * @param ttl - the time to live of the hold, ms.
+     * @return true if the place has not been held by anybody.
+     */
+    public boolean take(Place place, String holder, long ttl) {
+        long key = HoldTable.key(place);
+        Hold hold = new Hold(key, place, holder, this.now + Math.max(1, (ttl + this.tick - 1) / this.tick));
+        Hold prev = this.holds.put(key, hold);
+        this.wheel[(int) (hold.deadline % this.wheel.length)].add(hold);
+        return prev == null;
+    }
+
+    /**
+     * Checks if the specified place is held by anybody.
+     *
+     * @param place - the specified place with its screening.
+     * @return true if the place is held.
+     */
+    public boolean isHeld(Place place) {
+        return this.holds.containsKey(HoldTable.key(place));
+    }
+
+    /**
+     * Checks if the specified place is held by the specified holder.
+     *
+     * @param place - the specified place with its screening.
+     * @param holder - the holder.
+     * @return true if the place is held by the holder.
+     */
+    public boolean isHeldBy(Place place, String holder) {
+        Hold hold = this.holds.get(HoldTable.key(place));
+        return hold != null && hold.holder.equals(holder);
+    }
+
+    /**
+     * Releases the holder's hold of the specified place.
+     *
+     * @param place - the specified place with its screening.
+     * @param holder - the holder.
+     * @return true if the place was held by the holder and is released.
+     */
+    public boolean release(Place place, String holder) {
+        long key = HoldTable.key(place);
+        Hold hold = this.holds.get(key);
+        return hold != null && hold.holder.equals(holder) && this.holds.remove(key, hold);
+    }
+
+    /**
+     * Advances the wheel by one tick and expires the holds of the new tick. A slot also keeps the holds of the
+     * wheel's next rounds and the prolonged or released ones: they are skipped or dropped.
+     */
+    void advance() {
+        long current = this.now + 1;
+        Queue<Hold> slot = this.wheel[(int) (current % this.wheel.length)];
+        int size = slot.size();
+        for (int i = 0; i < size; i++) {
+            Hold hold = slot.poll();
+            if (hold == null) {
+                break;
+            }
+            if (hold.deadline > current) {
+                slot.add(hold);
+            } else if (this.holds.remove(hold.key, hold)) {
+                try {
+                    this.expired.accept(hold.place);
+                } catch (RuntimeException e) {
+                    HoldTable.LOG.error("Hold expiry listener failed.", e);
+                }
+            }
+        }
+        this.now = current;
+    }
+
+    /**
+     * Gets the key of the specified place.
+     *
+     * @param place - the specified place with its screening.
+     * @return the key, unique for the screening, row and number.
+     */
+    private static long key(Place place) {
+        return (long) place.getScreening() << 32 | place.getRow() << 16 | place.getNumber();
+    }
+
+    /**
+     * The hold of a place.
+     */
+    private static final class Hold {
+        /**
+         * The place's key.
+         */
+        private final long key;
+
+        /**
+         * The held place.
+         */
+        private final Place place;
+
+        /**
+         * The holder.
+         */
+        private final String holder;
+
+        /**
+         * The tick, the hold expires at.
+         */
+        private final long deadline;
+
+        /**
+         * Creates the hold.
+         *
+         * @param key - the place's key.
+         * @param place - the held place.
+         * @param holder - the holder.
+         * @param deadline - the tick, the hold expires at.
+         */
+        Hold(long key, Place place, String holder, long deadline) {
+            this.key = key;
+            this.place = place;
+            this.holder = holder;
+            this.deadline = deadline;
+        }
+    }
+}
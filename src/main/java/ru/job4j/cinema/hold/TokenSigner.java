@@ -0,0 +1,242 @@
+package ru.job4j.cinema.hold;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.model.Place;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Signs the bookings into the compact tokens and verifies them: the token is the booking's fields and their
+ * HMAC-SHA256, both base64url-encoded, so any node with the same key accepts it and no node keeps it. The key is
+ * the "token-secret" setting, it must be the same on all nodes; without it every node makes up its own key at the
+ * start and accepts only its own tokens. The booking expires with its hold, in "hold-ttl" seconds. The hold itself
+ * is kept in the memory of the node, which has booked the place, and the node, which gets the booking at the
+ * purchase, holds the place for the booking's holder till the booking's expiry. The other client-kept states are
+ * sealed the same way.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.3
+ * @since 18/10/2026
+ */
+public class TokenSigner {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(TokenSigner.class.getName());
+
+    /**
+     * The signature's algorithm.
+     */
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * The signature's length in the token, bytes.
+     */
+    private static final int SIGNATURE = 16;
+
+    /**
+     * The separator of the token's parts and of the booking's fields.
+     */
+    private static final String SEPARATOR = ".";
+
+    /**
+     * The number of the booking's fields.
+     */
+    private static final int FIELDS = 6;
+
+    /**
+     * The configuration's key of the signature's key.
+     */
+    private static final String CONFIG_SECRET = "token-secret";
+
+    /**
+     * The configuration's key of the bookings' time to live.
+     */
+    private static final String CONFIG_TTL = "hold-ttl";
+
+    /**
+     * The signer singleton.
+     */
+    private static final TokenSigner INSTANCE = new TokenSigner(
+            Config.getInstanceOf().get(TokenSigner.CONFIG_SECRET, null),
+            Long.parseLong(Config.getInstanceOf().get(TokenSigner.CONFIG_TTL, "300"))
+    );
+
+    /**
+     * The key.
+     */
+    private final SecretKeySpec key;
+
+    /**
+     * The bookings' time to live, s.
+     */
+    private final long ttl;
+
+    /**
+     * The signature's calculator of every thread.
+     */
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::mac);
+
+    /**
+     * Creates the signer.
+     *
+     * @param secret - the key or null to make up a random key.
+     * @param ttl - the bookings' time to live, s.
+     */
+    public TokenSigner(String secret, long ttl) {
+        byte[] bytes;
+        if (secret == null || secret.isEmpty()) {
+            TokenSigner.LOG.warn("No token-secret is set, the bookings are accepted by this node only.");
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+        } else {
+            bytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(bytes, TokenSigner.ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the signer singleton.
+     *
+     * @return the signer singleton.
+     */
+    public static TokenSigner getInstanceOf() {
+        return TokenSigner.INSTANCE;
+    }
+
+    /**
+     * Makes up a new holder's id.
+     *
+     * @return the holder's id.
+     */
+    public static String newHolder() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Gets the bookings' time to live.
+     *
+     * @return the bookings' time to live, s.
+     */
+    public long getTtl() {
+        return this.ttl;
+    }
+
+    /**
+     * Books the place for the holder till the hold's expiry.
+     *
+     * @param place - the place with its price.
+     * @param holder - the holder's id.
+     * @param now - the current time, epoch seconds.
+     * @return the signed token.
+     */
+    public String sign(Place place, String holder, long now) {
+        return this.seal(String.join(
+                TokenSigner.SEPARATOR,
+                String.valueOf(place.getScreening()), String.valueOf(place.getRow()), String.valueOf(place.getNumber()),
+                String.valueOf(place.getPrice()), String.valueOf(now + this.ttl), holder
+        ));
+    }
+
+    /**
+     * Signs the payload into the token.
+     *
+     * @param payload - the payload.
+     * @return the signed token.
+     */
+    public String seal(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(bytes) + TokenSigner.SEPARATOR + encoder.encodeToString(this.signature(bytes));
+    }
+
+    /**
+     * Verifies the token and gets its payload.
+     *
+     * @param token - the token or null.
+     * @return the payload or null if the token is absent, malformed or forged.
+     */
+    public String open(String token) {
+        String result = null;
+        int dot = token == null ? -1 : token.indexOf(TokenSigner.SEPARATOR);
+        if (dot > 0) {
+            try {
+                Base64.Decoder decoder = Base64.getUrlDecoder();
+                byte[] payload = decoder.decode(token.substring(0, dot));
+                if (MessageDigest.isEqual(this.signature(payload), decoder.decode(token.substring(dot + 1)))) {
+                    result = new String(payload, StandardCharsets.UTF_8);
+                }
+            } catch (IllegalArgumentException e) {
+                TokenSigner.LOG.warn("Malformed token.");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Verifies the token.
+     *
+     * @param token - the token or null.
+     * @param now - the current time, epoch seconds.
+     * @return the booking or null if the token is absent, malformed, forged or expired.
+     */
+    public BookingToken verify(String token, long now) {
+        BookingToken result = null;
+        String payload = this.open(token);
+        if (payload != null) {
+            try {
+                String[] fields = payload.split("\\.", TokenSigner.FIELDS);
+                long expires = Long.parseLong(fields[4]);
+                if (expires > now) {
+                    result = new BookingToken(
+                            new Place(
+                                    Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                                    Integer.parseInt(fields[2]), Place.FREE, Integer.parseInt(fields[3])
+                            ),
+                            fields[5],
+                            expires
+                    );
+                }
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                TokenSigner.LOG.warn("Malformed booking token.");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Signs the payload.
+     *
+     * @param payload - the payload.
+     * @return the payload's signature.
+     */
+    private byte[] signature(byte[] payload) {
+        return Arrays.copyOf(this.macs.get().doFinal(payload), TokenSigner.SIGNATURE);
+    }
+
+    /**
+     * Creates the signature's calculator.
+     *
+     * @return the calculator.
+     */
+    private Mac mac() {
+        try {
+            Mac result = Mac.getInstance(TokenSigner.ALGORITHM);
+            result.init(this.key);
+            return result;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    }
+}
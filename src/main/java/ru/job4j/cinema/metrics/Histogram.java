@@ -0,0 +1,147 @@
+package ru.job4j.cinema.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of the non-negative values, e.g. latencies in nanoseconds. Like the HDR histogram it keeps
+ * the same relative precision for all magnitudes: every power of two is split into 16 buckets, so a percentile is
+ * off by no more than 1/16 of its value. Recording a value is a few bit operations and one atomic increment, no
+ * allocations and no locks, the memory is fixed, about 8 KB.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Histogram {
+    /**
+     * The number of the bits of the sub-bucket in a power of two.
+     */
+    private static final int SUB_BITS = 4;
+
+    /**
+     * The number of the buckets in a power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << Histogram.SUB_BITS;
+
+    /**
+     * The count of the values of every bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - Histogram.SUB_BITS) * Histogram.SUB_BUCKETS);
+
+    /**
+     * The count of all values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of all values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The maximal value.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the specified value, the negative value is recorded as zero.
+     *
+     * @param value - the specified value.
+     */
+    public void record(long value) {
+        long actual = Math.max(0, value);
+        this.counts.incrementAndGet(Histogram.bucket(actual));
+        this.count.increment();
+        this.sum.add(actual);
+        if (actual > this.max.get()) {
+            this.max.accumulateAndGet(actual, Math::max);
+        }
+    }
+
+    /**
+     * Gets the count of the recorded values.
+     *
+     * @return the count of the recorded values.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return the sum of the recorded values.
+     */
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Gets the maximal recorded value.
+     *
+     * @return the maximal recorded value, 0 if there are no values.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Gets the value, which the specified percent of the recorded values are not greater than.
+     *
+     * @param percentile - the specified percent, from 0 to 100.
+     * @return the upper bound of the value's bucket, but not greater than the maximal value; 0 if there are no
+     * values.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[this.counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        long result = 0;
+        if (total > 0) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            int index = 0;
+            while (index < snapshot.length - 1 && seen + snapshot[index] < rank) {
+                seen += snapshot[index++];
+            }
+            result = Math.min(Histogram.upperBound(index), this.getMax());
+        }
+        return result;
+    }
+
+    /**
+     * Finds the bucket of the specified value.
+     *
+     * @param value - the non-negative value.
+     * @return the bucket's index.
+     */
+    private static int bucket(long value) {
+        int result = (int) value;
+        if (value >= Histogram.SUB_BUCKETS) {
+            int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - Histogram.SUB_BITS;
+            result = (shift + 1) * Histogram.SUB_BUCKETS + (int) (value >>> shift) - Histogram.SUB_BUCKETS;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the greatest value of the specified bucket.
+     *
+     * @param bucket - the bucket's index.
+     * @return the greatest value of the bucket.
+     */
+    private static long upperBound(int bucket) {
+        long result = bucket;
+        if (bucket >= Histogram.SUB_BUCKETS) {
+            int shift = bucket / Histogram.SUB_BUCKETS - 1;
+            long mantissa = bucket % Histogram.SUB_BUCKETS + Histogram.SUB_BUCKETS;
+            result = ((mantissa + 1) << shift) - 1;
+        }
+        return result;
+    }
+}
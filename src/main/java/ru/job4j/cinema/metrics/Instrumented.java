@@ -0,0 +1,84 @@
+package ru.job4j.cinema.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures every method of an interface: the proxy times every call of the target's method and counts the thrown
+ * exceptions by their type. The timers of all methods are found once, a call costs two clock reads and a
+ * reflective call more.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Instrumented implements InvocationHandler {
+    /**
+     * The measured object.
+     */
+    private final Object target;
+
+    /**
+     * The timers of the interface's methods.
+     */
+    private final Map<Method, Timer> timers = new HashMap<Method, Timer>();
+
+    /**
+     * Creates the handler.
+     *
+     * @param type - the interface.
+     * @param target - the measured object.
+     * @param family - the family of the methods' timers, labeled by the method's name.
+     */
+    private Instrumented(Class<?> type, Object target, Metrics.Family family) {
+        this.target = target;
+        for (Method method : type.getMethods()) {
+            this.timers.put(method, family.timer(String.format("method=\"%s\"", method.getName())));
+        }
+    }
+
+    /**
+     * Wraps the specified object by the proxy, measuring every method of the specified interface.
+     *
+     * @param type - the interface.
+     * @param target - the measured object.
+     * @param family - the family of the methods' timers, labeled by the method's name.
+     * @param <T> - the interface's type.
+     * @return the proxy.
+     */
+    public static <T> T wrap(Class<T> type, T target, Metrics.Family family) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(), new Class<?>[] {type}, new Instrumented(type, target, family)
+        ));
+    }
+
+    /**
+     * Calls the target's method and measures it.
+     *
+     * @param proxy - the proxy.
+     * @param method - the called method.
+     * @param args - the arguments.
+     * @return the method's result.
+     * @throws Throwable the method's exception.
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Timer timer = this.timers.get(method);
+        if (timer == null) {
+            return method.invoke(this.target, args);
+        }
+        long start = System.nanoTime();
+        try {
+            return method.invoke(this.target, args);
+        } catch (InvocationTargetException e) {
+            timer.error(e.getCause().getClass().getSimpleName());
+            throw e.getCause();
+        } finally {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+}
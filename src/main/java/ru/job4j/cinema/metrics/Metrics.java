@@ -0,0 +1,258 @@
+package ru.job4j.cinema.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The registry of the application's timers, written in the Prometheus text format. The timers are grouped by the
+ * families, a family is one metric with the timers told apart by their labels. Every family is written as the
+ * summary of the latencies in seconds with the 0.5, 0.99 and 0.999 quantiles, the count and the sum, so the
+ * throughput is the rate of the count, and as the counter of the errors by their kind. The counters are grouped the
+ * same way.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class Metrics {
+    /**
+     * The written quantiles.
+     */
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final double NANOS = 1e9;
+
+    /**
+     * The registry singleton.
+     */
+    private static final Metrics INSTANCE = new Metrics();
+
+    /**
+     * The families by their names.
+     */
+    private final Map<String, Family> families = new ConcurrentSkipListMap<String, Family>();
+
+    /**
+     * The counters by their names.
+     */
+    private final Map<String, Counters> counters = new ConcurrentSkipListMap<String, Counters>();
+
+    /**
+     * Gets the registry singleton.
+     *
+     * @return the registry singleton.
+     */
+    public static Metrics getInstanceOf() {
+        return Metrics.INSTANCE;
+    }
+
+    /**
+     * Gets the family of the specified name, registering it if there is no such.
+     *
+     * @param name - the metric's name, the latencies are "name_seconds" and the errors are "name_errors_total".
+     * @param help - the metric's description.
+     * @param kind - the label's name of the errors' kind.
+     * @return the family.
+     */
+    public Family family(String name, String help, String kind) {
+        return this.families.computeIfAbsent(name, key -> new Family(name, help, kind));
+    }
+
+    /**
+     * Gets the counters of the specified name, registering them if there are no such.
+     *
+     * @param name - the metric's name, ending with "_total".
+     * @param help - the metric's description.
+     * @return the counters.
+     */
+    public Counters counters(String name, String help) {
+        return this.counters.computeIfAbsent(name, key -> new Counters(name, help));
+    }
+
+    /**
+     * Writes all families and counters in the Prometheus text format.
+     *
+     * @param out - the output.
+     */
+    public void write(StringBuilder out) {
+        for (Family family : this.families.values()) {
+            family.write(out);
+        }
+        for (Counters counter : this.counters.values()) {
+            counter.write(out);
+        }
+    }
+
+    /**
+     * Escapes the label's value: the backslash, the double quote and the line feed.
+     *
+     * @param value - the label's value.
+     * @return the escaped value.
+     */
+    public static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Writes the specified latencies as the summary in seconds.
+     *
+     * @param out - the output.
+     * @param name - the summary's name.
+     * @param labels - the labels, e.g. method="GET", or the empty string.
+     * @param latencies - the latencies, ns.
+     */
+    public static void writeSummary(StringBuilder out, String name, String labels, Histogram latencies) {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : Metrics.QUANTILES) {
+            out.append(name).append('{').append(labels).append(separator).append("quantile=\"").append(quantile)
+                    .append("\"} ").append(latencies.getValueAtPercentile(quantile * 100) / Metrics.NANOS).append('\n');
+        }
+        String braced = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_count").append(braced).append(' ').append(latencies.getCount()).append('\n');
+        out.append(name).append("_sum").append(braced).append(' ').append(latencies.getSum() / Metrics.NANOS).append('\n');
+    }
+
+    /**
+     * Writes the header of a metric.
+     *
+     * @param out - the output.
+     * @param name - the metric's name.
+     * @param help - the metric's description.
+     * @param type - the metric's type.
+     */
+    public static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * The timers of one metric, told apart by their labels.
+     */
+    public static final class Family {
+        /**
+         * The metric's name.
+         */
+        private final String name;
+
+        /**
+         * The metric's description.
+         */
+        private final String help;
+
+        /**
+         * The label's name of the errors' kind.
+         */
+        private final String kind;
+
+        /**
+         * The timers by their labels.
+         */
+        private final Map<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+
+        /**
+         * Creates the family.
+         *
+         * @param name - the metric's name.
+         * @param help - the metric's description.
+         * @param kind - the label's name of the errors' kind.
+         */
+        private Family(String name, String help, String kind) {
+            this.name = name;
+            this.help = help;
+            this.kind = kind;
+        }
+
+        /**
+         * Gets the timer of the specified labels, registering it if there is no such.
+         *
+         * @param labels - the labels, e.g. method="GET".
+         * @return the timer.
+         */
+        public Timer timer(String labels) {
+            return this.timers.computeIfAbsent(labels, key -> new Timer());
+        }
+
+        /**
+         * Writes the family's summary and errors' counter.
+         *
+         * @param out - the output.
+         */
+        private void write(StringBuilder out) {
+            Map<String, Timer> sorted = new TreeMap<String, Timer>(this.timers);
+            String seconds = this.name + "_seconds";
+            Metrics.writeHeader(out, seconds, this.help, "summary");
+            for (Map.Entry<String, Timer> timer : sorted.entrySet()) {
+                Metrics.writeSummary(out, seconds, timer.getKey(), timer.getValue().getLatencies());
+            }
+            String errors = this.name + "_errors_total";
+            Metrics.writeHeader(out, errors, this.help + " Errors by " + this.kind + ".", "counter");
+            for (Map.Entry<String, Timer> timer : sorted.entrySet()) {
+                for (Map.Entry<String, LongAdder> error : new TreeMap<String, LongAdder>(timer.getValue().getErrors()).entrySet()) {
+                    out.append(errors).append('{').append(timer.getKey()).append(timer.getKey().isEmpty() ? "" : ",")
+                            .append(this.kind).append("=\"").append(error.getKey()).append("\"} ")
+                            .append(error.getValue().sum()).append('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * The counters of one metric, told apart by their labels.
+     */
+    public static final class Counters {
+        /**
+         * The metric's name.
+         */
+        private final String name;
+
+        /**
+         * The metric's description.
+         */
+        private final String help;
+
+        /**
+         * The counters by their labels.
+         */
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+
+        /**
+         * Creates the counters.
+         *
+         * @param name - the metric's name.
+         * @param help - the metric's description.
+         */
+        private Counters(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        /**
+         * Gets the counter of the specified labels, registering it if there is no such.
+         *
+         * @param labels - the labels, e.g. method="GET".
+         * @return the counter.
+         */
+        public LongAdder counter(String labels) {
+            return this.counters.computeIfAbsent(labels, key -> new LongAdder());
+        }
+
+        /**
+         * Writes the counters.
+         *
+         * @param out - the output.
+         */
+        private void write(StringBuilder out) {
+            Metrics.writeHeader(out, this.name, this.help, "counter");
+            for (Map.Entry<String, LongAdder> counter : new TreeMap<String, LongAdder>(this.counters).entrySet()) {
+                out.append(this.name).append('{').append(counter.getKey()).append("} ")
+                        .append(counter.getValue().sum()).append('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.job4j.cinema.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latencies of an operation and its errors by their kind.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Timer {
+    /**
+     * The latencies, ns.
+     */
+    private final Histogram latencies = new Histogram();
+
+    /**
+     * The number of the errors by their kind.
+     */
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<String, LongAdder>();
+
+    /**
+     * Records the latency of a call.
+     *
+     * @param nanos - the latency, ns.
+     */
+    public void record(long nanos) {
+        this.latencies.record(nanos);
+    }
+
+    /**
+     * Counts an error of the specified kind.
+     *
+     * @param kind - the kind of the error, e.g. the exception's type.
+     */
+    public void error(String kind) {
+        this.errors.computeIfAbsent(kind, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the latencies.
+     *
+     * @return the latencies, ns.
+     */
+    public Histogram getLatencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Gets the errors.
+     *
+     * @return the number of the errors by their kind.
+     */
+    public Map<String, LongAdder> getErrors() {
+        return this.errors;
+    }
+}
@@ -0,0 +1,243 @@
+package ru.job4j.cinema.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The index of the free seats of a screening, finding the best seats together. Every row keeps a bitset of its
+ * free seats and the bitsets of its seats by price, so the seats, which start a run of the needed length, are
+ * found by a few shifts and ands of the row's words. The rows are looked through from the middle of the hall,
+ * and the search stops as soon as the rest of the rows can not be closer to the center. The index is not
+ * thread-safe, it is updated by the hall's changes.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class FreeSeatIndex {
+    /**
+     * The number of seat bits in one long word.
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * The screening.
+     */
+    private final int screening;
+
+    /**
+     * The hall's geometry.
+     */
+    private final HallGeometry geometry;
+
+    /**
+     * Bits of the free seats of every row, indexed by row and the seat's number - 1.
+     */
+    private final long[][] free;
+
+    /**
+     * Bits of the seats of every row, which cost no more than the zone's price, indexed by row and zone.
+     */
+    private final long[][][] cheap;
+
+    /**
+     * The rows in the order of their distance from the middle of the hall.
+     */
+    private final int[] rowsByCenter;
+
+    /**
+     * The hall version the index reflects.
+     */
+    private long version;
+
+    /**
+     * Builds the index from the specified places.
+     *
+     * @param screening - the screening.
+     * @param places - all places of the screening.
+     * @param version - the hall version the places reflect.
+     */
+    public FreeSeatIndex(int screening, List<Place> places, long version) {
+        this.screening = screening;
+        this.geometry = new HallGeometry(places);
+        this.version = version;
+        int rows = this.geometry.getRows();
+        int zones = this.geometry.getZonePrices().length;
+        this.free = new long[rows + 1][];
+        this.cheap = new long[rows + 1][zones][];
+        for (int row = 1; row <= rows; row++) {
+            int words = (this.geometry.getSeats(row) + FreeSeatIndex.WORD_BITS - 1) / FreeSeatIndex.WORD_BITS;
+            this.free[row] = new long[words];
+            for (int zone = 0; zone < zones; zone++) {
+                this.cheap[row][zone] = new long[words];
+            }
+            int first = this.geometry.firstIndex(row);
+            for (int number = 0; number < this.geometry.getSeats(row); number++) {
+                if (this.geometry.isPresent(first + number)) {
+                    for (int zone = this.geometry.getZone(first + number); zone < zones; zone++) {
+                        this.cheap[row][zone][number / FreeSeatIndex.WORD_BITS] |= 1L << number;
+                    }
+                }
+            }
+        }
+        for (Place place : places) {
+            this.apply(place);
+        }
+        Integer[] order = new Integer[rows];
+        for (int row = 1; row <= rows; row++) {
+            order[row - 1] = row;
+        }
+        Arrays.sort(order, (first, second) -> Integer.compare(this.distance(first), this.distance(second)));
+        this.rowsByCenter = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            this.rowsByCenter[i] = order[i];
+        }
+    }
+
+    /**
+     * Gets the screening.
+     *
+     * @return the screening.
+     */
+    public int getScreening() {
+        return this.screening;
+    }
+
+    /**
+     * Gets the hall version the index reflects.
+     *
+     * @return the hall version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Sets the hall version the index reflects.
+     *
+     * @param version - the hall version.
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Applies the new state of the specified place. The places out of the hall are ignored.
+     *
+     * @param place - the changed place.
+     */
+    public void apply(Place place) {
+        int index = this.geometry.indexOf(place);
+        if (index >= 0) {
+            int number = place.getNumber() - 1;
+            long[] row = this.free[place.getRow()];
+            if (place.isEmpty()) {
+                row[number / FreeSeatIndex.WORD_BITS] |= 1L << number;
+            } else {
+                row[number / FreeSeatIndex.WORD_BITS] &= ~(1L << number);
+            }
+        }
+    }
+
+    /**
+     * Finds the specified number of free seats together in one row, suitable for the preferences and as close
+     * to the center of the hall as possible. The distances from the center along a row and across the rows are
+     * summed, in seats. Gaps in a row break the seats apart.
+     *
+     * @param count - the number of the seats.
+     * @param preferences - the preferences.
+     * @return the found places in the number order, or the empty list if there are no such seats together.
+     */
+    public List<Place> findBest(int count, SeatPreferences preferences) {
+        int zone = Arrays.binarySearch(this.geometry.getZonePrices(), preferences.getMaxPrice());
+        if (zone < 0) {
+            zone = -zone - 2;
+        }
+        int bestRow = 0;
+        int bestStart = 0;
+        int bestScore = Integer.MAX_VALUE;
+        for (int i = 0; zone >= 0 && i < this.rowsByCenter.length; i++) {
+            int row = this.rowsByCenter[i];
+            int distance = this.distance(row);
+            if (distance >= bestScore) {
+                break;
+            }
+            int seats = this.geometry.getSeats(row);
+            if (row < preferences.getFirstRow() || row > preferences.getLastRow() || seats < count) {
+                continue;
+            }
+            long[] starts = FreeSeatIndex.runStarts(this.free[row], this.cheap[row][zone], count);
+            for (int word = 0; word < starts.length; word++) {
+                long bits = starts[word];
+                while (bits != 0) {
+                    int start = word * FreeSeatIndex.WORD_BITS + Long.numberOfTrailingZeros(bits);
+                    int score = distance + Math.abs(2 * start + count - seats);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = row;
+                        bestStart = start;
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+        List<Place> result = Collections.emptyList();
+        if (bestRow > 0) {
+            result = new ArrayList<Place>(count);
+            int first = this.geometry.firstIndex(bestRow);
+            for (int number = bestStart; number < bestStart + count; number++) {
+                result.add(new Place(
+                        this.screening, bestRow, number + 1, Place.FREE, this.geometry.getPrice(first + number)
+                ));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the distance of the specified row from the middle of the hall, in half rows.
+     *
+     * @param row - the specified row.
+     * @return the distance.
+     */
+    private int distance(int row) {
+        return Math.abs(2 * row - this.geometry.getRows() - 1);
+    }
+
+    /**
+     * Finds the seats, starting a run of the specified length of the seats, which are set in both bitsets.
+     * A run of the doubled length is the run, which starts a run of the same length at its end, so the runs
+     * grow twice by every step.
+     *
+     * @param free - the free seats.
+     * @param cheap - the suitable seats.
+     * @param count - the length of the run.
+     * @return the bits of the runs' first seats.
+     */
+    private static long[] runStarts(long[] free, long[] cheap, int count) {
+        long[] result = new long[free.length];
+        for (int word = 0; word < free.length; word++) {
+            result[word] = free[word] & cheap[word];
+        }
+        int length = 1;
+        while (length < count) {
+            int shift = Math.min(length, count - length);
+            int words = shift / FreeSeatIndex.WORD_BITS;
+            int bits = shift % FreeSeatIndex.WORD_BITS;
+            for (int word = 0; word < result.length; word++) {
+                long shifted = 0;
+                if (word + words < result.length) {
+                    shifted = result[word + words] >>> bits;
+                    if (bits != 0 && word + words + 1 < result.length) {
+                        shifted |= result[word + words + 1] << (FreeSeatIndex.WORD_BITS - bits);
+                    }
+                }
+                result[word] &= shifted;
+            }
+            length += shift;
+        }
+        return result;
+    }
+}
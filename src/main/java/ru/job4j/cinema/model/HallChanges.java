@@ -0,0 +1,68 @@
+package ru.job4j.cinema.model;
+
+import java.util.List;
+
+/**
+ * The hall's changes since the client's version: either the changed places only, or all places if the client's
+ * version is unknown or too old.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class HallChanges {
+    /**
+     * The hall version the changes lead to, the client sends it back to get the next changes.
+     */
+    private final String version;
+
+    /**
+     * True if the places are all places of the hall, false if the changed places only.
+     */
+    private final boolean full;
+
+    /**
+     * The places.
+     */
+    private final List<Place> places;
+
+    /**
+     * Creates the hall's changes.
+     *
+     * @param version - the hall version the changes lead to.
+     * @param full - true if the places are all places of the hall.
+     * @param places - the places.
+     */
+    public HallChanges(String version, boolean full, List<Place> places) {
+        this.version = version;
+        this.full = full;
+        this.places = places;
+    }
+
+    /**
+     * Gets the hall version the changes lead to.
+     *
+     * @return the hall version.
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Checks if the places are all places of the hall.
+     *
+     * @return true if the places are all places of the hall, false if the changed places only.
+     */
+    public boolean isFull() {
+        return this.full;
+    }
+
+    /**
+     * Gets the places.
+     *
+     * @return the places.
+     */
+    public List<Place> getPlaces() {
+        return this.places;
+    }
+}
@@ -0,0 +1,209 @@
+package ru.job4j.cinema.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hall geometry description (rows; seats per row; price zones). Seats are numbered row by row with a flat seat
+ * index, so every range check and price lookup is a couple of array reads. The geometry is immutable, a changed
+ * layout means a new geometry.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class HallGeometry {
+    /**
+     * The number of seat bits in one long word.
+     */
+    private static final int WORD_BITS = 64;
+
+    /**
+     * The first seat index of each row, indexed by row; the extra last element closes the last row.
+     */
+    private final int[] offsets;
+
+    /**
+     * Bits of the seats which really exist in the hall, a row may have gaps.
+     */
+    private final long[] present;
+
+    /**
+     * The price zone of each seat, indexed by seat index.
+     */
+    private final int[] zones;
+
+    /**
+     * Prices of the zones in ascending order, indexed by zone.
+     */
+    private final int[] zonePrices;
+
+    /**
+     * Builds the geometry of the hall, containing the specified places.
+     *
+     * @param places - all places of the hall.
+     */
+    public HallGeometry(List<Place> places) {
+        int rows = 0;
+        for (Place place : places) {
+            rows = Math.max(rows, place.getRow());
+        }
+        int[] widths = new int[rows + 1];
+        int[] prices = new int[places.size()];
+        int count = 0;
+        for (Place place : places) {
+            if (place.getRow() > 0 && place.getNumber() > 0) {
+                widths[place.getRow()] = Math.max(widths[place.getRow()], place.getNumber());
+                prices[count++] = place.getPrice();
+            }
+        }
+        this.offsets = new int[rows + 2];
+        for (int row = 1; row <= rows; row++) {
+            this.offsets[row + 1] = this.offsets[row] + widths[row];
+        }
+        this.zonePrices = Arrays.stream(prices, 0, count).sorted().distinct().toArray();
+        this.present = new long[(this.size() + HallGeometry.WORD_BITS - 1) / HallGeometry.WORD_BITS];
+        this.zones = new int[this.size()];
+        for (Place place : places) {
+            int index = this.offsetOf(place.getRow(), place.getNumber());
+            if (index >= 0) {
+                this.present[index / HallGeometry.WORD_BITS] |= 1L << index;
+                this.zones[index] = Arrays.binarySearch(this.zonePrices, place.getPrice());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return this.offsets.length - 2;
+    }
+
+    /**
+     * Gets the number of seat positions in the specified row, including gaps.
+     *
+     * @param row - the specified row.
+     * @return the number of seat positions in the row, 0 if there is no such row.
+     */
+    public int getSeats(int row) {
+        return row > 0 && row <= this.getRows() ? this.offsets[row + 1] - this.offsets[row] : 0;
+    }
+
+    /**
+     * Gets the number of seat positions in the hall, including gaps. Seat indexes are less than this value.
+     *
+     * @return the number of seat positions in the hall.
+     */
+    public int size() {
+        return this.offsets[this.offsets.length - 1];
+    }
+
+    /**
+     * Gets the seat index of the first seat of the specified row.
+     *
+     * @param row - the specified row, from 1 to the number of rows.
+     * @return the seat index of the row's first position.
+     */
+    public int firstIndex(int row) {
+        return this.offsets[row];
+    }
+
+    /**
+     * Checks if the specified place lies in the hall.
+     *
+     * @param place - the specified place.
+     * @return true if there is such a seat in the hall.
+     */
+    public boolean contains(Place place) {
+        return this.indexOf(place.getRow(), place.getNumber()) >= 0;
+    }
+
+    /**
+     * Gets the seat index of the specified place.
+     *
+     * @param place - the specified place.
+     * @return the seat index or -1 if there is no such seat in the hall.
+     */
+    public int indexOf(Place place) {
+        return this.indexOf(place.getRow(), place.getNumber());
+    }
+
+    /**
+     * Gets the seat index of the specified position.
+     *
+     * @param row - the row position.
+     * @param number - the number position.
+     * @return the seat index or -1 if there is no such seat in the hall.
+     */
+    public int indexOf(int row, int number) {
+        int index = this.offsetOf(row, number);
+        return index >= 0 && this.isPresent(index) ? index : -1;
+    }
+
+    /**
+     * Checks if there is a seat with the specified index, or it is a gap in a row.
+     *
+     * @param index - the seat index.
+     * @return true if the seat exists.
+     */
+    public boolean isPresent(int index) {
+        return (this.present[index / HallGeometry.WORD_BITS] & 1L << index) != 0;
+    }
+
+    /**
+     * Gets the price zone of the specified seat.
+     *
+     * @param index - the seat index.
+     * @return the seat's price zone.
+     */
+    public int getZone(int index) {
+        return this.zones[index];
+    }
+
+    /**
+     * Gets the price of the specified seat.
+     *
+     * @param index - the seat index.
+     * @return the seat's price.
+     */
+    public int getPrice(int index) {
+        return this.zonePrices[this.zones[index]];
+    }
+
+    /**
+     * Gets prices of all zones, indexed by zone.
+     *
+     * @return the copy of zones' prices.
+     */
+    public int[] getZonePrices() {
+        return this.zonePrices.clone();
+    }
+
+    /**
+     * Gets the seat index of the specified position without the gaps check.
+     *
+     * @param row - the row position.
+     * @param number - the number position.
+     * @return the seat index or -1 if the position lies outside of the hall's rows or numbers range.
+     */
+    private int offsetOf(int row, int number) {
+        int result = -1;
+        if (number > 0 && number <= this.getSeats(row)) {
+            result = this.offsets[row] + number - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Presents the geometry in a String-view.
+     *
+     * @return the String presentation of the geometry.
+     */
+    @Override
+    public String toString() {
+        return String.format("HallGeometry {rows=%d, seats=%d, zones=%s}", this.getRows(), this.size(), Arrays.toString(this.zonePrices));
+    }
+}
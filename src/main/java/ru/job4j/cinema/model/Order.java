@@ -0,0 +1,61 @@
+package ru.job4j.cinema.model;
+
+import java.util.List;
+
+/**
+ * Order's model description (places; person). The places of an order are sold together or none of them.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Order {
+    /**
+     * The ordered places.
+     */
+    private final List<Place> places;
+
+    /**
+     * The person whose orders the places.
+     */
+    private final Person person;
+
+    /**
+     * Order's constructor. Creates a new order with the specified params.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     */
+    public Order(List<Place> places, Person person) {
+        this.places = places;
+        this.person = person;
+    }
+
+    /**
+     * Gets the ordered places.
+     *
+     * @return the ordered places.
+     */
+    public List<Place> getPlaces() {
+        return this.places;
+    }
+
+    /**
+     * Gets the person whose orders the places.
+     *
+     * @return the person whose orders the places.
+     */
+    public Person getPerson() {
+        return this.person;
+    }
+
+    /**
+     * Presents the order-model in a String-view.
+     *
+     * @return the String presentation of the order-model.
+     */
+    @Override
+    public String toString() {
+        return String.format("Order {places=%s, person=%s}", this.places, this.person);
+    }
+}
@@ -3,10 +3,10 @@ package ru.job4j.cinema.model;
 import java.util.Objects;
 
 /**
- * Place description (row, number in row; is the place free or busy).
+ * Place description (screening; row, number in row; is the place free or busy).
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.1
+ * @version 1.2
  * @since 29/04/2019
  */
 public class Place {
@@ -15,6 +15,11 @@ public class Place {
      */
     private static final int DEFAULT_PRICE = 500;
 
+    /**
+     * The screening of the places, created without screening: the first one.
+     */
+    public static final int DEFAULT_SCREENING = 1;
+
     /**
      * The constant for constructor, when creating place is free.
      */
@@ -25,6 +30,11 @@ public class Place {
      */
     public static final boolean BUSY = false;
 
+    /**
+     * The screening, the place is sold for.
+     */
+    private int screening = Place.DEFAULT_SCREENING;
+
     /**
      * The specified row position.
      */
@@ -87,6 +97,38 @@ public class Place {
         this.price = price;
     }
 
+    /**
+     * Place constructor.
+     *
+     * @param screening - the screening, the place is sold for.
+     * @param row - the specified row position.
+     * @param number - the specified number position.
+     * @param isEmpty - true if place is free, false either.
+     * @param price - the specified place's price.
+     */
+    public Place(int screening, int row, int number, boolean isEmpty, int price) {
+        this(row, number, isEmpty, price);
+        this.screening = screening;
+    }
+
+    /**
+     * Gets the screening, the place is sold for.
+     *
+     * @return the place's screening.
+     */
+    public int getScreening() {
+        return this.screening;
+    }
+
+    /**
+     * Changes the screening, the place is sold for.
+     *
+     * @param screening - the new specified screening.
+     */
+    public void setScreening(int screening) {
+        this.screening = screening;
+    }
+
     /**
      * Gets the place's row position.
      *
@@ -156,7 +198,8 @@ public class Place {
             result = false;
         } else {
             Place place = (Place) o;
-            result = this.row == place.row && this.number == place.number && this.isEmpty == place.isEmpty;
+            result = this.screening == place.screening && this.row == place.row && this.number == place.number
+                    && this.isEmpty == place.isEmpty;
         }
         return result;
     }
@@ -168,7 +211,7 @@ public class Place {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.row, this.number, this.isEmpty);
+        return Objects.hash(this.screening, this.row, this.number, this.isEmpty);
     }
 
     /**
@@ -178,6 +221,9 @@ public class Place {
      */
     @Override
     public String toString() {
-        return String.format("Place {row=%d, number=%d, isEmpty=%b, price=%d}%n", this.row, this.number, this.isEmpty, this.price);
+        return String.format(
+                "Place {screening=%d, row=%d, number=%d, isEmpty=%b, price=%d}%n",
+                this.screening, this.row, this.number, this.isEmpty, this.price
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package ru.job4j.cinema.model;
+
+/**
+ * The client's place in the waiting room: admitted or not, how many clients are ahead, the expected wait and the
+ * pause before the next check.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class QueueStatus {
+    /**
+     * True if the client may enter.
+     */
+    private final boolean admitted;
+
+    /**
+     * The number of the waiting clients ahead.
+     */
+    private final long ahead;
+
+    /**
+     * The expected wait, s.
+     */
+    private final long wait;
+
+    /**
+     * The pause before the next check, s.
+     */
+    private final long poll;
+
+    /**
+     * Creates the status.
+     *
+     * @param admitted - true if the client may enter.
+     * @param ahead - the number of the waiting clients ahead.
+     * @param wait - the expected wait, s.
+     * @param poll - the pause before the next check, s.
+     */
+    public QueueStatus(boolean admitted, long ahead, long wait, long poll) {
+        this.admitted = admitted;
+        this.ahead = ahead;
+        this.wait = wait;
+        this.poll = poll;
+    }
+
+    /**
+     * Checks if the client may enter.
+     *
+     * @return true if the client may enter.
+     */
+    public boolean isAdmitted() {
+        return this.admitted;
+    }
+
+    /**
+     * Gets the number of the waiting clients ahead.
+     *
+     * @return the number of the clients ahead.
+     */
+    public long getAhead() {
+        return this.ahead;
+    }
+
+    /**
+     * Gets the expected wait.
+     *
+     * @return the expected wait, s.
+     */
+    public long getWait() {
+        return this.wait;
+    }
+
+    /**
+     * Gets the pause before the next check.
+     *
+     * @return the pause, s.
+     */
+    public long getPoll() {
+        return this.poll;
+    }
+}
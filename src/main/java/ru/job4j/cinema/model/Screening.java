@@ -0,0 +1,91 @@
+package ru.job4j.cinema.model;
+
+import java.util.Objects;
+
+/**
+ * Screening's model description (id; name). Every screening has its own places, sold independently.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class Screening {
+    /**
+     * The screening's id.
+     */
+    private final int id;
+
+    /**
+     * The screening's name: the film, the hall and the time.
+     */
+    private final String name;
+
+    /**
+     * Screening's constructor. Creates a new screening with the specified params.
+     *
+     * @param id - the specified id.
+     * @param name - the specified name.
+     */
+    public Screening(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Gets the id of this screening.
+     *
+     * @return the id of this screening.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the name of this screening.
+     *
+     * @return the name of this screening.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Checks this screening with the other screening for equivalence.
+     *
+     * @param o - the other screening.
+     * @return true if the screenings are equals.
+     */
+    @Override
+    public boolean equals(Object o) {
+        boolean result;
+        if (this == o) {
+            result = true;
+        } else if (o == null || getClass() != o.getClass()) {
+            result = false;
+        } else {
+            Screening screening = (Screening) o;
+            result = this.id == screening.id && Objects.equals(this.name, screening.name);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the hash-code for this screening.
+     *
+     * @return the hash-code for this screening.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id, this.name);
+    }
+
+    /**
+     * Presents the screening-model in a String-view.
+     *
+     * @return the String presentation of the screening-model.
+     */
+    @Override
+    public String toString() {
+        return String.format("Screening {id=%d, name=%s}", this.id, this.name);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.job4j.cinema.model;
+
+/**
+ * The buyer's preferences of the seats to find (rows range; maximal price of a seat).
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class SeatPreferences {
+    /**
+     * No preferences: any row, any price.
+     */
+    public static final SeatPreferences ANY = new SeatPreferences(1, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * The first suitable row.
+     */
+    private final int firstRow;
+
+    /**
+     * The last suitable row.
+     */
+    private final int lastRow;
+
+    /**
+     * The maximal price of a seat.
+     */
+    private final int maxPrice;
+
+    /**
+     * Creates the preferences.
+     *
+     * @param firstRow - the first suitable row.
+     * @param lastRow - the last suitable row.
+     * @param maxPrice - the maximal price of a seat.
+     */
+    public SeatPreferences(int firstRow, int lastRow, int maxPrice) {
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Gets the first suitable row.
+     *
+     * @return the first suitable row.
+     */
+    public int getFirstRow() {
+        return this.firstRow;
+    }
+
+    /**
+     * Gets the last suitable row.
+     *
+     * @return the last suitable row.
+     */
+    public int getLastRow() {
+        return this.lastRow;
+    }
+
+    /**
+     * Gets the maximal price of a seat.
+     *
+     * @return the maximal price of a seat.
+     */
+    public int getMaxPrice() {
+        return this.maxPrice;
+    }
+
+    /**
+     * Presents the preferences in a String-view.
+     *
+     * @return the String presentation of the preferences.
+     */
+    @Override
+    public String toString() {
+        return String.format("SeatPreferences {rows=%d-%d, maxPrice=%d}", this.firstRow, this.lastRow, this.maxPrice);
+    }
+}
@@ -5,54 +5,86 @@ import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
 import ru.job4j.cinema.dao.exception.business.NullArgumentException;
 import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.HallGeometry;
 import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
+import ru.job4j.cinema.model.SeatPreferences;
 import ru.job4j.cinema.model.Ticket;
 
 import java.util.List;
 
 /**
  * A validate layer. Verify params and returned values between view-layer and storage-layer.
+ * Every screening has its own places, a place carries its screening. A place may be held for a while by its
+ * buyer before the purchase: a held place is neither free nor busy, it is shown as unavailable.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.1
+ * @version 1.8
  * @since 29/04/2019
  */
 public interface Validator {
     /**
-     * Finds all places of the hall. Checks returned value.
+     * Finds all screenings. Checks returned value.
      *
-     * @return all places of the hall. Never returns null.
+     * @return all screenings, ordered by id. Never returns null.
      * @throws DaoSystemException if SQLException occurs.
      * @throws NoSuchModelException if the list is empty.
      */
-    List<Place> selectAllPlaces() throws NoSuchModelException, DaoSystemException;
+    List<Screening> selectScreenings() throws NoSuchModelException, DaoSystemException;
 
     /**
-     * Finds all free places of the hall. Checks returned value.
+     * Finds all places of the specified screening. Checks returned value.
      *
-     * @return all free places of the hall. Never returns null.
+     * @param screening - the specified screening.
+     * @return all places of the screening. Never returns null.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws NoSuchModelException if the list is empty.
+     */
+    List<Place> selectAllPlaces(int screening) throws NoSuchModelException, DaoSystemException;
+
+    /**
+     * Finds all free places of the specified screening. Checks returned value.
+     *
+     * @param screening - the specified screening.
+     * @return all free places of the screening. Never returns null.
      * @throws DaoSystemException if there is some system problems.
      * @throws NoSuchModelException if the list is empty.
      */
-    List<Place> selectFreePlaces() throws NoSuchModelException, DaoSystemException;
+    List<Place> selectFreePlaces(int screening) throws NoSuchModelException, DaoSystemException;
 
     /**
-     * Finds all busy places of the hall. Checks returned value.
+     * Finds all busy places of the specified screening. Checks returned value.
      *
-     * @return all busy places of the hall. Never returns null.
+     * @param screening - the specified screening.
+     * @return all busy places of the screening. Never returns null.
      * @throws DaoSystemException if there is some system problems.
      * @throws NoSuchModelException if the list is empty.
      */
-    List<Place> selectBusyPlaces() throws NoSuchModelException, DaoSystemException;
+    List<Place> selectBusyPlaces(int screening) throws NoSuchModelException, DaoSystemException;
+
+    /**
+     * Finds the specified number of free and not held seats of the specified screening together in one row,
+     * suitable for the preferences and as close to the center of the hall as possible.
+     *
+     * @param screening - the specified screening.
+     * @param count - the number of the seats.
+     * @param preferences - the preferences.
+     * @return the found places in the number order. Never returns null.
+     * @throws NullArgumentException if the preferences are null.
+     * @throws WrongArgumentException if the number of the seats is less than one.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws NoSuchModelException if there are no such seats together.
+     */
+    List<Place> findBestSeats(int screening, int count, SeatPreferences preferences) throws NullArgumentException, WrongArgumentException, DaoSystemException, NoSuchModelException;
 
     /**
      * Checks the specified place's params, is it null first, second:
      * row and number must lies in the cinema rows and numbers diapason.
-     * Then checks is it free.
+     * Then checks is it free and not held.
      *
      * @param place - the specified place.
-     * @return true if the specified place is free.
+     * @return true if the specified place is free and not held.
      * @throws NullArgumentException if the specified param is null.
      * @throws WrongArgumentException if the place is out of the hall.
      * @throws DaoSystemException if there is some system problems.
@@ -96,6 +128,17 @@ public interface Validator {
      */
     void freePlace(Place place) throws NullArgumentException, WrongArgumentException, DaoSystemException;
 
+    /**
+     * Reloads the hall geometry (rows, seats per row, price zones) of the specified screening, used for the
+     * places' range checks. The geometry is loaded once and reloaded only by this method, so it should be called
+     * after the hall's layout has changed.
+     *
+     * @param screening - the specified screening.
+     * @return the reloaded hall geometry.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    HallGeometry refreshHall(int screening) throws DaoSystemException;
+
     /**
      * Gets actual price of the specified place from the database.
      *
@@ -126,4 +169,70 @@ public interface Validator {
      * @throws AlreadyOccupiedPlaceException if the specified place is busy.
      */
     void createTicket(Ticket ticket) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException;
+
+    /**
+     * Checks person and place params and converts the holder's hold of the place into a ticket. The place is held
+     * for the holder first if it is not held yet.
+     *
+     * @param ticket - the specified ticket (place and person).
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy or held by somebody else.
+     */
+    void createTicket(Ticket ticket, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException;
+
+    /**
+     * Checks person and places params and creates tickets for all the places at once or for none of them. The
+     * holder's holds of the places are converted, the other places are held for the holder first.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if there are no places, some place is out of the hall or is listed twice.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy or held by somebody else, it lists them.
+     */
+    void createTickets(List<Place> places, Person person, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException;
+
+    /**
+     * Checks the specified place's params and holds the free place for the holder for the hold's time to live.
+     * Nothing is written to the database. The holder's own hold is prolonged.
+     *
+     * @param place - the specified place.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy or held by somebody else.
+     */
+    void holdPlace(Place place, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException;
+
+    /**
+     * Checks the specified place's params and trusts the holder's verified booking of the place, made by any node:
+     * the free place is held for the holder on this node till the booking's expiry, even if somebody else holds it
+     * here. So the holder may buy the place through any node.
+     *
+     * @param place - the specified place.
+     * @param holder - the booking's holder.
+     * @param expires - the booking's expiry, epoch seconds.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy.
+     */
+    void adoptBooking(Place place, String holder, long expires) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException;
+
+    /**
+     * Releases the holder's hold of the specified place, if there is such.
+     *
+     * @param place - the specified place.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    void releasePlace(Place place, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException;
 }
\ No newline at end of file
@@ -1,40 +1,200 @@
 package ru.job4j.cinema.validate.impl;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.job4j.cinema.Config;
+import ru.job4j.cinema.dao.PlaceDao;
 import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
 import ru.job4j.cinema.dao.exception.business.NullArgumentException;
 import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.dao.impl.PlaceDaoAtomic;
 import ru.job4j.cinema.dao.impl.PlaceDaoDb;
+import ru.job4j.cinema.dao.impl.PlaceDaoMemory;
+import ru.job4j.cinema.dao.impl.PlaceDaoPipeline;
+import ru.job4j.cinema.event.PlaceEvents;
+import ru.job4j.cinema.metrics.Instrumented;
+import ru.job4j.cinema.metrics.Metrics;
+import ru.job4j.cinema.hold.HoldTable;
+import ru.job4j.cinema.model.FreeSeatIndex;
+import ru.job4j.cinema.model.HallGeometry;
 import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Screening;
+import ru.job4j.cinema.model.SeatPreferences;
 import ru.job4j.cinema.model.Ticket;
 import ru.job4j.cinema.validate.Validator;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A validate layer implementation for data base. Verify params and returned values between view-layer and storage-layer.
+ * The hall geometry is cached per screening. The places' holds are kept in memory only, a held place is shown as
+ * busy and is written to the database by the purchase only. The free seats of every screening are indexed for the
+ * best seats search, the index follows the hall's changes.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.2
+ * @version 1.22
  * @since 29/04/2019
  */
 public class ValidatorDB implements Validator {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LogManager.getLogger(ValidatorDB.class.getName());
+
+    /**
+     * The setting, choosing the storage: "db" for plain database access, "atomic" for the in-memory seat
+     * engine, writing through to the database, or "memory" for the storage without a database.
+     */
+    private static final String CONFIG_STORAGE = "storage";
+
+    /**
+     * The setting, turning on the group commit of the purchases for the "db" storage.
+     */
+    private static final String CONFIG_PIPELINE = "booking-pipeline";
+
+    /**
+     * The setting of the hold's time to live, seconds.
+     */
+    private static final String CONFIG_HOLD_TTL = "hold-ttl";
+
+    /**
+     * The hold's time to live by default, seconds.
+     */
+    private static final String DEFAULT_HOLD_TTL = "300";
+
+    /**
+     * The tick of the holds' timing wheel, ms.
+     */
+    private static final long HOLD_TICK = 1000;
+
+    /**
+     * The number of the holds' timing wheel slots. Holds living longer than the wheel's round go around it.
+     */
+    private static final int HOLD_SLOTS = 512;
+
+    /**
+     * The number of the locks, ordering the holds' changes of the places and their publication.
+     */
+    private static final int PLACE_LOCKS = 64;
+
     /**
      * The DB validator. Singleton.
      */
-    private static final ValidatorDB VALIDATOR = new ValidatorDB();
+    private static final ValidatorDB VALIDATOR = new ValidatorDB(
+            ValidatorDB.selectStorage(),
+            Long.parseLong(Config.getInstanceOf().get(ValidatorDB.CONFIG_HOLD_TTL, ValidatorDB.DEFAULT_HOLD_TTL))
+    );
 
     /**
-     * The database singleton.
+     * The DB validator, every method of which is measured, so the validation errors and the holds' conflicts are
+     * counted by their types.
      */
-    private static final PlaceDaoDb DB = PlaceDaoDb.getInstanceOf();
+    private static final Validator MEASURED = Instrumented.wrap(
+            Validator.class,
+            ValidatorDB.VALIDATOR,
+            Metrics.getInstanceOf().family("cinema_logic", "The calls of the validate layer.", "exception")
+    );
 
     /**
-     * No params constructor.
+     * The storage.
      */
-    private ValidatorDB() {
+    private final PlaceDao storage;
+
+    /**
+     * The storage, every method of which is measured.
+     */
+    private final PlaceDao db;
+
+    /**
+     * The cached hall geometry of every screening, loaded on its first use.
+     */
+    private final Map<Integer, HallGeometry> geometries = new ConcurrentHashMap<Integer, HallGeometry>();
+
+    /**
+     * The free seats' index of every screening, built on its first search.
+     */
+    private final Map<Integer, FreeSeatIndex> freeSeats = new ConcurrentHashMap<Integer, FreeSeatIndex>();
+
+    /**
+     * The places' holds of all screenings.
+     */
+    private final HoldTable holds;
+
+    /**
+     * The locks of the places: a hold's change and its publication are made under the place's lock, so an
+     * expired hold is not published as free after the place has been held again.
+     */
+    private final Object[] locks = new Object[ValidatorDB.PLACE_LOCKS];
+
+    /**
+     * Creates the validator over the specified storage. Starts the holds' expiry.
+     *
+     * @param storage - the storage.
+     * @param ttl - the hold's time to live, seconds.
+     */
+    ValidatorDB(PlaceDao storage, long ttl) {
+        this.storage = storage;
+        this.db = Instrumented.wrap(
+                PlaceDao.class,
+                storage,
+                Metrics.getInstanceOf().family("cinema_dao", "The calls of the storage.", "exception")
+        );
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+        this.holds = new HoldTable(ttl * 1000, ValidatorDB.HOLD_TICK, ValidatorDB.HOLD_SLOTS, this::expire);
+        this.holds.start();
+    }
+
+    /**
+     * Stops the holds' expiry and the purchases' pipeline, if it is used.
+     */
+    public void stop() {
+        this.holds.stop();
+        if (this.storage instanceof PlaceDaoPipeline) {
+            ((PlaceDaoPipeline) this.storage).stop();
+        }
+    }
+
+    /**
+     * Checks if the storage uses the database.
+     *
+     * @return false for the in-memory storage.
+     */
+    public boolean isDatabase() {
+        return !(this.storage instanceof PlaceDaoMemory);
+    }
+
+    /**
+     * Chooses the storage implementation by the "storage" and "booking-pipeline" settings.
+     *
+     * @return the chosen storage singleton.
+     */
+    private static PlaceDao selectStorage() {
+        PlaceDao result;
+        String storage = Config.getInstanceOf().get(ValidatorDB.CONFIG_STORAGE, "db");
+        if ("memory".equals(storage)) {
+            result = PlaceDaoMemory.getInstanceOf();
+        } else if ("atomic".equals(storage)) {
+            result = PlaceDaoAtomic.getInstanceOf();
+        } else if (Boolean.parseBoolean(Config.getInstanceOf().get(ValidatorDB.CONFIG_PIPELINE, "false"))) {
+            result = PlaceDaoPipeline.getInstanceOf();
+        } else {
+            result = PlaceDaoDb.getInstanceOf();
+        }
+        return result;
     }
 
     /**
@@ -47,15 +207,41 @@ public class ValidatorDB implements Validator {
     }
 
     /**
-     * Finds all places of the hall. Checks returned value.
+     * Gets the singleton instance of DB-validator, every method of which is measured.
      *
-     * @return all places of the hall. Never returns null.
+     * @return the measured validator.
+     */
+    public static Validator getMeasured() {
+        return ValidatorDB.MEASURED;
+    }
+
+    /**
+     * Finds all screenings. Checks returned value.
+     *
+     * @return all screenings, ordered by id. Never returns null.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws NoSuchModelException if the list is empty.
+     */
+    @Override
+    public List<Screening> selectScreenings() throws NoSuchModelException, DaoSystemException {
+        List<Screening> result = this.db.findScreenings();
+        if (result.isEmpty()) {
+            throw new NoSuchModelException("There is no screenings.");
+        }
+        return result;
+    }
+
+    /**
+     * Finds all places of the specified screening. Checks returned value. The held places are busy.
+     *
+     * @param screening - the specified screening.
+     * @return all places of the screening. Never returns null.
      * @throws DaoSystemException if SQLException occurs.
      * @throws NoSuchModelException if the list is empty.
      */
     @Override
-    public List<Place> selectAllPlaces() throws NoSuchModelException, DaoSystemException {
-        List<Place> result = ValidatorDB.DB.findAllPlaces();
+    public List<Place> selectAllPlaces(int screening) throws NoSuchModelException, DaoSystemException {
+        List<Place> result = this.selectPlaces(screening);
         if (result.isEmpty()) {
             throw new NoSuchModelException("There is no free places.");
         }
@@ -63,15 +249,39 @@ public class ValidatorDB implements Validator {
     }
 
     /**
-     * Finds all free places of the hall. Checks returned value.
+     * Finds all places of the specified screening, the held places are busy.
      *
-     * @return all free places of the hall. Never returns null.
+     * @param screening - the specified screening.
+     * @return all places of the screening, may be empty.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    private List<Place> selectPlaces(int screening) throws DaoSystemException {
+        List<Place> result = this.db.findAllPlaces(screening);
+        for (Place place : result) {
+            if (place.isEmpty() && this.holds.isHeld(place)) {
+                place.setEmpty(Place.BUSY);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all free places of the specified screening, except the held ones. Checks returned value.
+     *
+     * @param screening - the specified screening.
+     * @return all free places of the screening. Never returns null.
      * @throws DaoSystemException if SQLException occurs.
      * @throws NoSuchModelException if the list is empty.
      */
     @Override
-    public List<Place> selectFreePlaces() throws NoSuchModelException, DaoSystemException {
-        List<Place> result = ValidatorDB.DB.findFreePlaces();
+    public List<Place> selectFreePlaces(int screening) throws NoSuchModelException, DaoSystemException {
+        List<Place> result = this.db.findFreePlaces(screening);
+        Iterator<Place> iterator = result.iterator();
+        while (iterator.hasNext()) {
+            if (this.holds.isHeld(iterator.next())) {
+                iterator.remove();
+            }
+        }
         if (result.isEmpty()) {
             throw new NoSuchModelException("There is no free places.");
         }
@@ -79,28 +289,100 @@ public class ValidatorDB implements Validator {
     }
 
     /**
-     * Finds all busy places of the hall. Checks returned value.
+     * Finds all busy places of the specified screening, the held places included. Checks returned value.
      *
-     * @return all busy places of the hall. Never returns null.
+     * @param screening - the specified screening.
+     * @return all busy places of the screening in the row and number order. Never returns null.
      * @throws DaoSystemException if SQLException occurs.
      * @throws NoSuchModelException if the list is empty.
      */
     @Override
-    public List<Place> selectBusyPlaces() throws NoSuchModelException, DaoSystemException {
-        List<Place> result = ValidatorDB.DB.findFreePlaces();
+    public List<Place> selectBusyPlaces(int screening) throws NoSuchModelException, DaoSystemException {
+        List<Place> result = new ArrayList<Place>();
+        for (Place place : this.selectPlaces(screening)) {
+            if (!place.isEmpty()) {
+                result.add(place);
+            }
+        }
         if (result.isEmpty()) {
             throw new NoSuchModelException("There is no busy places.");
         }
         return result;
     }
 
+    /**
+     * Finds the specified number of free and not held seats of the specified screening together in one row,
+     * suitable for the preferences and as close to the center of the hall as possible. The screening's index is
+     * brought up to date by the hall's changes since its version, and is rebuilt from all places only if the
+     * changes are unknown.
+     *
+     * @param screening - the specified screening.
+     * @param count - the number of the seats.
+     * @param preferences - the preferences.
+     * @return the found places in the number order. Never returns null.
+     * @throws NullArgumentException if the preferences are null.
+     * @throws WrongArgumentException if the number of the seats is less than one.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws NoSuchModelException if there are no such seats together.
+     */
+    @Override
+    public List<Place> findBestSeats(int screening, int count, SeatPreferences preferences) throws NullArgumentException, WrongArgumentException, DaoSystemException, NoSuchModelException {
+        if (preferences == null) {
+            throw new NullArgumentException("Incorrect argument: preferences.");
+        } else if (count < 1) {
+            throw new WrongArgumentException("The number of seats must be positive.");
+        }
+        List<Place> result = null;
+        FreeSeatIndex index = this.freeSeats.get(screening);
+        if (index != null) {
+            synchronized (index) {
+                if (this.actualize(index)) {
+                    result = index.findBest(count, preferences);
+                }
+            }
+        }
+        if (result == null) {
+            long version = PlaceEvents.getInstanceOf().getVersion(screening);
+            index = new FreeSeatIndex(screening, this.selectAllPlaces(screening), version);
+            result = index.findBest(count, preferences);
+            this.freeSeats.put(screening, index);
+        }
+        if (result.isEmpty()) {
+            throw new NoSuchModelException("There are no such free seats together.");
+        }
+        return result;
+    }
+
+    /**
+     * Applies the hall's changes since the specified index's version.
+     *
+     * @param index - the free seats' index.
+     * @return true if the index is up to date, false if the changes are unknown and it must be rebuilt.
+     */
+    private boolean actualize(FreeSeatIndex index) {
+        boolean result = true;
+        long version = PlaceEvents.getInstanceOf().getVersion(index.getScreening());
+        if (version != index.getVersion()) {
+            List<Place> changes = PlaceEvents.getInstanceOf().changesSince(index.getScreening(), index.getVersion());
+            if (changes == null) {
+                result = false;
+            } else {
+                for (Place place : changes) {
+                    index.apply(place);
+                }
+                index.setVersion(version);
+            }
+        }
+        return result;
+    }
+
     /**
      * Checks the specified place's params, is it null first, second:
      * row and number must lies in the cinema rows and numbers diapason.
-     * Then checks is it free.
+     * Then checks is it free and not held.
      *
      * @param place - the specified place.
-     * @return true if the specified place is free.
+     * @return true if the specified place is free and not held.
      * @throws NullArgumentException if the specified param is null.
      * @throws WrongArgumentException if the place is out of the hall.
      * @throws DaoSystemException if SQLException occurs.
@@ -108,16 +390,16 @@ public class ValidatorDB implements Validator {
     @Override
     public boolean isFree(Place place) throws DaoSystemException, WrongArgumentException, NullArgumentException {
         this.checkPlace(place);
-        return ValidatorDB.DB.isFree(place);
+        return !this.holds.isHeld(place) && this.db.isFree(place);
     }
 
     /**
      * Checks the specified place's params, is it null first, second:
      * row and number must lies in the cinema rows and numbers diapason.
-     * Then checks is it busy.
+     * Then checks is it busy or held.
      *
      * @param place - the specified place.
-     * @return true if the specified place is busy.
+     * @return true if the specified place is busy or held.
      * @throws NullArgumentException if the specified param is null.
      * @throws WrongArgumentException if the place is out of the hall.
      * @throws DaoSystemException if SQLException occurs.
@@ -125,7 +407,7 @@ public class ValidatorDB implements Validator {
     @Override
     public boolean isBusy(Place place) throws DaoSystemException, WrongArgumentException, NullArgumentException {
         this.checkPlace(place);
-        return ValidatorDB.DB.isBusy(place);
+        return this.holds.isHeld(place) || this.db.isBusy(place);
     }
 
     /**
@@ -142,14 +424,15 @@ public class ValidatorDB implements Validator {
     public void busyPlace(Place place) throws NullArgumentException, WrongArgumentException, DaoSystemException {
         this.checkPlace(place);
         if (this.isFree(place)) {
-            ValidatorDB.DB.busyPlace(place);
+            this.db.busyPlace(place);
+            this.publish(place, Place.BUSY);
         }
     }
 
     /**
      * Checks the specified place's params, is it null first, second:
      * row and number must lies in the cinema rows and numbers diapason.
-     * Then frees it.
+     * Then frees it, if it is sold.
      *
      * @param place - the specified place.
      * @throws NullArgumentException if the specified param is null.
@@ -159,8 +442,9 @@ public class ValidatorDB implements Validator {
     @Override
     public void freePlace(Place place) throws NullArgumentException, WrongArgumentException, DaoSystemException {
         this.checkPlace(place);
-        if (this.isBusy(place)) {
-            ValidatorDB.DB.freePlace(place);
+        if (this.db.isBusy(place)) {
+            this.db.freePlace(place);
+            this.publish(place, Place.FREE);
         }
     }
 
@@ -176,11 +460,44 @@ public class ValidatorDB implements Validator {
     private void checkPlace(Place place) throws NullArgumentException, WrongArgumentException, DaoSystemException {
         if (place == null) {
             throw new NullArgumentException("Incorrect argument: place.");
-        } else if (!ValidatorDB.DB.inHall(place)) {
+        } else if (!this.getGeometry(place.getScreening()).contains(place)) {
             throw new WrongArgumentException("The place is out of the cinema places range.");
         }
     }
 
+    /**
+     * Gets the cached hall geometry of the specified screening, loading it from the database if it has not been
+     * loaded yet.
+     *
+     * @param screening - the specified screening.
+     * @return the hall geometry.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    private HallGeometry getGeometry(int screening) throws DaoSystemException {
+        HallGeometry result = this.geometries.get(screening);
+        if (result == null) {
+            result = this.refreshHall(screening);
+        }
+        return result;
+    }
+
+    /**
+     * Reloads the hall geometry (rows, seats per row, price zones) of the specified screening from the database.
+     * An empty hall is not cached, so the next request tries again, and unknown screenings are not kept.
+     *
+     * @param screening - the specified screening.
+     * @return the reloaded hall geometry.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public HallGeometry refreshHall(int screening) throws DaoSystemException {
+        HallGeometry result = new HallGeometry(this.db.findAllPlaces(screening));
+        if (result.size() > 0) {
+            this.geometries.put(screening, result);
+        }
+        return result;
+    }
+
     /**
      * Gets actual price of the specified place from the database.
      *
@@ -193,24 +510,11 @@ public class ValidatorDB implements Validator {
     @Override
     public int getActualPrice(Place place) throws DaoSystemException, WrongArgumentException, NullArgumentException {
         this.checkPlace(place);
-        return ValidatorDB.DB.getActualPrice(place);
+        return this.db.getActualPrice(place);
     }
 
     /**
-     * Checks if there is account for the specified person.
-     *
-     * @param person - the specified person.
-     * @return if person already exists in database.
-     * @throws DaoSystemException if SQLException occurs.
-     * @throws NullArgumentException if the specified param is null.
-     */
-    private boolean checkAccount(Person person) throws DaoSystemException, NullArgumentException {
-        this.checkPerson(person);
-        return ValidatorDB.DB.checkAccount(person);
-    }
-
-    /**
-     * Puts new account in database.
+     * Puts new account in database, if there is no account with the person's name.
      *
      * @param person - the specified person.
      * @throws DaoSystemException if SQLException occurs.
@@ -218,20 +522,23 @@ public class ValidatorDB implements Validator {
      */
     @Override
     public void addAccount(Person person) throws DaoSystemException, NullArgumentException {
-        if (!this.checkAccount(person)) {
-            ValidatorDB.DB.addAccount(person);
-        }
+        this.checkPerson(person);
+        this.db.addAccount(person);
     }
 
     /**
-     * Checks the specified person is not null.
+     * Checks the specified person, its name and phone are not null.
      *
      * @param person - the specified place.
-     * @throws NullArgumentException if the specified param is null.
+     * @throws NullArgumentException if the specified param, its name or phone is null.
      */
     private void checkPerson(Person person) throws NullArgumentException {
         if (person == null) {
             throw new NullArgumentException("Incorrect argument: person.");
+        } else if (person.getName() == null) {
+            throw new NullArgumentException("Incorrect argument: name.");
+        } else if (person.getPhone() == null) {
+            throw new NullArgumentException("Incorrect argument: phone.");
         }
     }
 
@@ -244,9 +551,292 @@ public class ValidatorDB implements Validator {
      * @throws DaoSystemException if SQLException occurs.
      * @throws AlreadyOccupiedPlaceException if the specified place is busy.
      */
+    @Override
     public void createTicket(Ticket ticket) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.createTicket(ticket, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Checks person and place params and converts the holder's hold of the place into a ticket. The place is held
+     * for the holder first if it is not held yet, so nobody else can take it meanwhile. The hold is released if the
+     * place has been sold to somebody else. The hold taken for this purchase is released if it fails for another
+     * reason, the holder's earlier hold is kept, so the buyer may try again until it expires. The hold and the release are done under the place's lock with their notifications, the database is
+     * called out of it.
+     *
+     * @param ticket - the specified ticket (place and person).
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy or held by somebody else.
+     */
+    @Override
+    public void createTicket(Ticket ticket, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
         this.checkPerson(ticket.getPerson());
         this.checkPlace(ticket.getPlace());
-        ValidatorDB.DB.createTicket(ticket.getPlace(), ticket.getPerson());
+        Place place = ticket.getPlace();
+        boolean taken;
+        synchronized (this.lock(place)) {
+            taken = !this.holds.isHeldBy(place, holder);
+            if (!this.holds.hold(place, holder)) {
+                throw new AlreadyOccupiedPlaceException("The place is held by somebody else.");
+            }
+        }
+        boolean sold = false;
+        try {
+            this.db.createTicket(place, ticket.getPerson());
+            sold = true;
+        } catch (AlreadyOccupiedPlaceException e) {
+            taken = true;
+            throw e;
+        } finally {
+            synchronized (this.lock(place)) {
+                if (sold) {
+                    this.holds.release(place, holder);
+                    this.publish(place, Place.BUSY);
+                } else if (taken) {
+                    this.holds.release(place, holder);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks person and places params and creates tickets for all the places at once or for none of them. The
+     * places are held for the holder first, the holds taken for this purchase only are released if it fails for
+     * any reason, the holder's earlier holds are kept. The holds and their release are done under the places'
+     * locks, taken in their fixed order, so two purchases of the same places do not lock each other; the database
+     * is called out of them.
+     *
+     * @param places - the specified places.
+     * @param person - the specified person.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if there are no places, some place is out of the hall or is listed twice.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if some of the places are busy or held by somebody else, it lists them.
+     */
+    @Override
+    public void createTickets(List<Place> places, Person person, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.checkPerson(person);
+        if (places == null) {
+            throw new NullArgumentException("Incorrect argument: places.");
+        } else if (places.isEmpty()) {
+            throw new WrongArgumentException("There are no places.");
+        }
+        Set<Place> distinct = new HashSet<Place>();
+        for (Place place : places) {
+            this.checkPlace(place);
+            if (!distinct.add(new Place(place.getScreening(), place.getRow(), place.getNumber(), Place.FREE, 0))) {
+                throw new WrongArgumentException("The place is listed twice.");
+            }
+        }
+        int[] stripes = this.stripes(places);
+        List<Place> taken = new ArrayList<Place>(places.size());
+        List<Place> conflicts = new LinkedList<Place>();
+        this.locked(stripes, 0, () -> {
+            for (Place place : places) {
+                if (!this.holds.isHeldBy(place, holder)) {
+                    if (this.holds.hold(place, holder)) {
+                        taken.add(place);
+                    } else {
+                        conflicts.add(place);
+                    }
+                }
+            }
+        });
+        boolean sold = false;
+        try {
+            if (!conflicts.isEmpty()) {
+                throw new AlreadyOccupiedPlaceException("The places are held by somebody else.", conflicts);
+            }
+            this.db.createTickets(places, person);
+            sold = true;
+        } finally {
+            List<Place> released = sold ? places : taken;
+            boolean published = sold;
+            this.locked(stripes, 0, () -> {
+                for (Place place : released) {
+                    this.holds.release(place, holder);
+                    if (published) {
+                        this.publish(place, Place.BUSY);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks the specified place's params and holds the free place for the holder for the hold's time to live.
+     * Nothing is written to the database. The holder's own hold is prolonged.
+     *
+     * @param place - the specified place.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy or held by somebody else.
+     */
+    @Override
+    public void holdPlace(Place place, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.checkPlace(place);
+        if (!this.db.isFree(place)) {
+            throw new AlreadyOccupiedPlaceException("The place is already occupied.");
+        }
+        synchronized (this.lock(place)) {
+            if (!this.holds.hold(place, holder)) {
+                throw new AlreadyOccupiedPlaceException("The place is held by somebody else.");
+            }
+            this.publish(place, Place.BUSY);
+        }
+    }
+
+    /**
+     * Checks the specified place's params and trusts the holder's verified booking of the place, made by any node:
+     * the free place is held for the holder on this node till the booking's expiry, taking it over from another
+     * holder of this node. Two nodes may have held the place for different holders meanwhile, the database sells
+     * it to the first buyer.
+     *
+     * @param place - the specified place.
+     * @param holder - the booking's holder.
+     * @param expires - the booking's expiry, epoch seconds.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     * @throws AlreadyOccupiedPlaceException if the specified place is busy.
+     */
+    @Override
+    public void adoptBooking(Place place, String holder, long expires) throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.checkPlace(place);
+        if (!this.db.isFree(place)) {
+            throw new AlreadyOccupiedPlaceException("The place is already occupied.");
+        }
+        synchronized (this.lock(place)) {
+            if (this.holds.take(place, holder, expires * 1000 - System.currentTimeMillis())) {
+                this.publish(place, Place.BUSY);
+            }
+        }
+    }
+
+    /**
+     * Releases the holder's hold of the specified place, if there is such.
+     *
+     * @param place - the specified place.
+     * @param holder - the holder.
+     * @throws NullArgumentException if the specified param is null.
+     * @throws WrongArgumentException if the place is out of the hall.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    @Override
+    public void releasePlace(Place place, String holder) throws NullArgumentException, WrongArgumentException, DaoSystemException {
+        this.checkPlace(place);
+        synchronized (this.lock(place)) {
+            if (this.holds.release(place, holder)) {
+                this.publish(place, Place.FREE);
+            }
+        }
+    }
+
+    /**
+     * Notifies the place's listeners about the expired hold, if the place has been neither held again nor sold
+     * meanwhile.
+     *
+     * @param place - the place of the expired hold.
+     */
+    void expire(Place place) {
+        synchronized (this.lock(place)) {
+            try {
+                if (!this.holds.isHeld(place) && this.db.isFree(place)) {
+                    this.publish(place, Place.FREE);
+                }
+            } catch (DaoSystemException e) {
+                ValidatorDB.LOG.error("SQL error occurs.", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the lock of the specified place.
+     *
+     * @param place - the specified place with its screening.
+     * @return the place's lock.
+     */
+    private Object lock(Place place) {
+        return this.locks[this.stripe(place)];
+    }
+
+    /**
+     * Gets the index of the specified place's lock.
+     *
+     * @param place - the specified place with its screening.
+     * @return the index of the place's lock.
+     */
+    private int stripe(Place place) {
+        int hash = (place.getScreening() * 31 + place.getRow()) * 31 + place.getNumber();
+        return Math.floorMod(hash, this.locks.length);
+    }
+
+    /**
+     * Gets the indexes of the specified places' locks, each once, in the ascending order.
+     *
+     * @param places - the specified places with their screening.
+     * @return the sorted indexes of the places' locks.
+     */
+    private int[] stripes(List<Place> places) {
+        Set<Integer> stripes = new TreeSet<Integer>();
+        for (Place place : places) {
+            stripes.add(this.stripe(place));
+        }
+        int[] result = new int[stripes.size()];
+        int i = 0;
+        for (int stripe : stripes) {
+            result[i++] = stripe;
+        }
+        return result;
+    }
+
+    /**
+     * Runs the action under the specified locks, taken one by one in the specified order.
+     *
+     * @param stripes - the indexes of the locks in the order of their taking.
+     * @param from - the index of the first lock, not taken yet.
+     * @param action - the action.
+     * @throws DaoSystemException if the action fails.
+     */
+    private void locked(int[] stripes, int from, LockedAction action) throws DaoSystemException {
+        if (from == stripes.length) {
+            action.run();
+        } else {
+            synchronized (this.locks[stripes[from]]) {
+                this.locked(stripes, from + 1, action);
+            }
+        }
+    }
+
+    /**
+     * Notifies the place's listeners about the new state of the specified place, with its price from the hall
+     * geometry.
+     *
+     * @param place - the changed place.
+     * @param isEmpty - the new state of the place.
+     * @throws DaoSystemException if SQLException occurs.
+     */
+    private void publish(Place place, boolean isEmpty) throws DaoSystemException {
+        HallGeometry geometry = this.getGeometry(place.getScreening());
+        PlaceEvents.getInstanceOf().publish(new Place(
+                place.getScreening(), place.getRow(), place.getNumber(), isEmpty, geometry.getPrice(geometry.indexOf(place))
+        ));
+    }
+
+    /**
+     * The action done under the places' locks.
+     */
+    private interface LockedAction {
+        /**
+         * Runs the action.
+         *
+         * @throws DaoSystemException if SQLException occurs.
+         */
+        void run() throws DaoSystemException;
     }
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ import static org.junit.Assert.*;
  * Utils test for Cinema Servlets.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.2
  * @since 25/05/2019
  */
 public class UtilsTest {
@@ -20,4 +20,18 @@ public class UtilsTest {
         assertThat(Utils.parsePlace("13"), is(new Place(1, 3)));
         assertThat(Utils.parsePlace("31"), is(new Place(3, 1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenRowAndNumberAreSeparatedThenTheyMayHaveManyDigits() {
+        assertThat(Utils.parsePlace("12-7"), is(new Place(12, 7)));
+        assertThat(Utils.parsePlace("3-15"), is(new Place(3, 15)));
+        assertThat(Utils.parsePlace("x-1"), is(new Place(-1, 1)));
+    }
+
+    @Test
+    public void whenScreeningIsAbsentOrMalformedThenFirstScreening() {
+        assertThat(Utils.parseScreening("3"), is(3));
+        assertThat(Utils.parseScreening(null), is(Place.DEFAULT_SCREENING));
+        assertThat(Utils.parseScreening("x"), is(Place.DEFAULT_SCREENING));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.job4j.cinema.admission;
+
+import org.junit.Test;
+import ru.job4j.cinema.hold.TokenSigner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Waiting room test. The admission is advanced by hand.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class WaitingRoomTest {
+    private final TokenSigner signer = new TokenSigner("secret", 300);
+
+    @Test
+    public void whenBudgetIsOverThenClientsWaitInOrderAndPositionIsExchangedForPass() {
+        WaitingRoom room = new WaitingRoom(this.signer, 2, 2, 2, 60, 5);
+        assertThat(room.admit(null, 1000000).getStatus().isAdmitted(), is(true));
+        assertThat(room.admit(null, 1000000).getStatus().isAdmitted(), is(true));
+        Admission first = room.admit(null, 1000000);
+        Admission second = room.admit(null, 1000100);
+        assertThat(first.getStatus().isAdmitted(), is(false));
+        assertThat(room.getWaiting(), is(0L));
+        first = room.admit(first.getToken(), 1000200);
+        second = room.admit(second.getToken(), 1000200);
+        assertThat(first.getStatus().getAhead(), is(0L));
+        assertThat(second.getStatus().getAhead(), is(1L));
+        assertThat(second.getStatus().getWait(), is(1L));
+        assertThat(room.getWaiting(), is(2L));
+        assertThat(room.admit(first.getToken(), 1000300).getToken(), is(first.getToken()));
+        room.advance(0.5);
+        Admission pass = room.admit(first.getToken(), 1001000);
+        assertThat(pass.getStatus().isAdmitted(), is(true));
+        assertThat(pass.getToken(), is(not(first.getToken())));
+        assertThat(room.admit(pass.getToken(), 1060000).getToken(), is(pass.getToken()));
+        assertThat(room.admit(second.getToken(), 1001000).getStatus().getAhead(), is(0L));
+        assertThat(room.getWaiting(), is(1L));
+    }
+
+    @Test
+    public void whenClientsComeWithoutTokenThenTheyAreNotCounted() {
+        WaitingRoom room = new WaitingRoom(this.signer, 1, 1, 1, 60, 5);
+        room.admit(null, 1000000);
+        for (int i = 0; i < 100; i++) {
+            assertThat(room.admit(null, 1000000 + i).getStatus().isAdmitted(), is(false));
+        }
+        assertThat(room.getWaiting(), is(0L));
+    }
+
+    @Test
+    public void whenPositionIsShownToOtherNodeOrAfterRestartThenItKeepsItsArrivalOrder() {
+        WaitingRoom first = new WaitingRoom(this.signer, 1, 1, 1, 60, 5);
+        WaitingRoom second = new WaitingRoom(this.signer, 1, 1, 1, 60, 5);
+        first.admit(null, 1000000);
+        second.admit(null, 1000000);
+        Admission early = first.admit(null, 1000100);
+        Admission late = second.admit(null, 1000200);
+        late = second.admit(late.getToken(), 1000300);
+        early = second.admit(early.getToken(), 1000300);
+        assertThat(early.getStatus().getAhead(), is(0L));
+        assertThat(second.admit(late.getToken(), 1000400).getStatus().getAhead(), is(1L));
+        second.advance(1);
+        assertThat(second.admit(early.getToken(), 1001000).getStatus().isAdmitted(), is(true));
+        assertThat(second.admit(late.getToken(), 1001000).getStatus().isAdmitted(), is(false));
+    }
+
+    @Test
+    public void whenTokenIsForgedOrPassIsExpiredThenClientArrivesAgain() {
+        WaitingRoom room = new WaitingRoom(this.signer, 1, 1, 1, 60, 5);
+        Admission pass = room.admit(null, 1000000);
+        assertThat(pass.getStatus().isAdmitted(), is(true));
+        assertThat(room.admit(pass.getToken(), 1061000).getStatus().isAdmitted(), is(false));
+        Admission other = new WaitingRoom(new TokenSigner("other", 300), 1, 1, 1, 60, 5).admit(null, 1000000);
+        Admission again = room.admit(other.getToken(), 1061000);
+        assertThat(again.getStatus().isAdmitted(), is(false));
+        assertThat(again.getToken(), is(not(other.getToken())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenRateIsNotPositiveThenRoomIsNotCreated() {
+        new WaitingRoom(this.signer, 0, 0, 0, 60, 5);
+    }
+
+    @Test
+    public void whenServiceIsOverloadedThenRateIsHalvedElseGrowsWhileClientsWait() {
+        WaitingRoom room = new WaitingRoom(this.signer, 10, 2, 20, 60, 5);
+        room.adapt(0);
+        assertThat(room.getRate(), is(10.0));
+        for (int i = 0; i < 11; i++) {
+            room.admit(room.admit(null, 1000000).getToken(), 1000100);
+        }
+        room.adapt(0);
+        assertThat(room.getRate(), is(12.0));
+        room.adapt(3);
+        assertThat(room.getRate(), is(6.0));
+        room.adapt(3);
+        assertThat(room.getRate(), is(8.0));
+    }
+}
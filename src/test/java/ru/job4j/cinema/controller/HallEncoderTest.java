@@ -0,0 +1,36 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.Test;
+import ru.job4j.cinema.model.Place;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Hall encoder test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class HallEncoderTest {
+    @Test
+    public void whenHallHasGapAndBusySeatThenTheyArePacked() {
+        byte[] result = HallEncoder.encode(Arrays.asList(
+                new Place(1, 1, Place.FREE, 300), new Place(1, 2, Place.FREE, 300),
+                new Place(2, 1, Place.FREE, 500), new Place(2, 3, Place.BUSY, 700)
+        ));
+        byte[] expected = {
+                1,
+                0, 2,
+                0, 2, 0, 3,
+                3, 0, 0, 1, 44, 0, 0, 1, (byte) 244, 0, 0, 2, (byte) 188,
+                2,
+                (byte) 0b01011000, (byte) 0b11000000,
+                (byte) 0b00001000
+        };
+        assertThat(result, is(expected));
+    }
+}
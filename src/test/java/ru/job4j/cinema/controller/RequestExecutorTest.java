@@ -0,0 +1,108 @@
+package ru.job4j.cinema.controller;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Request executor test: a full bulkhead rejects at once, the other one keeps serving, the late work does not
+ * touch the answered response.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class RequestExecutorTest {
+    @Test
+    public void whenBulkheadIsFullThenRequestIsRejectedWithRetryAfterAndOtherBulkheadServes() throws Exception {
+        RequestExecutor reads = new RequestExecutor("test-read", false, 1, 0, 10000, 2, true);
+        RequestExecutor writes = new RequestExecutor("test-write", false, 1, 0, 10000, 2, false);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServletResponse running = mock(HttpServletResponse.class);
+        reads.execute(this.request(running, mock(AsyncContext.class)), running, (req, resp) -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(busy.await(5, TimeUnit.SECONDS), is(true));
+        HttpServletResponse rejected = mock(HttpServletResponse.class);
+        reads.execute(
+                this.request(rejected, mock(AsyncContext.class)), rejected,
+                (req, resp) -> resp.setStatus(HttpServletResponse.SC_OK)
+        );
+        verify(rejected).setHeader("Retry-After", "2");
+        verify(rejected).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(rejected, never()).setStatus(HttpServletResponse.SC_OK);
+        HttpServletResponse served = mock(HttpServletResponse.class);
+        writes.execute(
+                this.request(served, mock(AsyncContext.class)), served,
+                (req, resp) -> resp.setStatus(HttpServletResponse.SC_OK)
+        );
+        verify(served, timeout(5000)).setStatus(HttpServletResponse.SC_OK);
+        release.countDown();
+        reads.shutdown();
+        writes.shutdown();
+    }
+
+    @Test
+    public void whenWriteTimesOutWhileRunningThenItIsRejectedWithoutRetryAfterAndItsAnswerIsDropped() throws Exception {
+        RequestExecutor writes = new RequestExecutor("test-write", false, 1, 0, 10000, 2, false);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        HttpServletResponse late = mock(HttpServletResponse.class);
+        AsyncContext context = mock(AsyncContext.class);
+        writes.execute(this.request(late, context), late, (req, resp) -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            resp.setHeader("X-Sold", "true");
+            resp.setStatus(HttpServletResponse.SC_OK);
+            finished.countDown();
+        });
+        assertThat(busy.await(5, TimeUnit.SECONDS), is(true));
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(context).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(context));
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS), is(true));
+        writes.shutdown();
+        verify(late).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(late, never()).setHeader(eq("Retry-After"), anyString());
+        verify(late, never()).setHeader("X-Sold", "true");
+        verify(late, never()).setStatus(HttpServletResponse.SC_OK);
+    }
+
+    private HttpServletRequest request(HttpServletResponse resp, AsyncContext context) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.startAsync(any(), any())).thenReturn(context);
+        when(context.getRequest()).thenReturn(req);
+        when(context.getResponse()).thenReturn(resp);
+        return req;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.Test;
+import ru.job4j.cinema.model.Person;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Account cache test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class AccountCacheTest {
+    @Test
+    public void whenPhoneIsChangedThenAccountIsNotFound() {
+        AccountCache cache = new AccountCache(10);
+        cache.put(new Person("Buyer", "123"), 1);
+        assertThat(cache.get(new Person("Buyer", "123")), is(1));
+        assertThat(cache.get(new Person("Buyer", "456")), is(nullValue()));
+    }
+
+    @Test
+    public void whenCacheIsFullThenLeastRecentlyUsedAccountIsEvicted() {
+        AccountCache cache = new AccountCache(2);
+        cache.put(new Person("First", "1"), 1);
+        cache.put(new Person("Second", "2"), 2);
+        cache.get(new Person("First", "1"));
+        cache.put(new Person("Third", "3"), 3);
+        assertThat(cache.get(new Person("First", "1")), is(1));
+        assertThat(cache.get(new Person("Second", "2")), is(nullValue()));
+        assertThat(cache.get(new Person("Third", "3")), is(3));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory seat engine test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.4
+ * @since 18/10/2026
+ */
+public class PlaceDaoAtomicTest {
+    private PlaceDao storage;
+
+    private PlaceDaoAtomic dao;
+
+    @Before
+    public void init() throws DaoSystemException {
+        List<Place> hall = new ArrayList<Place>();
+        for (int row = 1; row <= 3; row++) {
+            for (int number = 1; number <= 3; number++) {
+                hall.add(new Place(row, number, Place.FREE, 100 * row));
+            }
+        }
+        hall.set(4, new Place(2, 2, Place.BUSY, 200));
+        List<Place> other = new ArrayList<Place>();
+        for (Place place : hall) {
+            other.add(new Place(2, place.getRow(), place.getNumber(), Place.FREE, place.getPrice()));
+        }
+        this.storage = mock(PlaceDao.class);
+        when(this.storage.findAllPlaces(Place.DEFAULT_SCREENING)).thenReturn(hall);
+        when(this.storage.findAllPlaces(2)).thenReturn(other);
+        this.dao = new PlaceDaoAtomic(this.storage);
+    }
+
+    @Test
+    public void whenLoadedThenStateIsTakenFromStorage() throws DaoSystemException {
+        assertThat(this.dao.isBusy(new Place(2, 2)), is(true));
+        assertThat(this.dao.isFree(new Place(1, 1)), is(true));
+        assertThat(this.dao.getActualPrice(new Place(3, 1)), is(300));
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING), contains(new Place(2, 2, Place.BUSY)));
+        assertThat(this.dao.findAllPlaces(Place.DEFAULT_SCREENING).size(), is(9));
+    }
+
+    @Test
+    public void whenPlaceIsOutOfHallThenFalse() throws DaoSystemException {
+        assertThat(this.dao.inHall(new Place(1, 3)), is(true));
+        assertThat(this.dao.inHall(new Place(4, 1)), is(false));
+        assertThat(this.dao.inHall(new Place(1, 4)), is(false));
+        assertThat(this.dao.inHall(new Place(0, 1)), is(false));
+    }
+
+    @Test
+    public void whenPlaceIsTakenThenWrittenThroughOnce() throws DaoSystemException {
+        this.dao.busyPlace(new Place(1, 1));
+        this.dao.busyPlace(new Place(1, 1));
+        assertThat(this.dao.isBusy(new Place(1, 1)), is(true));
+        verify(this.storage, times(1)).busyPlace(new Place(1, 1));
+        this.dao.freePlace(new Place(1, 1));
+        assertThat(this.dao.isFree(new Place(1, 1)), is(true));
+        verify(this.storage, times(1)).freePlace(new Place(1, 1));
+    }
+
+    @Test
+    public void whenPlaceIsTakenThenSamePlaceOfOtherScreeningIsFree() throws Exception {
+        Person person = new Person("name", "phone");
+        this.dao.createTicket(new Place(1, 1), person);
+        this.dao.createTicket(new Place(2, 1, 1, Place.FREE, 100), person);
+        assertThat(this.dao.isFree(new Place(2, 2, 2, Place.FREE, 200)), is(true));
+        assertThat(this.dao.findBusyPlaces(2), contains(new Place(2, 1, 1, Place.BUSY, 100)));
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING).size(), is(2));
+    }
+
+    @Test(expected = AlreadyOccupiedPlaceException.class)
+    public void whenPlaceIsBusyThenTicketIsNotCreated() throws Exception {
+        Person person = new Person("name", "phone");
+        this.dao.createTicket(new Place(1, 1), person);
+        verify(this.storage, times(1)).createTicket(new Place(1, 1), person);
+        this.dao.createTicket(new Place(1, 1), person);
+    }
+
+    @Test
+    public void whenStorageFailsThenPlaceIsReleased() throws Exception {
+        Person person = new Person("name", "phone");
+        doThrow(new DaoSystemException("down")).when(this.storage).createTicket(new Place(1, 2), person);
+        try {
+            this.dao.createTicket(new Place(1, 2), person);
+            fail("The storage's failure is not reported.");
+        } catch (DaoSystemException e) {
+            assertThat(e.getMessage(), is("down"));
+        }
+        assertThat(this.dao.isFree(new Place(1, 2)), is(true));
+        verify(this.storage, never()).busyPlace(new Place(1, 2));
+    }
+
+    @Test
+    public void whenSomePlaceIsBusyThenGroupClaimsAreRolledBack() throws Exception {
+        Person person = new Person("name", "phone");
+        try {
+            this.dao.createTickets(Arrays.asList(new Place(1, 1), new Place(2, 2), new Place(1, 2)), person);
+            fail("The busy place is not reported.");
+        } catch (AlreadyOccupiedPlaceException e) {
+            assertThat(e.getPlaces(), contains(new Place(2, 2)));
+        }
+        assertThat(this.dao.isFree(new Place(1, 1)), is(true));
+        assertThat(this.dao.isFree(new Place(1, 2)), is(true));
+        verify(this.storage, never()).createTickets(Arrays.asList(new Place(1, 1), new Place(1, 2)), person);
+        this.dao.createTickets(Arrays.asList(new Place(1, 1), new Place(1, 2)), person);
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING).size(), is(3));
+    }
+}
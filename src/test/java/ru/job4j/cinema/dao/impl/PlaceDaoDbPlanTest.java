@@ -0,0 +1,145 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ru.job4j.cinema.Config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Query plan regression test: the statements of the place DAO must not scan the whole tables of the screenings of
+ * a large hall.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.2
+ * @since 18/10/2026
+ */
+public class PlaceDaoDbPlanTest {
+    private static final int SCREENINGS = 10;
+
+    private static final int ROWS = 100;
+
+    private static final int SEATS = 100;
+
+    private static final int ACCOUNTS = 5000;
+
+    private static Connection connection;
+
+    private static int screening;
+
+    @BeforeClass
+    public static void seed() throws SQLException {
+        Config config = Config.getInstanceOf();
+        PlaceDaoDbPlanTest.connection = DriverManager.getConnection(
+                config.get("url", null), config.get("username", null), config.get("password", null)
+        );
+        try (Statement statement = PlaceDaoDbPlanTest.connection.createStatement()) {
+            try (ResultSet rslSet = statement.executeQuery(String.format(
+                    "insert into screenings (name) select 'Plan test' from generate_series(1, %d) returning id;",
+                    PlaceDaoDbPlanTest.SCREENINGS
+            ))) {
+                rslSet.next();
+                PlaceDaoDbPlanTest.screening = rslSet.getInt(1);
+            }
+            statement.executeUpdate(String.format(
+                    "insert into hall (screening_id, row, number, isempty, price) "
+                            + "select screenings.id, row, number, true, 100 from screenings, "
+                            + "generate_series(1, %d) row, generate_series(1, %d) number where screenings.name = 'Plan test';",
+                    PlaceDaoDbPlanTest.ROWS, PlaceDaoDbPlanTest.SEATS
+            ));
+            statement.executeUpdate(String.format(
+                    "insert into accounts (name, phone) select 'plan-' || i, '000' from generate_series(1, %d) i;",
+                    PlaceDaoDbPlanTest.ACCOUNTS
+            ));
+            statement.executeUpdate(String.format(
+                    "insert into tickets (place_id, account_id, screening_id) "
+                            + "select hall.id, accounts.id, hall.screening_id from hall "
+                            + "join accounts on accounts.name = 'plan-' || ((hall.row - 1) * %d + hall.number) "
+                            + "where hall.screening_id = %d and hall.row <= 20;",
+                    PlaceDaoDbPlanTest.SEATS, PlaceDaoDbPlanTest.screening
+            ));
+            statement.execute("analyze hall; analyze accounts; analyze tickets; analyze screenings;");
+        }
+    }
+
+    @AfterClass
+    public static void clear() throws SQLException {
+        if (PlaceDaoDbPlanTest.connection != null) {
+            try (Statement statement = PlaceDaoDbPlanTest.connection.createStatement()) {
+                String seeded = "(select id from screenings where name = 'Plan test')";
+                statement.executeUpdate("delete from tickets where screening_id in " + seeded + ";");
+                statement.executeUpdate("delete from accounts where name like 'plan-%';");
+                statement.executeUpdate("delete from hall where screening_id in " + seeded + ";");
+                statement.executeUpdate("delete from screenings where name = 'Plan test';");
+            } finally {
+                PlaceDaoDbPlanTest.connection.close();
+            }
+        }
+    }
+
+    private void assertIndexed(String sql, Object... params) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = PlaceDaoDbPlanTest.connection.prepareStatement("explain " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Integer[]) {
+                    statement.setArray(i + 1, PlaceDaoDbPlanTest.connection.createArrayOf("int4", (Integer[]) params[i]));
+                } else if (params[i] instanceof String[]) {
+                    statement.setArray(i + 1, PlaceDaoDbPlanTest.connection.createArrayOf("varchar", (String[]) params[i]));
+                } else {
+                    statement.setObject(i + 1, params[i]);
+                }
+            }
+            try (ResultSet rslSet = statement.executeQuery()) {
+                while (rslSet.next()) {
+                    plan.append(rslSet.getString(1)).append(System.lineSeparator());
+                }
+            }
+        }
+        assertThat(plan.toString(), not(containsString("Seq Scan")));
+    }
+
+    @Test
+    public void whenPlacesOfScreeningAreFoundThenIndexIsUsed() throws SQLException {
+        this.assertIndexed(PlaceDaoDb.SQL_FIND_PLACES, PlaceDaoDbPlanTest.screening, false);
+        this.assertIndexed(PlaceDaoDb.SQL_FIND_ALL_PLACES, PlaceDaoDbPlanTest.screening);
+    }
+
+    @Test
+    public void whenPlaceIsFoundOrChangedThenIndexIsUsed() throws SQLException {
+        int screening = PlaceDaoDbPlanTest.screening;
+        this.assertIndexed(PlaceDaoDb.SQL_FIND_PLACE, screening, 50, 75);
+        this.assertIndexed(PlaceDaoDb.SQL_FIND_PRICE, screening, 50, 75);
+        this.assertIndexed(PlaceDaoDb.SQL_BUSY_PLACE, screening, 50, 75);
+        this.assertIndexed(PlaceDaoDb.SQL_FREE_PLACE, screening, 50, 75);
+    }
+
+    @Test
+    public void whenPlacesAreSoldThenIndexIsUsed() throws SQLException {
+        int screening = PlaceDaoDbPlanTest.screening;
+        this.assertIndexed(PlaceDaoDb.SQL_SELL_PLACE, screening, 50, 75, 1);
+        this.assertIndexed(PlaceDaoDb.SQL_SELL_PLACE_TO_PERSON, screening, 50, 75, "plan-100", "111");
+        this.assertIndexed(
+                PlaceDaoDb.SQL_LOCK_PLACES,
+                new Integer[] {screening, screening}, new Integer[] {50, 50}, new Integer[] {75, 76}
+        );
+        this.assertIndexed(PlaceDaoDb.SQL_TAKE_PLACES, new Integer[] {1, 2}, 1);
+    }
+
+    @Test
+    public void whenAccountIsFoundOrSavedThenIndexIsUsed() throws SQLException {
+        this.assertIndexed(PlaceDaoDb.SQL_FIND_ACCOUNT, "plan-100");
+        this.assertIndexed(PlaceDaoDb.SQL_SAVE_ACCOUNTS, new String[] {"plan-100"}, new String[] {"111"});
+        this.assertIndexed(PlaceDaoDb.SQL_ADD_ACCOUNT, "plan-100", "111");
+        this.assertIndexed(PlaceDaoDb.SQL_UPDATE_ACCOUNT, "111", "plan-100");
+    }
+}
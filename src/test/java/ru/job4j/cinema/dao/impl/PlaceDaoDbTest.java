@@ -3,20 +3,31 @@ package ru.job4j.cinema.dao.impl;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
 import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Order;
+import ru.job4j.cinema.model.Person;
 import ru.job4j.cinema.model.Place;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
 
 /**
  * Place DAO test.
  *
  * @author Gregory Smirnov (artress@ngs.ru)
- * @version 1.0
+ * @version 1.7
  * @since 25/05/2019
  */
 public class PlaceDaoDbTest {
@@ -34,7 +45,7 @@ public class PlaceDaoDbTest {
 
     private void freePlaces() {
         try {
-            List<Place> allPlaces = PlaceDaoDbTest.DB.findAllPlaces();
+            List<Place> allPlaces = PlaceDaoDbTest.DB.findAllPlaces(Place.DEFAULT_SCREENING);
             for (Place place : allPlaces) {
                 PlaceDaoDbTest.DB.freePlace(place);
             }
@@ -65,7 +76,7 @@ public class PlaceDaoDbTest {
     @Test
     public void whenInitThenAllPlacesAreFree() {
         try {
-            assertThat(PlaceDaoDbTest.DB.findFreePlaces(), containsInAnyOrder(PlaceDaoDbTest.DB.findAllPlaces().toArray()));
+            assertThat(PlaceDaoDbTest.DB.findFreePlaces(Place.DEFAULT_SCREENING), containsInAnyOrder(PlaceDaoDbTest.DB.findAllPlaces(Place.DEFAULT_SCREENING).toArray()));
         } catch (DaoSystemException e) {
             e.printStackTrace();
         }
@@ -81,8 +92,8 @@ public class PlaceDaoDbTest {
             PlaceDaoDbTest.DB.busyPlace(busyPlaces[0]);
             PlaceDaoDbTest.DB.busyPlace(busyPlaces[1]);
             PlaceDaoDbTest.DB.busyPlace(busyPlaces[2]);
-            assertThat(PlaceDaoDbTest.DB.findBusyPlaces(), containsInAnyOrder(busyPlaces));
-            assertThat(PlaceDaoDbTest.DB.findBusyPlaces().size(), is(busyPlaces.length));
+            assertThat(PlaceDaoDbTest.DB.findBusyPlaces(Place.DEFAULT_SCREENING), containsInAnyOrder(busyPlaces));
+            assertThat(PlaceDaoDbTest.DB.findBusyPlaces(Place.DEFAULT_SCREENING).size(), is(busyPlaces.length));
         } catch (DaoSystemException e) {
             e.printStackTrace();
         }
@@ -97,4 +108,98 @@ public class PlaceDaoDbTest {
     public void whenPlaceIsOutOfHallThenFalse() throws DaoSystemException {
         assertThat(PlaceDaoDbTest.DB.inHall(new Place(4, 1)), is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenPlaceIsFreeThenTicketIsCreated() throws DaoSystemException, AlreadyOccupiedPlaceException {
+        PlaceDaoDbTest.DB.createTicket(new Place(2, 2), new Person("Buyer", "123"));
+        assertThat(PlaceDaoDbTest.DB.isBusy(new Place(2, 2)), is(true));
+        assertThat(PlaceDaoDbTest.DB.checkAccount(new Person("Buyer", "123")), is(true));
+    }
+
+    @Test(expected = AlreadyOccupiedPlaceException.class)
+    public void whenPlaceIsBusyThenTicketIsNotCreated() throws DaoSystemException, AlreadyOccupiedPlaceException {
+        PlaceDaoDbTest.DB.busyPlace(new Place(2, 3));
+        PlaceDaoDbTest.DB.createTicket(new Place(2, 3), new Person("Buyer", "123"));
+    }
+
+    @Test
+    public void whenHallIsCreatedThenItIsFirstScreening() throws DaoSystemException {
+        assertThat(PlaceDaoDbTest.DB.findScreenings().get(0).getId(), is(Place.DEFAULT_SCREENING));
+        assertThat(PlaceDaoDbTest.DB.findAllPlaces(Place.DEFAULT_SCREENING).get(0).getScreening(), is(Place.DEFAULT_SCREENING));
+    }
+
+    @Test
+    public void whenPlacesAreFreeThenAllTicketsAreCreated() throws DaoSystemException, AlreadyOccupiedPlaceException {
+        PlaceDaoDbTest.DB.createTickets(Arrays.asList(new Place(3, 2), new Place(3, 1)), new Person("Group", "123"));
+        assertThat(PlaceDaoDbTest.DB.isBusy(new Place(3, 1)), is(true));
+        assertThat(PlaceDaoDbTest.DB.isBusy(new Place(3, 2)), is(true));
+    }
+
+    @Test
+    public void whenSomePlaceIsBusyThenNoTicketIsCreatedAndItIsReported() throws DaoSystemException {
+        PlaceDaoDbTest.DB.busyPlace(new Place(3, 3));
+        try {
+            PlaceDaoDbTest.DB.createTickets(
+                    Arrays.asList(new Place(3, 1), new Place(3, 3), new Place(4, 1)), new Person("Group", "123")
+            );
+            fail("The busy places are not reported.");
+        } catch (AlreadyOccupiedPlaceException e) {
+            assertThat(e.getPlaces(), contains(new Place(3, 3, Place.BUSY), new Place(4, 1)));
+        }
+        assertThat(PlaceDaoDbTest.DB.isFree(new Place(3, 1)), is(true));
+    }
+
+    @Test
+    public void whenOrdersOfBatchShareThePlaceThenTheFirstIsSoldAndTheOtherIsRefused() throws DaoSystemException {
+        List<List<Place>> result = PlaceDaoDbTest.DB.createTickets(Arrays.asList(
+                new Order(Arrays.asList(new Place(2, 1), new Place(2, 2)), new Person("First", "123")),
+                new Order(Arrays.asList(new Place(2, 2), new Place(2, 3)), new Person("Second", "456")),
+                new Order(Arrays.asList(new Place(2, 3)), new Person("Third", "789"))
+        ));
+        assertThat(result.get(0).isEmpty(), is(true));
+        assertThat(result.get(1), contains(new Place(2, 2, Place.BUSY)));
+        assertThat(result.get(2).isEmpty(), is(true));
+        assertThat(PlaceDaoDbTest.DB.findBusyPlaces(Place.DEFAULT_SCREENING), contains(
+                new Place(2, 1, Place.BUSY), new Place(2, 2, Place.BUSY), new Place(2, 3, Place.BUSY)
+        ));
+    }
+
+    @Test
+    public void whenCustomerBuysAgainWithNewPhoneThenTheSameAccountIsUpdated() throws DaoSystemException, AlreadyOccupiedPlaceException, SQLException {
+        PlaceDaoDbTest.DB.createTicket(new Place(1, 2), new Person("Repeat", "123"));
+        PlaceDaoDbTest.DB.createTickets(Arrays.asList(new Place(1, 3)), new Person("Repeat", "456"));
+        PlaceDaoDbTest.DB.addAccount(new Person("Repeat", "789"));
+        assertThat(PlaceDaoDbTest.DB.checkAccount(new Person("Repeat", "456")), is(true));
+        assertThat(this.phonesOf("Repeat"), contains("456"));
+        assertThat(PlaceDaoDbTest.DB.isBusy(new Place(1, 3)), is(true));
+    }
+
+    @Test
+    public void whenSaleIsRefusedThenNoAccountIsSaved() throws DaoSystemException, SQLException {
+        PlaceDaoDbTest.DB.busyPlace(new Place(4, 2));
+        try {
+            PlaceDaoDbTest.DB.createTicket(new Place(4, 2), new Person("Refused", "123"));
+            fail("The busy place is sold.");
+        } catch (AlreadyOccupiedPlaceException e) {
+            assertThat(this.phonesOf("Refused").isEmpty(), is(true));
+        }
+        PlaceDaoDbTest.DB.createTickets(Arrays.asList(
+                new Order(Arrays.asList(new Place(4, 2)), new Person("Refused too", "456"))
+        ));
+        assertThat(this.phonesOf("Refused too").isEmpty(), is(true));
+    }
+
+    private List<String> phonesOf(String name) throws SQLException {
+        List<String> result = new ArrayList<String>();
+        try (Connection connection = PlaceDaoDbTest.DB.getPool().getConnection();
+             PreparedStatement statement = connection.prepareStatement("select phone from accounts where name = ?;")) {
+            statement.setString(1, name);
+            try (ResultSet rslSet = statement.executeQuery()) {
+                while (rslSet.next()) {
+                    result.add(rslSet.getString("phone"));
+                }
+            }
+        }
+        return result;
+    }
+}
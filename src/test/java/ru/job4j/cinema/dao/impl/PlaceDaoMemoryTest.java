@@ -0,0 +1,119 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * In-memory storage test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class PlaceDaoMemoryTest {
+    private PlaceDaoMemory dao;
+
+    @Before
+    public void init() {
+        this.dao = new PlaceDaoMemory(2, 3, 4, 500);
+    }
+
+    @Test
+    public void whenCreatedThenAllPlacesAreFree() {
+        assertThat(this.dao.findScreenings().size(), is(2));
+        assertThat(this.dao.findAllPlaces(2).size(), is(12));
+        assertThat(this.dao.findFreePlaces(2).size(), is(12));
+        assertThat(this.dao.findAllPlaces(3).size(), is(0));
+        assertThat(this.dao.inHall(new Place(3, 4)), is(true));
+        assertThat(this.dao.inHall(new Place(4, 1)), is(false));
+        assertThat(this.dao.getActualPrice(new Place(1, 1)), is(500));
+    }
+
+    @Test
+    public void whenTicketIsCreatedThenPlaceIsBusyAndAccountIsSaved() throws Exception {
+        Person person = new Person("name", "phone");
+        this.dao.createTicket(new Place(2, 3), person);
+        assertThat(this.dao.isBusy(new Place(2, 3)), is(true));
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING), contains(new Place(2, 3, Place.BUSY)));
+        assertThat(this.dao.checkAccount(person), is(true));
+        assertThat(this.dao.owner(new Place(2, 3)), is(this.dao.accountOf(person)));
+        this.dao.createTicket(new Place(1, 1), new Person("name", "other"));
+        assertThat(this.dao.owner(new Place(1, 1)), is(this.dao.accountOf(person)));
+    }
+
+    @Test(expected = AlreadyOccupiedPlaceException.class)
+    public void whenPlaceIsBusyThenTicketIsNotCreated() throws Exception {
+        this.dao.busyPlace(new Place(1, 1));
+        this.dao.createTicket(new Place(1, 1), new Person("name", "phone"));
+    }
+
+    @Test
+    public void whenSomePlaceIsBusyThenNoneOfGroupIsTaken() throws Exception {
+        Person person = new Person("name", "phone");
+        this.dao.busyPlace(new Place(2, 2));
+        try {
+            this.dao.createTickets(Arrays.asList(new Place(1, 1), new Place(2, 2), new Place(5, 5)), person);
+            fail("The unavailable places are not reported.");
+        } catch (AlreadyOccupiedPlaceException e) {
+            assertThat(e.getPlaces(), contains(new Place(2, 2, Place.BUSY), new Place(5, 5)));
+        }
+        assertThat(this.dao.isFree(new Place(1, 1)), is(true));
+        this.dao.createTickets(Arrays.asList(new Place(1, 2), new Place(1, 1)), person);
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING).size(), is(3));
+        this.dao.freePlace(new Place(2, 2));
+        assertThat(this.dao.findBusyPlaces(Place.DEFAULT_SCREENING).size(), is(2));
+    }
+
+    @Test
+    public void whenGroupsCompeteThenEveryPlaceIsSoldOnce() throws Exception {
+        int buyers = 8;
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < buyers; i++) {
+            Person person = new Person(String.format("buyer %d", i), "phone");
+            int shift = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int row = 1; row <= 3; row++) {
+                        List<Place> group = new ArrayList<Place>();
+                        for (int number = 1; number <= 4; number++) {
+                            group.add(new Place(row, (number + shift) % 4 + 1));
+                        }
+                        try {
+                            this.dao.createTickets(group, person);
+                            sold.addAndGet(group.size());
+                        } catch (AlreadyOccupiedPlaceException e) {
+                            assertThat(e.getPlaces().isEmpty(), is(false));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(sold.get(), is(12));
+        assertThat(this.dao.findFreePlaces(Place.DEFAULT_SCREENING).size(), is(0));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.model.Order;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Group commit pipeline test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class PlaceDaoPipelineTest {
+    private PlaceDaoDb storage;
+
+    private PlaceDaoPipeline dao;
+
+    @Before
+    public void init() throws DaoSystemException {
+        this.storage = mock(PlaceDaoDb.class);
+        when(this.storage.createTickets(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            List<List<Place>> result = new ArrayList<List<Place>>();
+            for (Order order : orders) {
+                if ("Bad".equals(order.getPerson().getName())) {
+                    throw new DaoSystemException("value too long for type character varying(30)");
+                }
+                result.add("Late".equals(order.getPerson().getName()) ? order.getPlaces() : Collections.<Place>emptyList());
+            }
+            return result;
+        });
+        this.dao = new PlaceDaoPipeline(this.storage, 16, 200, 16, 5000);
+        this.dao.start();
+    }
+
+    @After
+    public void stop() {
+        this.dao.stop();
+    }
+
+    @Test
+    public void whenBuyersComeTogetherThenOneBatchAndEveryBuyerGetsItsOwnOutcome() throws Exception {
+        ExecutorService buyers = Executors.newFixedThreadPool(2);
+        Future<?> first = buyers.submit(() -> {
+            this.dao.createTicket(new Place(1, 1), new Person("First", "123"));
+            return null;
+        });
+        Future<?> late = buyers.submit(() -> {
+            this.dao.createTickets(Arrays.asList(new Place(1, 1), new Place(1, 2)), new Person("Late", "456"));
+            return null;
+        });
+        first.get();
+        List<Place> refused = null;
+        try {
+            late.get();
+        } catch (ExecutionException e) {
+            refused = ((AlreadyOccupiedPlaceException) e.getCause()).getPlaces();
+        }
+        assertThat(refused, contains(new Place(1, 1), new Place(1, 2)));
+        buyers.shutdown();
+        verify(this.storage, times(1)).createTickets(anyList());
+    }
+
+    @Test
+    public void whenBatchHasOneBadOrderThenOnlyItFails() throws Exception {
+        ExecutorService buyers = Executors.newFixedThreadPool(3);
+        List<Future<?>> purchases = new ArrayList<Future<?>>();
+        for (String name : Arrays.asList("First", "Bad", "Second")) {
+            int number = purchases.size() + 1;
+            purchases.add(buyers.submit(() -> {
+                this.dao.createTicket(new Place(2, number), new Person(name, "123"));
+                return null;
+            }));
+        }
+        purchases.get(0).get();
+        purchases.get(2).get();
+        try {
+            purchases.get(1).get();
+            fail("The bad order is sold.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof DaoSystemException, is(true));
+        }
+        buyers.shutdown();
+    }
+
+    @Test(expected = DaoSystemException.class)
+    public void whenWriterIsStoppedThenPurchaseIsRefusedAtOnce() throws Exception {
+        this.dao.stop();
+        this.dao.createTicket(new Place(1, 1), new Person("First", "123"));
+    }
+}
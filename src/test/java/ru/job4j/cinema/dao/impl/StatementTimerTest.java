@@ -0,0 +1,52 @@
+package ru.job4j.cinema.dao.impl;
+
+import org.junit.Test;
+import ru.job4j.cinema.metrics.Metrics;
+import ru.job4j.cinema.model.Place;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Statement timer test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class StatementTimerTest {
+    @Test
+    public void whenSqlHasLiteralsThenFingerprintHasPlaceholders() {
+        assertThat(
+                StatementTimer.fingerprint("update hall\n   set isempty = 'it''s' where id = 42 and row = ?;"),
+                is("update hall set isempty = ? where id = ? and row = ?")
+        );
+    }
+
+    @Test
+    public void whenQueryIsExecutedThenTimeAndRowsAreMeasured() throws Exception {
+        int rows = 0;
+        try (Connection connection = PlaceDaoDb.getInstanceOf().getPool().getConnection();
+             PreparedStatement statement = connection.prepareStatement("select * from hall where screening_id = ? and 7 = 7;")) {
+            statement.setInt(1, Place.DEFAULT_SCREENING);
+            try (ResultSet rslSet = statement.executeQuery()) {
+                while (rslSet.next()) {
+                    rows++;
+                }
+            }
+        }
+        StringBuilder out = new StringBuilder();
+        Metrics.getInstanceOf().write(out);
+        assertThat(out.toString(), containsString(
+                "cinema_sql_seconds_count{sql=\"select * from hall where screening_id = ? and ? = ?\"} 1\n"
+        ));
+        assertThat(out.toString(), containsString(
+                String.format("cinema_sql_rows_total{sql=\"select * from hall where screening_id = ? and ? = ?\"} %d\n", rows)
+        ));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.job4j.cinema.event;
+
+import org.junit.Test;
+import ru.job4j.cinema.model.Place;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Change log test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class ChangeLogTest {
+    private final ChangeLog log = new ChangeLog(3);
+
+    @Test
+    public void whenPlaceChangedTwiceThenLastStateOnly() {
+        this.log.add(new Place(1, 1, Place.BUSY));
+        this.log.add(new Place(1, 2, Place.BUSY));
+        assertThat(this.log.add(new Place(1, 1, Place.FREE)), is(3L));
+        assertThat(this.log.since(0), is(Arrays.asList(new Place(1, 1, Place.FREE), new Place(1, 2, Place.BUSY))));
+        assertThat(this.log.since(2), is(Arrays.asList(new Place(1, 1, Place.FREE))));
+        assertThat(this.log.since(3).isEmpty(), is(true));
+    }
+
+    @Test
+    public void whenVersionIsOverwrittenOrUnknownThenNull() {
+        for (int version = 1; version <= 5; version++) {
+            this.log.add(new Place(1, version, Place.BUSY));
+        }
+        assertThat(this.log.since(2), is(Arrays.asList(
+                new Place(1, 3, Place.BUSY), new Place(1, 4, Place.BUSY), new Place(1, 5, Place.BUSY)
+        )));
+        assertThat(this.log.since(1), is(nullValue()));
+        assertThat(this.log.since(6), is(nullValue()));
+        assertThat(this.log.since(-1), is(nullValue()));
+    }
+}
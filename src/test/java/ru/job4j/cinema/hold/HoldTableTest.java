@@ -0,0 +1,74 @@
+package ru.job4j.cinema.hold;
+
+import org.junit.Test;
+import ru.job4j.cinema.model.Place;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Hold table test. The wheel is advanced by hand.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class HoldTableTest {
+    private final List<Place> expired = new ArrayList<Place>();
+
+    private final HoldTable holds = new HoldTable(3000, 1000, 2, this.expired::add);
+
+    @Test
+    public void whenPlaceIsHeldThenOthersCannotHoldItButOtherScreeningCan() {
+        assertThat(this.holds.hold(new Place(1, 1), "first"), is(true));
+        assertThat(this.holds.hold(new Place(1, 1), "second"), is(false));
+        assertThat(this.holds.hold(new Place(2, 1, 1, Place.FREE, 0), "second"), is(true));
+        assertThat(this.holds.isHeldBy(new Place(1, 1), "first"), is(true));
+        assertThat(this.holds.release(new Place(1, 1), "second"), is(false));
+        assertThat(this.holds.release(new Place(1, 1), "first"), is(true));
+        assertThat(this.holds.hold(new Place(1, 1), "second"), is(true));
+    }
+
+    @Test
+    public void whenPlaceIsTakenOverThenItIsHeldByNewHolderTillItsTime() {
+        this.holds.hold(new Place(1, 1), "first");
+        assertThat(this.holds.take(new Place(1, 1), "second", 1500), is(false));
+        assertThat(this.holds.isHeldBy(new Place(1, 1), "second"), is(true));
+        assertThat(this.holds.take(new Place(1, 2), "second", 1500), is(true));
+        this.holds.advance();
+        assertThat(this.holds.isHeld(new Place(1, 1)), is(true));
+        this.holds.advance();
+        assertThat(this.holds.isHeld(new Place(1, 1)), is(false));
+        assertThat(this.expired, is(Arrays.asList(new Place(1, 1), new Place(1, 2))));
+    }
+
+    @Test
+    public void whenTimeToLiveIsOverThenHoldExpiresAfterWheelRound() {
+        this.holds.hold(new Place(1, 1), "first");
+        this.holds.advance();
+        this.holds.advance();
+        assertThat(this.holds.isHeld(new Place(1, 1)), is(true));
+        this.holds.advance();
+        assertThat(this.holds.isHeld(new Place(1, 1)), is(false));
+        assertThat(this.expired, is(Arrays.asList(new Place(1, 1))));
+    }
+
+    @Test
+    public void whenHoldIsProlongedOrReleasedThenOldDeadlineIsIgnored() {
+        this.holds.hold(new Place(1, 1), "first");
+        this.holds.hold(new Place(1, 2), "first");
+        this.holds.advance();
+        this.holds.hold(new Place(1, 1), "first");
+        this.holds.release(new Place(1, 2), "first");
+        this.holds.advance();
+        this.holds.advance();
+        assertThat(this.holds.isHeld(new Place(1, 1)), is(true));
+        assertThat(this.expired.isEmpty(), is(true));
+        this.holds.advance();
+        assertThat(this.expired, is(Arrays.asList(new Place(1, 1))));
+    }
+}
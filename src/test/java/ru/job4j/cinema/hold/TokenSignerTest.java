@@ -0,0 +1,47 @@
+package ru.job4j.cinema.hold;
+
+import org.junit.Test;
+import ru.job4j.cinema.model.Place;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Booking tokens' signer test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class TokenSignerTest {
+    private final TokenSigner signer = new TokenSigner("secret", 300);
+
+    @Test
+    public void whenTokenIsSignedThenAnyNodeWithSameKeyVerifiesIt() {
+        String token = this.signer.sign(new Place(2, 3, 4, Place.FREE, 700), "holder", 1000);
+        BookingToken booking = new TokenSigner("secret", 60).verify(token, 1299);
+        assertThat(booking.getPlace(), is(new Place(2, 3, 4, Place.FREE, 0)));
+        assertThat(booking.getPlace().getPrice(), is(700));
+        assertThat(booking.getHolder(), is("holder"));
+        assertThat(booking.getExpires(), is(1300L));
+    }
+
+    @Test
+    public void whenTokenIsExpiredThenItIsRejected() {
+        String token = this.signer.sign(new Place(1, 1), "holder", 1000);
+        assertThat(this.signer.verify(token, 1300), is(nullValue()));
+    }
+
+    @Test
+    public void whenTokenIsForgedOrMalformedThenItIsRejected() {
+        String token = this.signer.sign(new Place(1, 1), "holder", 1000);
+        String payload = token.substring(0, token.indexOf('.'));
+        String forged = this.signer.sign(new Place(1, 1, 1, Place.FREE, 1), "holder", 1000);
+        assertThat(this.signer.verify(payload + forged.substring(forged.indexOf('.')), 1000), is(nullValue()));
+        assertThat(new TokenSigner("other", 300).verify(token, 1000), is(nullValue()));
+        assertThat(this.signer.verify("!!!.???", 1000), is(nullValue()));
+        assertThat(this.signer.verify(payload, 1000), is(nullValue()));
+        assertThat(this.signer.verify(null, 1000), is(nullValue()));
+    }
+}
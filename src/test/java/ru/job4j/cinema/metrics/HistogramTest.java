@@ -0,0 +1,42 @@
+package ru.job4j.cinema.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Histogram test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class HistogramTest {
+    @Test
+    public void whenValuesAreRecordedThenPercentilesAreWithinPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertThat(histogram.getCount(), is(100000L));
+        assertThat(histogram.getMax(), is(100000000L));
+        long median = histogram.getValueAtPercentile(50);
+        assertThat(median, greaterThanOrEqualTo(50000000L));
+        assertThat(median, lessThanOrEqualTo(50000000L + 50000000L / 16));
+        long p99 = histogram.getValueAtPercentile(99);
+        assertThat(p99, greaterThanOrEqualTo(99000000L));
+        assertThat(p99, lessThanOrEqualTo(100000000L));
+        assertThat(histogram.getValueAtPercentile(100), is(100000000L));
+    }
+
+    @Test
+    public void whenOnlyZeroIsRecordedThenZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+        assertThat(new Histogram().getValueAtPercentile(50), is(0L));
+    }
+}
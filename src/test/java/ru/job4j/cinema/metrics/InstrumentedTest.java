@@ -0,0 +1,51 @@
+package ru.job4j.cinema.metrics;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+/**
+ * Instrumented and Metrics test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.1
+ * @since 18/10/2026
+ */
+public class InstrumentedTest {
+    interface Service {
+        String call();
+    }
+
+    @Test
+    public void whenCalledThenTimedAndErrorsCountedByTypeAndWritten() throws Exception {
+        Metrics.Family family = Metrics.getInstanceOf().family("test_calls", "The test calls.", "exception");
+        int[] calls = {0};
+        Service service = Instrumented.wrap(Service.class, () -> {
+            if (calls[0]++ > 0) {
+                throw new IllegalStateException("twice");
+            }
+            return "once";
+        }, family);
+        assertThat(service.call(), is("once"));
+        try {
+            service.call();
+            fail("The exception is not thrown through.");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("twice"));
+        }
+        Timer timer = family.timer("method=\"call\"");
+        assertThat(timer.getLatencies().getCount(), is(2L));
+        assertThat(timer.getErrors().get("IllegalStateException").sum(), is(1L));
+        StringBuilder out = new StringBuilder();
+        Metrics.getInstanceOf().write(out);
+        assertThat(out.toString(), containsString("# TYPE test_calls_seconds summary\n"));
+        assertThat(out.toString(), containsString("test_calls_seconds{method=\"call\",quantile=\"0.999\"} "));
+        assertThat(out.toString(), containsString("test_calls_seconds_count{method=\"call\"} 2\n"));
+        assertThat(out.toString(), containsString(
+                "test_calls_errors_total{method=\"call\",exception=\"IllegalStateException\"} 1\n"
+        ));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.job4j.cinema.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Free seat index test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class FreeSeatIndexTest {
+    private List<Place> hall(int rows, int seats) {
+        List<Place> result = new ArrayList<Place>();
+        for (int row = 1; row <= rows; row++) {
+            for (int number = 1; number <= seats; number++) {
+                result.add(new Place(row, number, Place.FREE, row == 1 ? 100 : 200));
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void whenHallIsFreeThenCentralSeats() {
+        FreeSeatIndex index = new FreeSeatIndex(Place.DEFAULT_SCREENING, this.hall(3, 5), 0);
+        assertThat(index.findBest(3, SeatPreferences.ANY), contains(
+                new Place(2, 2, Place.FREE, 200), new Place(2, 3, Place.FREE, 200), new Place(2, 4, Place.FREE, 200)
+        ));
+    }
+
+    @Test
+    public void whenCentralSeatIsTakenThenSeatsAroundItAndBackAfterItIsFree() {
+        FreeSeatIndex index = new FreeSeatIndex(Place.DEFAULT_SCREENING, this.hall(3, 5), 0);
+        index.apply(new Place(2, 3, Place.BUSY));
+        assertThat(index.findBest(2, SeatPreferences.ANY), contains(new Place(2, 1), new Place(2, 2)));
+        assertThat(index.findBest(3, SeatPreferences.ANY), contains(new Place(1, 2), new Place(1, 3), new Place(1, 4)));
+        index.apply(new Place(2, 3, Place.FREE));
+        assertThat(index.findBest(5, SeatPreferences.ANY).get(0), is(new Place(2, 1)));
+    }
+
+    @Test
+    public void whenPreferencesLimitRowsAndPriceThenOnlySuitableSeats() {
+        FreeSeatIndex index = new FreeSeatIndex(Place.DEFAULT_SCREENING, this.hall(3, 5), 0);
+        assertThat(index.findBest(1, new SeatPreferences(1, 3, 150)), contains(new Place(1, 3)));
+        assertThat(index.findBest(1, new SeatPreferences(3, 3, 500)), contains(new Place(3, 3)));
+        assertThat(index.findBest(1, new SeatPreferences(1, 3, 50)).isEmpty(), is(true));
+        assertThat(index.findBest(6, SeatPreferences.ANY).isEmpty(), is(true));
+    }
+
+    @Test
+    public void whenFreeRunCrossesWordsThenItIsFound() {
+        List<Place> hall = this.hall(1, 150);
+        for (Place place : hall) {
+            place.setEmpty(place.getNumber() > 60 && place.getNumber() <= 130);
+        }
+        FreeSeatIndex index = new FreeSeatIndex(Place.DEFAULT_SCREENING, hall, 0);
+        List<Place> result = index.findBest(70, SeatPreferences.ANY);
+        assertThat(result.size(), is(70));
+        assertThat(result.get(0), is(new Place(1, 61)));
+        assertThat(index.findBest(71, SeatPreferences.ANY).isEmpty(), is(true));
+    }
+}
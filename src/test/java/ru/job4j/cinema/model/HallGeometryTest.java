@@ -0,0 +1,47 @@
+package ru.job4j.cinema.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Hall geometry test.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class HallGeometryTest {
+    private final HallGeometry geometry = new HallGeometry(Arrays.asList(
+            new Place(1, 1, Place.FREE, 300), new Place(1, 2, Place.FREE, 300),
+            new Place(2, 1, Place.FREE, 500), new Place(2, 3, Place.BUSY, 700)
+    ));
+
+    @Test
+    public void whenBuiltThenRowsAndSeatsAreKnown() {
+        assertThat(this.geometry.getRows(), is(2));
+        assertThat(this.geometry.getSeats(1), is(2));
+        assertThat(this.geometry.getSeats(2), is(3));
+        assertThat(this.geometry.getSeats(3), is(0));
+        assertThat(this.geometry.size(), is(5));
+    }
+
+    @Test
+    public void whenPlaceIsInGapOrOutOfHallThenNotContained() {
+        assertThat(this.geometry.contains(new Place(2, 3)), is(true));
+        assertThat(this.geometry.contains(new Place(2, 2)), is(false));
+        assertThat(this.geometry.contains(new Place(1, 3)), is(false));
+        assertThat(this.geometry.contains(new Place(0, 1)), is(false));
+        assertThat(this.geometry.contains(new Place(3, 1)), is(false));
+    }
+
+    @Test
+    public void whenPricesDifferThenSeatsAreInZones() {
+        assertThat(this.geometry.getZonePrices(), is(new int[] {300, 500, 700}));
+        assertThat(this.geometry.getZone(this.geometry.indexOf(1, 2)), is(0));
+        assertThat(this.geometry.getPrice(this.geometry.indexOf(2, 3)), is(700));
+    }
+}
@@ -0,0 +1,156 @@
+package ru.job4j.cinema.validate.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ru.job4j.cinema.dao.PlaceDao;
+import ru.job4j.cinema.dao.exception.business.AlreadyOccupiedPlaceException;
+import ru.job4j.cinema.dao.exception.business.NoSuchModelException;
+import ru.job4j.cinema.dao.exception.business.NullArgumentException;
+import ru.job4j.cinema.dao.exception.business.WrongArgumentException;
+import ru.job4j.cinema.dao.exception.system.DaoSystemException;
+import ru.job4j.cinema.event.PlaceEvents;
+import ru.job4j.cinema.event.PlaceListener;
+import ru.job4j.cinema.model.Person;
+import ru.job4j.cinema.model.Place;
+import ru.job4j.cinema.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DB validator test over the mocked storage. The holds do not expire by themselves, the expiry is called by hand.
+ *
+ * @author Gregory Smirnov (artress@ngs.ru)
+ * @version 1.5
+ * @since 18/10/2026
+ */
+public class ValidatorDBTest {
+    private static final int SCREENING = 901;
+
+    private final List<Place> events = new CopyOnWriteArrayList<Place>();
+
+    private final PlaceListener listener = place -> {
+        if (place.getScreening() == ValidatorDBTest.SCREENING) {
+            this.events.add(place);
+        }
+    };
+
+    private PlaceDao storage;
+
+    private ValidatorDB validator;
+
+    @Before
+    public void init() throws DaoSystemException {
+        this.storage = mock(PlaceDao.class);
+        when(this.storage.findAllPlaces(ValidatorDBTest.SCREENING)).thenAnswer(invocation -> new ArrayList<Place>(
+                Arrays.asList(
+                        new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 100),
+                        new Place(ValidatorDBTest.SCREENING, 1, 2, Place.FREE, 100),
+                        new Place(ValidatorDBTest.SCREENING, 1, 3, Place.BUSY, 100)
+                )
+        ));
+        when(this.storage.isFree(any(Place.class))).thenReturn(true);
+        this.validator = new ValidatorDB(this.storage, 3600);
+        PlaceEvents.getInstanceOf().subscribe(this.listener);
+    }
+
+    @After
+    public void destroy() {
+        PlaceEvents.getInstanceOf().unsubscribe(this.listener);
+        this.validator.stop();
+    }
+
+    @Test
+    public void whenHoldExpiresThenPlaceIsPublishedFree() {
+        this.validator.expire(new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0));
+        assertThat(this.events, is(Arrays.asList(new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 100))));
+    }
+
+    @Test
+    public void whenPlaceIsHeldAgainBeforeExpiryIsPublishedThenItIsNotPublishedFree() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        Place place = new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0);
+        this.validator.holdPlace(place, "second");
+        this.validator.expire(place);
+        assertThat(this.events, is(Arrays.asList(new Place(ValidatorDBTest.SCREENING, 1, 1, Place.BUSY, 100))));
+        assertThat(this.validator.isFree(place), is(false));
+    }
+
+    @Test
+    public void whenPlaceIsHeldThenItIsBusyInAllViews() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException, NoSuchModelException {
+        this.validator.holdPlace(new Place(ValidatorDBTest.SCREENING, 1, 2, Place.FREE, 0), "first");
+        assertThat(this.validator.selectBusyPlaces(ValidatorDBTest.SCREENING), is(Arrays.asList(
+                new Place(ValidatorDBTest.SCREENING, 1, 2, Place.BUSY, 100),
+                new Place(ValidatorDBTest.SCREENING, 1, 3, Place.BUSY, 100)
+        )));
+        assertThat(this.validator.selectAllPlaces(ValidatorDBTest.SCREENING).get(1).isEmpty(), is(false));
+        assertThat(this.validator.isBusy(new Place(ValidatorDBTest.SCREENING, 1, 2, Place.FREE, 0)), is(true));
+    }
+
+    @Test
+    public void whenBookingOfOtherNodeIsAdoptedThenItsHolderBuysThePlace() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        Place place = new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0);
+        this.validator.holdPlace(place, "second");
+        this.validator.adoptBooking(place, "first", System.currentTimeMillis() / 1000 + 60);
+        this.validator.createTicket(new Ticket(place, new Person("Buyer", "123")), "first");
+        assertThat(this.validator.isFree(place), is(true));
+    }
+
+    @Test
+    public void whenDatabaseFailsThenHoldOfPurchaseIsReleased() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        Place place = new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0);
+        doThrow(new DaoSystemException("Connection is lost.")).when(this.storage).createTicket(any(Place.class), any(Person.class));
+        try {
+            this.validator.createTicket(new Ticket(place, new Person("Buyer", "123")), "first");
+            fail("The purchase is done without the database.");
+        } catch (DaoSystemException e) {
+            assertThat(this.validator.isFree(place), is(true));
+        }
+    }
+
+    @Test
+    public void whenDatabaseFailsThenHoldsOfGroupPurchaseAreReleased() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        Place first = new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0);
+        Place second = new Place(ValidatorDBTest.SCREENING, 1, 2, Place.FREE, 0);
+        this.validator.holdPlace(first, "first");
+        doThrow(new DaoSystemException("Connection is lost.")).when(this.storage).createTickets(any(), any(Person.class));
+        try {
+            this.validator.createTickets(Arrays.asList(first, second), new Person("Group", "123"), "first");
+            fail("The purchase is done without the database.");
+        } catch (DaoSystemException e) {
+            assertThat(this.validator.isFree(first), is(false));
+            assertThat(this.validator.isFree(second), is(true));
+        }
+    }
+
+    @Test(expected = WrongArgumentException.class)
+    public void whenPlaceIsListedTwiceThenNoTicketIsCreated() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.validator.createTickets(
+                Arrays.asList(
+                        new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0),
+                        new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0)
+                ),
+                new Person("Group", "123"),
+                "first"
+        );
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void whenPersonHasNoPhoneThenNoTicketIsCreated() throws NullArgumentException, WrongArgumentException, DaoSystemException, AlreadyOccupiedPlaceException {
+        this.validator.createTickets(
+                Arrays.asList(new Place(ValidatorDBTest.SCREENING, 1, 1, Place.FREE, 0)),
+                new Person("Group", null),
+                "first"
+        );
+    }
+}